@@ -0,0 +1,79 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.InfiniteWorldManager;
+import pepse.world.InfiniteWorldObjectPlacer;
+import pepse.world.ObjectKind;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A full chunk swap through {@link InfiniteWorldManager}: every call advances the avatar by one
+ * chunk, which generates and attaches one chunk and detaches another, into a real engine
+ * object collection that is flushed like a frame would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChunkLoadBenchmark {
+	@Param({ "42", "1234" })
+	private int seed;
+	
+	@Param({ "1024", "1920" })
+	private int chunkWidth;
+	
+	private GameObjectCollection gameObjects;
+	private InfiniteWorldManager worldManager;
+	private float avatarX;
+	
+	@Setup
+	public void setUp() {
+		this.gameObjects = new GameObjectCollection(null);
+		final Terrain terrain = WorldFixture.newTerrain(this.seed);
+		final Flora flora = new Flora(terrain :: groundHeightAt, this.seed);
+		final InfiniteWorldObjectPlacer placer = new InfiniteWorldObjectPlacer() {
+			@Override
+			public void placeObject(GameObject obj) {
+				ChunkLoadBenchmark.this.gameObjects.addGameObject(obj, ChunkLoadBenchmark.layerOf(obj));
+			}
+			
+			@Override
+			public void removeObject(GameObject gameObject) {
+				ChunkLoadBenchmark.this.gameObjects.removeGameObject(gameObject,
+						ChunkLoadBenchmark.layerOf(gameObject));
+			}
+		};
+		this.worldManager = new InfiniteWorldManager(terrain, flora, placer, null, this.chunkWidth);
+		this.avatarX = this.chunkWidth / 2.0f;
+	}
+	
+	@Benchmark
+	public GameObjectCollection loadNextChunk() {
+		this.avatarX += this.chunkWidth;
+		this.worldManager.update(this.avatarX);
+		this.gameObjects.update(0);
+		return this.gameObjects;
+	}
+	
+	private static int layerOf(GameObject obj) {
+		return Layer.STATIC_OBJECTS + ObjectKind.of(obj).ordinal();
+	}
+}
@@ -0,0 +1,52 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tree generation (trunks, leaves, fruit) for one chunk, on fresh columns every call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloraBenchmark {
+	@Param({ "42", "1234" })
+	private int seed;
+	
+	@Param({ "1024", "1920" })
+	private int chunkWidth;
+	
+	private Flora flora;
+	private int chunkIndex;
+	
+	@Setup
+	public void setUp() {
+		final Terrain terrain = WorldFixture.newTerrain(this.seed);
+		this.flora = new Flora(terrain :: groundHeightAt, this.seed);
+		this.chunkIndex = 0;
+	}
+	
+	@Benchmark
+	public List< GameObject > createInRange() {
+		final int minX = this.chunkIndex++ * this.chunkWidth;
+		return this.flora.createInRange(minX, minX + this.chunkWidth);
+	}
+}
@@ -0,0 +1,51 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.NoiseGenerator;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link NoiseGenerator#noise} sample, walking x one block column per call
+ * the way terrain generation does. The generator and amplitude are the terrain's own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseGeneratorBenchmark {
+	// Columns walked before starting over, as in TerrainBenchmark
+	private static final int COLUMN_RANGE = 1 << 19;
+	
+	@Param({ "42", "1234" })
+	private int seed;
+	
+	private NoiseGenerator noiseGenerator;
+	private int column;
+	
+	@Setup
+	public void setUp() {
+		this.noiseGenerator = WorldFixture.newNoiseGenerator(this.seed);
+		this.column = 0;
+	}
+	
+	@Benchmark
+	public double noise() {
+		this.column = ( this.column + 1 ) % NoiseGeneratorBenchmark.COLUMN_RANGE;
+		return this.noiseGenerator.noise(this.column * Block.SIZE, Terrain.NOISE_FACTOR);
+	}
+}
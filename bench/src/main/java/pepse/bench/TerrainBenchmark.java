@@ -0,0 +1,65 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Terrain height sampling and chunk-sized block generation. Every call moves to fresh
+ * columns, so column caches see the same cold misses as a player walking forward.
+ * Height sampling is the noise as the game configures it, plus one addition.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+	// Columns walked before starting over: far wider than any cache, and small enough that
+	// every column's x is exact in a float
+	private static final int COLUMN_RANGE = 1 << 19;
+	
+	@Param({ "42", "1234" })
+	private int seed;
+	
+	@Param({ "1024", "1920" })
+	private int chunkWidth;
+	
+	private Terrain terrain;
+	private int chunkIndex;
+	private int column;
+	
+	@Setup
+	public void setUp() {
+		this.terrain = WorldFixture.newTerrain(this.seed);
+		this.chunkIndex = 0;
+		this.column = 0;
+	}
+	
+	@Benchmark
+	public float groundHeightAt() {
+		this.column = ( this.column + 1 ) % TerrainBenchmark.COLUMN_RANGE;
+		return this.terrain.groundHeightAt(this.column * Block.SIZE);
+	}
+	
+	@Benchmark
+	public List< Block > createInRange() {
+		final int minX = this.chunkIndex++ * this.chunkWidth;
+		return this.terrain.createInRange(minX, minX + this.chunkWidth);
+	}
+}
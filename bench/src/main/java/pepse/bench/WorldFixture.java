@@ -0,0 +1,36 @@
+package pepse.bench;
+
+import danogl.util.Vector2;
+import pepse.util.NoiseGenerator;
+import pepse.world.Terrain;
+
+/**
+ * Shared constants matching the game's real configuration, so benchmark inputs stay realistic.
+ * Ground height and noise amplitude are not copied here: benchmarks get them from {@link Terrain},
+ * so they cannot drift from the game's constants.
+ */
+final class WorldFixture {
+	/**
+	 * The game's window size; one chunk is one window wide.
+	 */
+	static final Vector2 WINDOW_DIMENSIONS = new Vector2(1024, 768);
+	
+	private WorldFixture() {
+	}
+	
+	/**
+	 * @param seed World seed
+	 * @return The terrain the game generates for the seed at its window size
+	 */
+	static Terrain newTerrain(int seed) {
+		return new Terrain(WorldFixture.WINDOW_DIMENSIONS, seed);
+	}
+	
+	/**
+	 * @param seed World seed
+	 * @return The noise generator that terrain samples, sampled with {@link Terrain#NOISE_FACTOR}
+	 */
+	static NoiseGenerator newNoiseGenerator(int seed) {
+		return Terrain.createNoiseGenerator(WorldFixture.WINDOW_DIMENSIONS, seed);
+	}
+}
@@ -0,0 +1,124 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.world.InfiniteWorldObjectPlacer;
+import pepse.world.ObjectKind;
+import pepse.world.trees.FruitPickupGrid;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The game's {@link InfiniteWorldObjectPlacer}: routes each world object to a layer by its
+ * {@link ObjectKind} through a lookup table, and remembers where every object went so that
+ * removal (and later layer migration) touches exactly one layer.
+ */
+class LayeredObjectPlacer implements InfiniteWorldObjectPlacer {
+	private final GameObjectCollection gameObjects;
+	private final int[] layerByKind = new int[ObjectKind.values().length];
+	private final Map< GameObject, Integer > placedLayers = new IdentityHashMap<>();
+	private final FruitPickupGrid fruitPickupGrid;
+	
+	/**
+	 * Creates a placer.
+	 *
+	 * @param gameObjects     The game's object collection
+	 * @param layerByKind     Initial layer for every object kind
+	 * @param fruitPickupGrid Receives every placed/removed fruit
+	 */
+	LayeredObjectPlacer(GameObjectCollection gameObjects, Map< ObjectKind, Integer > layerByKind,
+	                    FruitPickupGrid fruitPickupGrid) {
+		this.gameObjects = gameObjects;
+		this.fruitPickupGrid = fruitPickupGrid;
+		for ( ObjectKind kind: ObjectKind.values() ) {
+			final Integer layer = layerByKind.get(kind);
+			if (layer == null) {
+				throw new IllegalArgumentException("No layer for object kind " + kind);
+			}
+			this.layerByKind[kind.ordinal()] = layer;
+		}
+	}
+	
+	@Override
+	public void placeObject(GameObject obj) {
+		final ObjectKind kind = ObjectKind.of(obj);
+		final int layer = this.layerByKind[kind.ordinal()];
+		this.gameObjects.addGameObject(obj, layer);
+		this.placedLayers.put(obj, layer);
+		if (kind == ObjectKind.FRUIT) {
+			this.fruitPickupGrid.register(obj);
+		}
+	}
+	
+	@Override
+	public void removeObject(GameObject gameObject) {
+		final Integer layer = this.placedLayers.remove(gameObject);
+		if (layer == null) {
+			return;
+		}
+		this.gameObjects.removeGameObject(gameObject, layer);
+		if (ObjectKind.of(gameObject) == ObjectKind.FRUIT) {
+			this.fruitPickupGrid.unregister(gameObject);
+		}
+	}
+	
+	/**
+	 * Attaches a chunk group by group: one table lookup and one fruit-grid check per kind.
+	 * The engine applies the additions together at its next flush, so the chunk appears
+	 * as one structural change in the frame.
+	 */
+	@Override
+	public void placeChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			final ObjectKind kind = group.getKey();
+			final int layer = this.layerByKind[kind.ordinal()];
+			for ( GameObject obj: group.getValue() ) {
+				this.gameObjects.addGameObject(obj, layer);
+				this.placedLayers.put(obj, layer);
+			}
+			if (kind == ObjectKind.FRUIT) {
+				for ( GameObject obj: group.getValue() ) {
+					this.fruitPickupGrid.register(obj);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Detaches a chunk group by group, each object from the one layer it is remembered in.
+	 */
+	@Override
+	public void removeChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			for ( GameObject obj: group.getValue() ) {
+				final Integer layer = this.placedLayers.remove(obj);
+				if (layer != null) {
+					this.gameObjects.removeGameObject(obj, layer);
+				}
+			}
+			if (group.getKey() == ObjectKind.FRUIT) {
+				for ( GameObject obj: group.getValue() ) {
+					this.fruitPickupGrid.unregister(obj);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Moves a placed object to another layer. Does nothing if it is not placed or already there.
+	 *
+	 * @param obj     A placed object
+	 * @param toLayer Destination layer
+	 */
+	void moveObject(GameObject obj, int toLayer) {
+		final Integer fromLayer = this.placedLayers.get(obj);
+		if (fromLayer == null || fromLayer == toLayer) {
+			return;
+		}
+		this.gameObjects.removeGameObject(obj, fromLayer);
+		this.gameObjects.addGameObject(obj, toLayer);
+		this.placedLayers.put(obj, toLayer);
+	}
+}
@@ -9,22 +9,36 @@ import danogl.gui.UserInputListener;
 import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
+import pepse.input.InputRecorder;
+import pepse.input.ReplayInput;
+import pepse.input.StepInput;
+import pepse.quality.QualityGovernor;
+import pepse.quality.QualityLevel;
+import pepse.session.SessionState;
+import pepse.session.SessionStore;
+import pepse.util.FixedTimestep;
+import pepse.util.FrameProfiler;
 import pepse.world.Avatar;
 import pepse.world.Block;
-import pepse.world.InfiniteWorldManager;
-import pepse.world.InfiniteWorldObjectPlacer;
+import pepse.world.ChunkListener;
+import pepse.world.ObjectKind;
 import pepse.world.Terrain;
+import pepse.world.daynight.DayCycle;
 import pepse.world.daynight.Night;
 import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunHalo;
-import pepse.world.trees.Flora;
+import pepse.world.delta.ChunkDeltaStore;
 import pepse.world.ui.EnergyIndicator;
-import pepse.world.weather.Cloud;
-import pepse.world.weather.Raindrop;
+import pepse.world.ui.Minimap;
+import pepse.world.ui.ProfilerOverlay;
+import pepse.world.weather.CloudCover;
 
 import java.awt.Color;
-import java.util.function.Consumer;
-import java.util.function.Function;
+import java.awt.Graphics2D;
+import java.awt.event.KeyEvent;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
 
 /**
  * The main game manager for PEPSE.
@@ -48,27 +62,67 @@ public class PepseGameManager extends GameManager {
 	private static final int SUN_HALO_LAYER = PepseGameManager.SUN_LAYER + 1;
 	private static final int CLOUD_LAYER = PepseGameManager.SUN_HALO_LAYER + 1;
 	private static final int RAINDROP_LAYER = PepseGameManager.CLOUD_LAYER + 1;
-	private static final int COLLIDABLE_LAYER = Layer.STATIC_OBJECTS;
-	private static final int LEAVES_LAYER = PepseGameManager.COLLIDABLE_LAYER + 1;
-	private static final int FRUIT_LAYER = PepseGameManager.LEAVES_LAYER + 1;
-	private static final int AVATAR_LAYER = Layer.DEFAULT;
 	
 	private static final Vector2 ENERGY_INDICATOR_POSITION = new Vector2(20.0F, 20.0F);
 	private static final Vector2 ENERGY_INDICATOR_SIZE = new Vector2(100.0F, 30.0F);
 	private static final String ENERGY_LABEL_PREFIX = "Energy: ";
+	private static final Vector2 PROFILER_OVERLAY_POSITION = new Vector2(20.0F, 60.0F);
+	private static final Vector2 PROFILER_OVERLAY_SIZE = new Vector2(420.0F, 120.0F);
+	private static final int PROFILER_TOGGLE_KEY = KeyEvent.VK_F3;
+	// Rolling window: a few seconds at the usual frame rates
+	private static final int PROFILER_FRAMES = 300;
+	// Minimap in the top-right corner: a dozen chunks of block columns, one pixel per block
+	private static final int MINIMAP_CHUNKS = 12;
+	private static final int MINIMAP_ROWS = 56;
+	private static final float MINIMAP_MARGIN = 20.0F;
 	private static final String PEPSE_TITLE = "PEPSE";
 	// Tag constants
-	private static final String TRUNK_TAG = "trunk";
-	private static final String GROUND_TAG = "ground";
-	private static final String TAG_BLOCK = "block";
-	private static final String LEAF_TAG = "leaf";
-	private static final String FRUIT_TAG = "fruit";
 	private static final String DEBUG_START_MARKER_TAG = "debugStartMarker";
 	private static final int WINDOW_WIDTH = 1024;
 	private static final int WINDOW_HEIGHT = 768;
-	private Terrain terrain;
+	// System properties naming an input log to write, or to play back instead of the keyboard
+	private static final String RECORD_INPUT_PROPERTY = "pepse.input.record";
+	private static final String REPLAY_INPUT_PROPERTY = "pepse.input.replay";
+	// Generated chunks are kept here between runs; set the property to an empty string to disable
+	private static final String CHUNK_CACHE_PROPERTY = "pepse.cache.dir";
+	private static final String DEFAULT_CHUNK_CACHE_DIRECTORY = "cache";
+	// Session file, resumed on start and written on SAVE_KEY; set the property to an empty string to disable
+	private static final String SESSION_PROPERTY = "pepse.session";
+	private static final String DEFAULT_SESSION_FILE = "pepse-session.bin";
+	private static final int SAVE_KEY = KeyEvent.VK_F5;
+	// Changes made to the world are kept here between runs; set the property to an empty string to disable
+	private static final String CHUNK_DELTAS_PROPERTY = "pepse.deltas.dir";
+	private static final String DEFAULT_CHUNK_DELTAS_DIRECTORY = "world";
+	// Quality level to pin (LOW, MEDIUM, HIGH or ULTRA), or "auto" to let the governor pick
+	private static final String QUALITY_PROPERTY = "pepse.quality";
+	private static final String AUTO_QUALITY = "auto";
+	// Input logs replay in the designed world, so they pin this level
+	private static final QualityLevel DEFAULT_QUALITY = QualityLevel.HIGH;
+	private static final float FRAME_BUDGET_SECONDS = 1 / 60f;
+	// Low-detail chunks shown beyond the loaded ones on each side
+	private static final String LOD_CHUNKS_PROPERTY = "pepse.lod.chunks";
+	private PepseWorld world;
 	private Avatar avatar;
-	private InfiniteWorldManager infiniteWorldManager;
+	private final FrameProfiler profiler = new FrameProfiler(PepseGameManager.PROFILER_FRAMES);
+	private long updateNanos = 0;
+	// Update plus render time of the last rendered frame, 0 before the first
+	private long lastFrameNanos = 0;
+	private CloudCover cloudCover;
+	private QualityGovernor qualityGovernor = null;
+	private UserInputListener liveInput;
+	private UserInputListener gameInput;
+	// What the simulation reads: the game input, one step at a time
+	private StepInput stepInput;
+	private final FixedTimestep timestep = new FixedTimestep(PepseWorld.STEP_SECONDS,
+			PepseWorld.MAX_STEPS_PER_FRAME);
+	// Avatar center before the last step, which rendering interpolates from
+	private float previousAvatarX;
+	private float previousAvatarY;
+	private final DayCycle dayCycle = new DayCycle(PepseGameManager.DAY_CYCLE_LENGTH);
+	private SessionStore sessionStore = null;
+	private WindowController windowController;
+	private InputRecorder recorder = null;
+	private ReplayInput replay = null;
 	
 	private PepseGameManager() {
 		super(PepseGameManager.PEPSE_TITLE, new Vector2(WINDOW_WIDTH, WINDOW_HEIGHT));
@@ -85,129 +139,265 @@ public class PepseGameManager extends GameManager {
 	public void initializeGame(ImageReader imageReader, SoundReader soundReader,
 	                           UserInputListener inputListener, WindowController windowController) {
 		super.initializeGame(imageReader, soundReader, inputListener, windowController);
+		this.windowController = windowController;
+		this.liveInput = inputListener;
+		this.gameInput = this.setupInputLog(inputListener);
+		this.stepInput = new StepInput(this.gameInput);
 		
 		final Vector2 windowDimensions = windowController.getWindowDimensions();
+		final SessionState savedSession = this.setupSession(windowDimensions);
 		
 		// 1) Sky
 		final GameObject sky = pepse.world.Sky.create(windowDimensions);
 		this.gameObjects().addGameObject(sky, PepseGameManager.SKY_LAYER);
 		
 		// 2) Night
-		final GameObject night = Night.create(windowDimensions, PepseGameManager.DAY_CYCLE_LENGTH);
+		final GameObject night = Night.create(windowDimensions, this.dayCycle);
 		this.gameObjects().addGameObject(night, PepseGameManager.NIGHT_LAYER);
 		
 		// 3) Sun
-		final GameObject sun = Sun.create(windowDimensions, PepseGameManager.DAY_CYCLE_LENGTH);
+		final GameObject sun = Sun.create(windowDimensions, this.dayCycle);
 		this.gameObjects().addGameObject(sun, PepseGameManager.SUN_LAYER);
 		
 		// 4) Sun halo
 		final GameObject sunHalo = SunHalo.create(sun);
 		this.gameObjects().addGameObject(sunHalo, PepseGameManager.SUN_HALO_LAYER);
 		
-		// 5) Terrain
-		this.terrain = new Terrain(windowDimensions, PepseGameManager.SEED);
-		
-		// 6) Flora
-		final Flora flora = new Flora(this.terrain :: groundHeightAt, PepseGameManager.SEED);
-		
-		// 7) Avatar near x=0
-		final float groundHeightAtZero = this.terrain.groundHeightAt(0);
-		final Vector2 avatarPos = new Vector2(0, groundHeightAtZero - ( Block.SIZE * 2 ));
-		
-		this.avatar = new Avatar(avatarPos, inputListener, imageReader);
-		this.gameObjects().addGameObject(this.avatar, PepseGameManager.AVATAR_LAYER);
+		// 5) World: terrain, flora, avatar and chunk streaming around x=0 (or the saved position)
+		final String chunkCacheDirectory = System.getProperty(PepseGameManager.CHUNK_CACHE_PROPERTY,
+				PepseGameManager.DEFAULT_CHUNK_CACHE_DIRECTORY);
+		this.world = new PepseWorld(this.gameObjects(), windowDimensions, this.stepInput, PepseGameManager.SEED,
+				chunkCacheDirectory.isEmpty() ? null : Paths.get(chunkCacheDirectory),
+				this.setupChunkDeltas(windowDimensions), savedSession == null ? null : savedSession.getAvatarPosition());
+		this.avatar = this.world.getAvatar();
+		if (savedSession != null) {
+			savedSession.restore(this.world, this.dayCycle);
+		}
+		this.previousAvatarX = this.avatar.getCenter().x();
+		this.previousAvatarY = this.avatar.getCenter().y();
+		this.world.setLodChunksOnEachSide(Integer.getInteger(PepseGameManager.LOD_CHUNKS_PROPERTY, 0));
 
 //		// Optional debugging marker
-//		final GameObject startMarker = new GameObject(avatarPos, new Vector2(10, 10),
+//		final GameObject startMarker = new GameObject(this.avatar.getTopLeftCorner(), new Vector2(10, 10),
 //				new RectangleRenderable(Color.RED));
 //		startMarker.setTag(PepseGameManager.DEBUG_START_MARKER_TAG);
 //		this.gameObjects().addGameObject(startMarker, Layer.UI);
 		
-		// 8) Energy Indicator
+		// 6) Energy Indicator
 		final EnergyIndicator energyIndicator = new EnergyIndicator(
 				PepseGameManager.ENERGY_INDICATOR_POSITION, PepseGameManager.ENERGY_INDICATOR_SIZE,
 				() -> ( int ) Math.floor(this.avatar.getEnergyLevel()), Color.YELLOW,
 				PepseGameManager.ENERGY_LABEL_PREFIX);
 		this.gameObjects().addGameObject(energyIndicator, Layer.UI);
 		
-		// 9) Collisions
-		this.setupCollisions();
+		// 7) Profiler overlay (toggled with F3) and minimap
+		this.setupProfiler(this.stepInput);
+		this.setupMinimap(windowDimensions);
 		
-		// 10) Camera: follow the avatar
+		// 8) Camera: follow the avatar
 		this.setCamera(new Camera(this.avatar, Vector2.ZERO, windowDimensions, windowDimensions));
 		
-		// 11) Cloud + raindrop callback
-		final Function< Vector2, GameObject > createRaindrop = position -> {
-			final Consumer< GameObject > removeDrop = dropObj -> this.gameObjects().removeGameObject(dropObj,
-					PepseGameManager.RAINDROP_LAYER);
-			
-			final GameObject drop = Raindrop.create(position, removeDrop,
-					PepseGameManager.RAINDROP_TRANSITION_DURATION);
-			this.gameObjects().addGameObject(drop, PepseGameManager.RAINDROP_LAYER);
-			return drop;
-		};
+		// 9) Clouds + raindrops
+		this.cloudCover = Weather.addCover(this.gameObjects(), windowDimensions, PepseGameManager.CLOUD_MOVEMENT_TIME,
+				PepseGameManager.RAINDROP_TRANSITION_DURATION, PepseGameManager.CLOUD_LAYER,
+				PepseGameManager.RAINDROP_LAYER, PepseGameManager.DEFAULT_QUALITY.getCloudCount());
+		this.world.addMetricsLayer(WorldMetrics.RAINDROPS_LAYER_NAME, PepseGameManager.RAINDROP_LAYER);
+		// Register the clouds as a jump listener
+		this.avatar.addJumpListener(this.cloudCover);
 		
-		final Cloud cloud = Cloud.create(windowDimensions, PepseGameManager.CLOUD_MOVEMENT_TIME,
-				createRaindrop);
-		for ( Block block: cloud.getCloudBlocks() ) {
-			this.gameObjects().addGameObject(block, PepseGameManager.CLOUD_LAYER);
+		// 10) Quality: pinned, or adapted to the measured frame time
+		this.setupQuality();
+	}
+	
+	/**
+	 * Applies the pinned quality level, or starts the governor that adapts it. Input logs
+	 * always run at the default level.
+	 *
+	 * @throws IllegalArgumentException If the quality property names no level
+	 */
+	private void setupQuality() {
+		final String quality = System.getProperty(PepseGameManager.QUALITY_PROPERTY, PepseGameManager.AUTO_QUALITY);
+		if (this.replay != null || this.recorder != null) {
+			this.applyQuality(PepseGameManager.DEFAULT_QUALITY);
+		} else if (quality.equalsIgnoreCase(PepseGameManager.AUTO_QUALITY)) {
+			this.qualityGovernor = new QualityGovernor(PepseGameManager.FRAME_BUDGET_SECONDS,
+					PepseGameManager.DEFAULT_QUALITY, this :: applyQuality);
+		} else {
+			this.applyQuality(QualityLevel.valueOf(quality.toUpperCase()));
 		}
-		// Register the cloud as a jump listener
-		this.avatar.addJumpListener(cloud);
-		
-		// 12) InfiniteWorldManager
-		final InfiniteWorldObjectPlacer objectPlacer = new InfiniteWorldObjectPlacer() {
-			
+	}
+	
+	/**
+	 * Puts a quality level into effect: chunks kept loaded, leaf sway, rain and clouds.
+	 */
+	private void applyQuality(QualityLevel level) {
+		this.world.setChunksToLoadOnEachSide(level.getChunksOnEachSide());
+		this.world.setLeafSway(level.hasLeafSway());
+		this.cloudCover.setMaxRaindrops(level.getMaxRaindrops());
+		this.cloudCover.setCloudCount(level.getCloudCount());
+	}
+	
+	/**
+	 * Starts recording or replaying input if asked to by a system property.
+	 *
+	 * @param inputListener The window's input
+	 * @return The input the game should read: the replay if there is one, otherwise the window's
+	 */
+	private UserInputListener setupInputLog(UserInputListener inputListener) {
+		final String replayPath = System.getProperty(PepseGameManager.REPLAY_INPUT_PROPERTY);
+		if (replayPath != null) {
+			this.replay = ReplayInput.read(replayPath);
+			if (this.replay.getSeed() != PepseGameManager.SEED) {
+				throw new IllegalStateException("Input log " + replayPath + " was recorded with seed "
+						                                + this.replay.getSeed() + ", not " + PepseGameManager.SEED);
+			}
+			return this.replay;
+		}
+		final String recordPath = System.getProperty(PepseGameManager.RECORD_INPUT_PROPERTY);
+		if (recordPath != null) {
+			this.recorder = new InputRecorder(recordPath, PepseGameManager.SEED);
+			// The game ends by closing the window, with no callback here; flush the log on JVM exit
+			Runtime.getRuntime().addShutdownHook(new Thread(this.recorder :: close));
+		}
+		return inputListener;
+	}
+	
+	/**
+	 * Opens the session file unless disabled or an input log is in use (a log only replays
+	 * faithfully from a fresh start).
+	 *
+	 * @param windowDimensions Window size, which shapes the world
+	 * @return The saved session to resume, or null to start fresh
+	 */
+	private SessionState setupSession(Vector2 windowDimensions) {
+		final String sessionFile = System.getProperty(PepseGameManager.SESSION_PROPERTY,
+				PepseGameManager.DEFAULT_SESSION_FILE);
+		if (sessionFile.isEmpty() || this.replay != null || this.recorder != null) {
+			return null;
+		}
+		final Vector2 spawnPosition = PepseWorld.spawnPosition(new Terrain(windowDimensions, PepseGameManager.SEED));
+		this.sessionStore = new SessionStore(Paths.get(sessionFile), PepseGameManager.SEED,
+				SessionState.fresh(spawnPosition));
+		return this.sessionStore.load();
+	}
+	
+	/**
+	 * Opens the world's change store unless disabled or an input log is in use (a log only
+	 * replays faithfully in the generated world).
+	 *
+	 * @param windowDimensions Window size, which shapes the world
+	 * @return The store, or null to keep no changes
+	 */
+	private ChunkDeltaStore setupChunkDeltas(Vector2 windowDimensions) {
+		final String directory = System.getProperty(PepseGameManager.CHUNK_DELTAS_PROPERTY,
+				PepseGameManager.DEFAULT_CHUNK_DELTAS_DIRECTORY);
+		if (directory.isEmpty() || this.replay != null || this.recorder != null) {
+			return null;
+		}
+		final ChunkDeltaStore chunkDeltas = new ChunkDeltaStore(Paths.get(directory), PepseGameManager.SEED,
+				windowDimensions);
+		// The game ends by closing the window, with no callback here; finish queued writes on JVM exit
+		Runtime.getRuntime().addShutdownHook(new Thread(chunkDeltas :: close));
+		return chunkDeltas;
+	}
+	
+	/**
+	 * Feeds chunk streaming and avatar timings into the profiler and adds its overlay.
+	 */
+	private void setupProfiler(UserInputListener inputListener) {
+		this.world.addChunkListener(new ChunkListener() {
 			@Override
-			public void placeObject(GameObject obj) {
-				final String tag = obj.getTag();
-				if (PepseGameManager.TRUNK_TAG.equals(tag) || PepseGameManager.GROUND_TAG.equals(tag) ||
-						    PepseGameManager.TAG_BLOCK.equals(tag)) {
-					PepseGameManager.this.gameObjects().addGameObject(obj, PepseGameManager.COLLIDABLE_LAYER);
-				} else if (PepseGameManager.LEAF_TAG.equals(tag)) {
-					PepseGameManager.this.gameObjects().addGameObject(obj, PepseGameManager.LEAVES_LAYER);
-				} else if (PepseGameManager.FRUIT_TAG.equals(tag)) {
-					PepseGameManager.this.gameObjects().addGameObject(obj, PepseGameManager.FRUIT_LAYER);
-				}
+			public void onChunkLoaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind,
+			                          long nanos) {
+				PepseGameManager.this.profiler.add(FrameProfiler.Section.CHUNK_LOAD, nanos);
 			}
 			
 			@Override
-			public void removeObject(GameObject gameObject) {
-				// Remove from all potential layers
-				PepseGameManager.this.gameObjects()
-						.removeGameObject(gameObject, PepseGameManager.COLLIDABLE_LAYER);
-				PepseGameManager.this.gameObjects()
-						.removeGameObject(gameObject, PepseGameManager.LEAVES_LAYER);
-				PepseGameManager.this.gameObjects()
-						.removeGameObject(gameObject, PepseGameManager.FRUIT_LAYER);
+			public void onChunkUnloaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind,
+			                            long nanos) {
+				PepseGameManager.this.profiler.add(FrameProfiler.Section.CHUNK_UNLOAD, nanos);
 			}
-		};
+		});
+		this.avatar.setUpdateTimeListener(nanos -> this.profiler.add(FrameProfiler.Section.AVATAR_UPDATE, nanos));
 		
-		// Now create infinite world manager
-		this.infiniteWorldManager = new InfiniteWorldManager(this.terrain, flora, objectPlacer,
-				windowDimensions.x());
+		final ProfilerOverlay overlay = new ProfilerOverlay(PepseGameManager.PROFILER_OVERLAY_POSITION,
+				PepseGameManager.PROFILER_OVERLAY_SIZE, this.profiler, inputListener,
+				PepseGameManager.PROFILER_TOGGLE_KEY, Color.WHITE);
+		this.gameObjects().addGameObject(overlay, Layer.UI);
 	}
 	
 	/**
-	 * Sets up collision rules between layers.
+	 * Adds the minimap, centered on the avatar, with the spawn's ground height as its reference.
 	 */
-	private void setupCollisions() {
-		// Avatar collides with terrain + trunk
-		this.gameObjects().layers()
-				.shouldLayersCollide(PepseGameManager.AVATAR_LAYER, PepseGameManager.COLLIDABLE_LAYER, true);
-		// Avatar DOES collide with fruits
-		this.gameObjects().layers()
-				.shouldLayersCollide(PepseGameManager.AVATAR_LAYER, PepseGameManager.FRUIT_LAYER, true);
+	private void setupMinimap(Vector2 windowDimensions) {
+		final int columns = PepseGameManager.MINIMAP_CHUNKS * ( int ) windowDimensions.x() / Block.SIZE;
+		final Minimap minimap = new Minimap(
+				new Vector2(windowDimensions.x() - columns - PepseGameManager.MINIMAP_MARGIN,
+						PepseGameManager.MINIMAP_MARGIN),
+				new Vector2(columns, PepseGameManager.MINIMAP_ROWS), columns, PepseGameManager.MINIMAP_ROWS,
+				this.world.getTerrain().groundHeightAt(0), this.avatar, this.world :: groundTopAt,
+				this.world :: trunkHeightAt);
+		this.gameObjects().addGameObject(minimap, Layer.UI);
 	}
 	
 	@Override
 	public void update(float deltaTime) {
-		super.update(deltaTime);
-		
-		// Let the infinite world manager handle new chunk creation as the avatar moves
-		if (this.infiniteWorldManager != null && this.avatar != null) {
-			final float avatarX = this.avatar.getCenter().x();
-			this.infiniteWorldManager.update(avatarX);
+		final long start = System.nanoTime();
+		if (this.replay != null) {
+			if (! this.replay.hasNextFrame()) {
+				this.windowController.closeWindow();
+				return;
+			}
+			deltaTime = this.replay.advanceFrame(deltaTime);
+		} else if (this.recorder != null) {
+			this.recorder.recordFrame(this.liveInput, deltaTime);
+		}
+		if (this.qualityGovernor != null && this.lastFrameNanos > 0) {
+			this.qualityGovernor.addFrame(this.lastFrameNanos, deltaTime);
+		}
+		// The simulation runs in fixed steps; the frame's time only decides how many
+		final int steps = this.timestep.advance(deltaTime);
+		for ( int step = 0; step < steps; step++ ) {
+			this.stepInput.beginStep(step == 0);
+			this.previousAvatarX = this.avatar.getCenter().x();
+			this.previousAvatarY = this.avatar.getCenter().y();
+			this.dayCycle.update(this.timestep.getStepSeconds());
+			super.update(this.timestep.getStepSeconds());
+			this.world.update();
+		}
+		if (this.sessionStore != null && this.gameInput.wasKeyPressedThisFrame(PepseGameManager.SAVE_KEY)) {
+			this.sessionStore.save(SessionState.capture(this.world, this.dayCycle));
+		}
+		this.updateNanos = System.nanoTime() - start;
+	}
+	
+	@Override
+	public void render(Graphics2D g) {
+		final long start = System.nanoTime();
+		// Draw the avatar, and the camera following it, between the last two steps
+		final float simulatedX = this.avatar.getCenter().x();
+		final float simulatedY = this.avatar.getCenter().y();
+		final float alpha = this.timestep.getAlpha();
+		this.moveAvatarForRender(this.previousAvatarX + ( simulatedX - this.previousAvatarX ) * alpha,
+				this.previousAvatarY + ( simulatedY - this.previousAvatarY ) * alpha);
+		super.render(g);
+		this.moveAvatarForRender(simulatedX, simulatedY);
+		final long renderNanos = System.nanoTime() - start;
+		// A frame is one update plus the render that follows it
+		this.profiler.add(FrameProfiler.Section.RENDER, renderNanos);
+		this.lastFrameNanos = this.updateNanos + renderNanos;
+		this.profiler.endFrame(this.lastFrameNanos);
+		this.updateNanos = 0;
+	}
+	
+	/**
+	 * Places the avatar for drawing only, and the camera with it.
+	 */
+	private void moveAvatarForRender(float centerX, float centerY) {
+		this.avatar.setCenter(new Vector2(centerX, centerY));
+		if (this.camera() != null) {
+			// The camera snaps to the object it follows; a zero step moves nothing else
+			this.camera().update(0);
 		}
 	}
 }
@@ -0,0 +1,338 @@
+package pepse;
+
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.UserInputListener;
+import danogl.util.Vector2;
+import pepse.world.Avatar;
+import pepse.world.Block;
+import pepse.world.BlockGrid;
+import pepse.world.ChunkListener;
+import pepse.world.ColliderActivationManager;
+import pepse.world.GroundContactMode;
+import pepse.world.InfiniteWorldManager;
+import pepse.world.ObjectKind;
+import pepse.world.SimulationTier;
+import pepse.world.SpatialIndex;
+import pepse.world.Terrain;
+import pepse.world.cache.ChunkCache;
+import pepse.world.delta.ChunkDeltaStore;
+import pepse.world.trees.EatenFruit;
+import pepse.world.trees.Flora;
+import pepse.world.trees.FruitPickupGrid;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The playable world: terrain, flora, the avatar and the chunk streaming that ties them together.
+ * It needs only a {@link GameObjectCollection} and an input source, so the same world runs
+ * inside {@link PepseGameManager} and in headless drivers.
+ * Drivers advance it in fixed steps of {@link #STEP_SECONDS}, whatever their frame times.
+ */
+public class PepseWorld {
+	/**
+	 * Length of one simulation step. Physics only ever sees this delta time, so a long frame
+	 * cannot move the avatar far enough to pass through a block or skip ground detection.
+	 */
+	public static final float STEP_SECONDS = 1 / 60f;
+	/**
+	 * Most steps one frame may run to catch up; time beyond that is dropped.
+	 */
+	public static final int MAX_STEPS_PER_FRAME = 5;
+	
+	private static final GroundContactMode GROUND_CONTACT_MODE = GroundContactMode.HEIGHT_FIELD;
+	private static final float COLLIDER_ACTIVATION_RADIUS = Block.SIZE * 3;
+	
+	// Layers
+	private static final int COLLIDABLE_LAYER = Layer.STATIC_OBJECTS;
+	// Static objects the avatar never collides with: height-field ground and sleeping colliders
+	private static final int NON_COLLIDING_STATIC_LAYER = PepseWorld.COLLIDABLE_LAYER - 1;
+	private static final int LEAVES_LAYER = PepseWorld.COLLIDABLE_LAYER + 1;
+	private static final int FRUIT_LAYER = PepseWorld.LEAVES_LAYER + 1;
+	private static final int AVATAR_LAYER = Layer.DEFAULT;
+	
+	private final GameObjectCollection gameObjects;
+	private final Terrain terrain;
+	private final Flora flora;
+	private final Avatar avatar;
+	private final FruitPickupGrid fruitPickupGrid = new FruitPickupGrid();
+	private final InfiniteWorldManager infiniteWorldManager;
+	private final WorldMetrics metrics;
+	
+	/**
+	 * Builds the world around x=0 and adds it to the given collection.
+	 *
+	 * @param gameObjects      Collection to populate
+	 * @param windowDimensions Window size; one chunk is one window wide
+	 * @param inputListener    Input source driving the avatar
+	 * @param seed             World seed
+	 */
+	public PepseWorld(GameObjectCollection gameObjects, Vector2 windowDimensions,
+	                  UserInputListener inputListener, int seed) {
+		this(gameObjects, windowDimensions, inputListener, seed, null, null, null);
+	}
+	
+	/**
+	 * Builds the world around the avatar's start position, keeping generated chunks in an
+	 * on-disk cache and the world's changes in a delta store.
+	 *
+	 * @param gameObjects         Collection to populate
+	 * @param windowDimensions    Window size; one chunk is one window wide
+	 * @param inputListener       Input source driving the avatar
+	 * @param seed                World seed
+	 * @param chunkCacheDirectory Directory of the chunk cache, or null to generate every chunk
+	 * @param chunkDeltas         Store of the world's changes, for the same seed and window size, or
+	 *                            null to forget changes as their chunk unloads; closed by the caller
+	 * @param avatarStart         Top-left corner the avatar starts at, or null for the spawn point
+	 *                            near x=0; only the chunks around it are generated
+	 */
+	public PepseWorld(GameObjectCollection gameObjects, Vector2 windowDimensions,
+	                  UserInputListener inputListener, int seed, Path chunkCacheDirectory,
+	                  ChunkDeltaStore chunkDeltas, Vector2 avatarStart) {
+		this.gameObjects = gameObjects;
+		
+		// 1) Terrain
+		this.terrain = new Terrain(windowDimensions, seed);
+		
+		// 2) Flora
+		this.flora = new Flora(this.terrain :: groundHeightAt, seed);
+		
+		// 3) Avatar near x=0, unless placed elsewhere
+		final Vector2 avatarPos = avatarStart != null ? avatarStart : PepseWorld.spawnPosition(this.terrain);
+		
+		this.avatar = new Avatar(avatarPos, inputListener);
+		this.gameObjects.addGameObject(this.avatar, PepseWorld.AVATAR_LAYER);
+		
+		// 4) Collisions
+		this.setupCollisions();
+		
+		// 5) InfiniteWorldManager
+		// Colliders start asleep (the activation manager wakes the ones near the avatar);
+		// height-field ground is never collided with at all
+		final Map< ObjectKind, Integer > layerByKind = new EnumMap<>(ObjectKind.class);
+		layerByKind.put(ObjectKind.GROUND, PepseWorld.NON_COLLIDING_STATIC_LAYER);
+		layerByKind.put(ObjectKind.TRUNK, PepseWorld.NON_COLLIDING_STATIC_LAYER);
+		layerByKind.put(ObjectKind.BLOCK, PepseWorld.NON_COLLIDING_STATIC_LAYER);
+		layerByKind.put(ObjectKind.IMPOSTOR, PepseWorld.NON_COLLIDING_STATIC_LAYER);
+		layerByKind.put(ObjectKind.LEAF, PepseWorld.LEAVES_LAYER);
+		layerByKind.put(ObjectKind.FRUIT, PepseWorld.FRUIT_LAYER);
+		final LayeredObjectPlacer objectPlacer = new LayeredObjectPlacer(this.gameObjects, layerByKind,
+				this.fruitPickupGrid);
+		
+		final ColliderActivationManager colliderActivation = new ColliderActivationManager(
+				PepseWorld.COLLIDER_ACTIVATION_RADIUS, PepseWorld :: hasCollider,
+				obj -> objectPlacer.moveObject(obj, PepseWorld.COLLIDABLE_LAYER),
+				obj -> objectPlacer.moveObject(obj, PepseWorld.NON_COLLIDING_STATIC_LAYER));
+		
+		final ChunkCache chunkCache = chunkCacheDirectory == null ? null
+				                              : new ChunkCache(chunkCacheDirectory, seed, windowDimensions);
+		this.infiniteWorldManager = new InfiniteWorldManager(this.terrain, this.flora, objectPlacer,
+				colliderActivation, chunkCache, chunkDeltas, windowDimensions, this.avatar.getCenter());
+		// Height-field ground follows the loaded block grids, so edited ground is stood on as it is
+		if (PepseWorld.GROUND_CONTACT_MODE == GroundContactMode.HEIGHT_FIELD) {
+			this.avatar.setGroundHeightField(this.infiniteWorldManager :: blockTopAt);
+		}
+		
+		// 6) JMX gauges (pepse:type=World)
+		this.metrics = new WorldMetrics(this.gameObjects, PepseWorld.namedLayers(),
+				this.infiniteWorldManager :: getResidentChunkCount,
+				() -> this.infiniteWorldManager.countChunksInTier(SimulationTier.FROZEN),
+				this.fruitPickupGrid :: countEatenFruits,
+				this.avatar);
+		this.infiniteWorldManager.addChunkListener(this.metrics);
+		this.metrics.register();
+	}
+	
+	/**
+	 * @return Index of the loaded world objects (not the avatar), for range and nearest queries by kind.
+	 */
+	public SpatialIndex getSpatialIndex() {
+		return this.infiniteWorldManager.getSpatialIndex();
+	}
+	
+	/**
+	 * @return The player's avatar.
+	 */
+	public Avatar getAvatar() {
+		return this.avatar;
+	}
+	
+	/**
+	 * @return The terrain generator.
+	 */
+	public Terrain getTerrain() {
+		return this.terrain;
+	}
+	
+	/**
+	 * Where a fresh avatar starts: just above the ground at x=0.
+	 *
+	 * @param terrain The world's terrain
+	 * @return Top-left corner of the avatar
+	 */
+	public static Vector2 spawnPosition(Terrain terrain) {
+		return new Vector2(0, terrain.groundHeightAt(0) - ( Block.SIZE * 2 ));
+	}
+	
+	/**
+	 * @return The fruits in loaded chunks that are eaten and waiting to respawn.
+	 */
+	public List< EatenFruit > eatenFruits() {
+		return this.fruitPickupGrid.eatenFruits();
+	}
+	
+	/**
+	 * Marks fruits in loaded chunks as eaten. Fruits outside the loaded chunks are skipped;
+	 * they would regrow uneaten anyway when their chunk is generated again.
+	 *
+	 * @param eatenFruits Fruits to mark
+	 * @return Number of fruits found and marked
+	 */
+	public int restoreEatenFruits(List< EatenFruit > eatenFruits) {
+		int restored = 0;
+		for ( EatenFruit eatenFruit: eatenFruits ) {
+			if (this.fruitPickupGrid.restoreEaten(eatenFruit)) {
+				restored++;
+			}
+		}
+		return restored;
+	}
+	
+	/**
+	 * Digs out or places a ground block in a loaded chunk; see {@link InfiniteWorldManager#setBlockAt}.
+	 *
+	 * @param position A point inside the cell to change
+	 * @param material {@link BlockGrid#AIR} to dig, {@link BlockGrid#GROUND} to place
+	 * @return True if the cell changed
+	 */
+	public boolean setBlockAt(Vector2 position, byte material) {
+		return this.infiniteWorldManager.setBlockAt(position.x(), position.y(), material);
+	}
+	
+	/**
+	 * @param position A point in the world
+	 * @return The material of the ground cell there, {@link BlockGrid#AIR} outside the loaded chunks
+	 */
+	public byte blockAt(Vector2 position) {
+		return this.infiniteWorldManager.blockAt(position.x(), position.y());
+	}
+	
+	/**
+	 * @param x A world x
+	 * @return Top y of the ground at x: the loaded ground as edited, or the generated terrain elsewhere
+	 */
+	public float groundTopAt(float x) {
+		return this.infiniteWorldManager.blockTopAt(x);
+	}
+	
+	/**
+	 * @param x A world x
+	 * @return Trunk height in blocks of the tree whose trunk starts at exactly x, or 0 if none does
+	 */
+	public int trunkHeightAt(int x) {
+		return this.flora.trunkHeightAt(x);
+	}
+	
+	/**
+	 * Changes how many chunks stay loaded on each side of the avatar's; applied on the next {@link #update}.
+	 *
+	 * @param chunks At least 1
+	 */
+	public void setChunksToLoadOnEachSide(int chunks) {
+		this.infiniteWorldManager.setChunksToLoadOnEachSide(chunks);
+	}
+	
+	/**
+	 * Changes how many low-detail chunks are shown beyond the loaded ones on each side; applied on
+	 * the next {@link #update}.
+	 *
+	 * @param chunks At least 0
+	 */
+	public void setLodChunksOnEachSide(int chunks) {
+		this.infiniteWorldManager.setLodChunksOnEachSide(chunks);
+	}
+	
+	/**
+	 * Switches the sway of every leaf in the world, loaded now or later.
+	 *
+	 * @param leafSway True to let leaves sway
+	 */
+	public void setLeafSway(boolean leafSway) {
+		this.flora.setLeafSway(leafSway);
+	}
+	
+	/**
+	 * Adds a listener notified whenever a chunk is streamed in or out.
+	 *
+	 * @param listener The listener to add
+	 */
+	public void addChunkListener(ChunkListener listener) {
+		this.infiniteWorldManager.addChunkListener(listener);
+	}
+	
+	/**
+	 * Includes a layer the world does not own (e.g. weather) in the published per-layer counts.
+	 *
+	 * @param name  Name shown in the metrics
+	 * @param layer Layer id
+	 */
+	public void addMetricsLayer(String name, int layer) {
+		this.metrics.addLayer(name, layer);
+	}
+	
+	/**
+	 * Names of the world's layers, in draw order, for diagnostics.
+	 *
+	 * @return Layer name to layer id
+	 */
+	public static Map< String, Integer > namedLayers() {
+		final Map< String, Integer > layers = new LinkedHashMap<>();
+		layers.put("static", PepseWorld.NON_COLLIDING_STATIC_LAYER);
+		layers.put(WorldMetrics.COLLIDABLE_LAYER_NAME, PepseWorld.COLLIDABLE_LAYER);
+		layers.put(WorldMetrics.LEAVES_LAYER_NAME, PepseWorld.LEAVES_LAYER);
+		layers.put(WorldMetrics.FRUIT_LAYER_NAME, PepseWorld.FRUIT_LAYER);
+		layers.put("avatar", PepseWorld.AVATAR_LAYER);
+		return layers;
+	}
+	
+	/**
+	 * Sets the chunks' simulation tiers for the next step, streams chunks around the avatar, checks
+	 * fruit pickups and refreshes the metrics snapshot.
+	 * Call once per step, after the game objects have been updated.
+	 */
+	public void update() {
+		// The camera follows the avatar, so its center is the view's center
+		final Vector2 avatarCenter = this.avatar.getCenter();
+		this.infiniteWorldManager.advanceClocks(PepseWorld.STEP_SECONDS, avatarCenter.x());
+		// Let the infinite world manager handle new chunk creation as the avatar moves
+		this.infiniteWorldManager.update(avatarCenter.x(), avatarCenter.y());
+		this.fruitPickupGrid.update(this.avatar);
+		this.metrics.update();
+	}
+	
+	/**
+	 * Whether the avatar should collide with static objects of this kind (trunks, and ground
+	 * unless it is resolved from the height field).
+	 */
+	private static boolean hasCollider(ObjectKind kind) {
+		return switch ( kind ) {
+			case GROUND -> PepseWorld.GROUND_CONTACT_MODE == GroundContactMode.COLLISIONS;
+			case TRUNK, BLOCK -> true;
+			case LEAF, FRUIT, IMPOSTOR -> false;
+		};
+	}
+	
+	/**
+	 * Sets up collision rules between layers.
+	 */
+	private void setupCollisions() {
+		// Avatar collides with terrain + trunk
+		this.gameObjects.layers()
+				.shouldLayersCollide(PepseWorld.AVATAR_LAYER, PepseWorld.COLLIDABLE_LAYER, true);
+		// Fruits are NOT engine-collided: pickups come from the fruit grid in update()
+	}
+}
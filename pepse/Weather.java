@@ -0,0 +1,98 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.weather.Cloud;
+import pepse.world.weather.CloudCover;
+import pepse.world.weather.Raindrop;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Wires clouds and their raindrops into a game object collection: cloud blocks go to one layer,
+ * and every raindrop is added to another and removes itself from it once faded out.
+ * {@link #addTo} adds a single fixed {@link Cloud}; {@link #addCover} adds a {@link CloudCover}
+ * that adds and removes clouds as its cloud count changes, which is what the game uses.
+ */
+public final class Weather {
+	// Every further cloud of a cover flies this much lower (fraction of the window height) ...
+	private static final float CLOUD_SPACING_RATIO = 0.08f;
+	// ... and this much slower (fraction of the first cloud's crossing time), so they drift apart
+	private static final float CLOUD_SLOWDOWN_RATIO = 0.4f;
+	
+	private Weather() {
+	}
+	
+	/**
+	 * Creates the cloud and adds its blocks to the collection.
+	 * Register the returned cloud as a jump listener to make it rain.
+	 *
+	 * @param gameObjects        Collection to add the cloud and raindrops to
+	 * @param windowDimensions   Window size
+	 * @param cloudMovementTime  Seconds for the cloud to cross the window
+	 * @param raindropDuration   Seconds a raindrop takes to fade out
+	 * @param cloudLayer         Layer of the cloud blocks
+	 * @param raindropLayer      Layer of the raindrops
+	 * @return The cloud
+	 */
+	public static Cloud addTo(GameObjectCollection gameObjects, Vector2 windowDimensions, float cloudMovementTime,
+	                          float raindropDuration, int cloudLayer, int raindropLayer) {
+		final Cloud cloud = Cloud.create(windowDimensions, cloudMovementTime,
+				Weather.raindropFactory(gameObjects, raindropDuration, raindropLayer));
+		for ( Block block: cloud.getCloudBlocks() ) {
+			gameObjects.addGameObject(block, cloudLayer);
+		}
+		return cloud;
+	}
+	
+	/**
+	 * Creates a cloud cover whose clouds are added to and removed from the collection as its cloud
+	 * count changes. Register the returned cover as a jump listener to make it rain.
+	 *
+	 * @param gameObjects       Collection to add the clouds and raindrops to
+	 * @param windowDimensions  Window size
+	 * @param cloudMovementTime Seconds for the first cloud to cross the window
+	 * @param raindropDuration  Seconds a raindrop takes to fade out
+	 * @param cloudLayer        Layer of the cloud blocks
+	 * @param raindropLayer     Layer of the raindrops
+	 * @param cloudCount        Number of clouds to start with
+	 * @return The cover
+	 */
+	public static CloudCover addCover(GameObjectCollection gameObjects, Vector2 windowDimensions,
+	                                  float cloudMovementTime, float raindropDuration, int cloudLayer,
+	                                  int raindropLayer, int cloudCount) {
+		final Function< Vector2, GameObject > createRaindrop = Weather.raindropFactory(gameObjects,
+				raindropDuration, raindropLayer);
+		return new CloudCover(index -> {
+			final Cloud cloud = Cloud.create(windowDimensions,
+					cloudMovementTime * ( 1 + index * Weather.CLOUD_SLOWDOWN_RATIO ),
+					Cloud.DEFAULT_START_Y_RATIO + index * Weather.CLOUD_SPACING_RATIO, createRaindrop);
+			for ( Block block: cloud.getCloudBlocks() ) {
+				gameObjects.addGameObject(block, cloudLayer);
+			}
+			return cloud;
+		}, cloud -> {
+			for ( Block block: cloud.getCloudBlocks() ) {
+				gameObjects.removeGameObject(block, cloudLayer);
+			}
+		}, cloudCount);
+	}
+	
+	/**
+	 * @return A factory adding a raindrop at a position, which removes itself once faded out.
+	 */
+	private static Function< Vector2, GameObject > raindropFactory(GameObjectCollection gameObjects,
+	                                                               float raindropDuration, int raindropLayer) {
+		return position -> {
+			final Consumer< GameObject > removeDrop = dropObj -> gameObjects.removeGameObject(dropObj,
+					raindropLayer);
+			
+			final GameObject drop = Raindrop.create(position, removeDrop, raindropDuration);
+			gameObjects.addGameObject(drop, raindropLayer);
+			return drop;
+		};
+	}
+}
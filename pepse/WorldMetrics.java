@@ -0,0 +1,242 @@
+package pepse;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.world.ChunkListener;
+import pepse.world.ObjectKind;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntSupplier;
+
+/**
+ * The {@link WorldMetricsMXBean} implementation.
+ * Counters are bumped on the game thread through {@link ChunkListener}; once per
+ * {@link #SNAPSHOT_INTERVAL_NANOS} the game thread also counts the layers and publishes
+ * everything into volatile fields that JMX readers see.
+ */
+class WorldMetrics implements WorldMetricsMXBean, ChunkListener {
+	/**
+	 * Layer names behind the dedicated per-layer attributes.
+	 */
+	static final String COLLIDABLE_LAYER_NAME = "collidable";
+	static final String LEAVES_LAYER_NAME = "leaves";
+	static final String FRUIT_LAYER_NAME = "fruit";
+	static final String RAINDROPS_LAYER_NAME = "raindrops";
+	
+	private static final String OBJECT_NAME = "pepse:type=World";
+	private static final long SNAPSHOT_INTERVAL_NANOS = 1_000_000_000L;
+	private static final double NANOS_PER_SECOND = 1e9;
+	
+	private final GameObjectCollection gameObjects;
+	private final Map< String, Integer > layers = new LinkedHashMap<>();
+	private final IntSupplier residentChunks;
+	private final IntSupplier frozenChunks;
+	private final IntSupplier fruitsPendingRespawn;
+	private final GameObject avatar;
+	
+	// Game thread only
+	private long chunksLoaded = 0;
+	private long chunksUnloaded = 0;
+	private long lastSnapshotNanos = System.nanoTime();
+	private long lastSnapshotLoaded = 0;
+	private long lastSnapshotUnloaded = 0;
+	
+	// Published snapshot
+	private volatile int publishedResidentChunks = 0;
+	private volatile int publishedFrozenChunks = 0;
+	private volatile Map< String, Integer > publishedObjectsPerLayer = Collections.emptyMap();
+	private volatile long publishedChunksLoaded = 0;
+	private volatile long publishedChunksUnloaded = 0;
+	private volatile double publishedLoadsPerSecond = 0;
+	private volatile double publishedUnloadsPerSecond = 0;
+	private volatile int publishedFruitsPendingRespawn = 0;
+	private volatile double publishedAvatarSpeed = 0;
+	private volatile long publishedSnapshotTimeMillis = 0;
+	
+	/**
+	 * Creates the metrics; call {@link #register()} to publish them.
+	 *
+	 * @param gameObjects          Collection whose layers are counted
+	 * @param layers               Named layers to count
+	 * @param residentChunks       Number of loaded chunks
+	 * @param frozenChunks         Number of loaded chunks whose simulation is frozen
+	 * @param fruitsPendingRespawn Number of loaded fruits currently eaten
+	 * @param avatar               The avatar
+	 */
+	WorldMetrics(GameObjectCollection gameObjects, Map< String, Integer > layers, IntSupplier residentChunks,
+	             IntSupplier frozenChunks, IntSupplier fruitsPendingRespawn, GameObject avatar) {
+		this.gameObjects = gameObjects;
+		this.layers.putAll(layers);
+		this.residentChunks = residentChunks;
+		this.frozenChunks = frozenChunks;
+		this.fruitsPendingRespawn = fruitsPendingRespawn;
+		this.avatar = avatar;
+	}
+	
+	/**
+	 * Adds a layer to the per-layer object counts.
+	 *
+	 * @param name  Name shown in {@link #getObjectsPerLayer()}
+	 * @param layer Layer id
+	 */
+	void addLayer(String name, int layer) {
+		this.layers.put(name, layer);
+	}
+	
+	/**
+	 * Registers this bean with the platform MBean server, replacing an earlier world's bean.
+	 *
+	 * @throws IllegalStateException If JMX refuses the registration
+	 */
+	void register() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final ObjectName name = new ObjectName(WorldMetrics.OBJECT_NAME);
+			try {
+				server.registerMBean(this, name);
+			} catch ( InstanceAlreadyExistsException e ) {
+				try {
+					server.unregisterMBean(name);
+				} catch ( InstanceNotFoundException ignored ) {
+					// Unregistered in between; nothing to replace
+				}
+				server.registerMBean(this, name);
+			}
+		} catch ( JMException e ) {
+			throw new IllegalStateException("Cannot register " + WorldMetrics.OBJECT_NAME, e);
+		}
+	}
+	
+	@Override
+	public void onChunkLoaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind, long nanos) {
+		this.chunksLoaded++;
+	}
+	
+	@Override
+	public void onChunkUnloaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind,
+	                            long nanos) {
+		this.chunksUnloaded++;
+	}
+	
+	/**
+	 * Publishes a new snapshot if the interval has passed. Call once per frame on the game thread.
+	 */
+	void update() {
+		final long now = System.nanoTime();
+		final long elapsed = now - this.lastSnapshotNanos;
+		if (elapsed < WorldMetrics.SNAPSHOT_INTERVAL_NANOS) {
+			return;
+		}
+		final double seconds = elapsed / WorldMetrics.NANOS_PER_SECOND;
+		this.publishedLoadsPerSecond = ( this.chunksLoaded - this.lastSnapshotLoaded ) / seconds;
+		this.publishedUnloadsPerSecond = ( this.chunksUnloaded - this.lastSnapshotUnloaded ) / seconds;
+		this.publishedChunksLoaded = this.chunksLoaded;
+		this.publishedChunksUnloaded = this.chunksUnloaded;
+		this.publishedResidentChunks = this.residentChunks.getAsInt();
+		this.publishedFrozenChunks = this.frozenChunks.getAsInt();
+		this.publishedFruitsPendingRespawn = this.fruitsPendingRespawn.getAsInt();
+		this.publishedAvatarSpeed = this.avatar.getVelocity().magnitude();
+		this.publishedObjectsPerLayer = Collections.unmodifiableMap(this.countLayers());
+		this.publishedSnapshotTimeMillis = System.currentTimeMillis();
+		
+		this.lastSnapshotNanos = now;
+		this.lastSnapshotLoaded = this.chunksLoaded;
+		this.lastSnapshotUnloaded = this.chunksUnloaded;
+	}
+	
+	@Override
+	public int getResidentChunks() {
+		return this.publishedResidentChunks;
+	}
+	
+	@Override
+	public int getFrozenChunks() {
+		return this.publishedFrozenChunks;
+	}
+	
+	@Override
+	public Map< String, Integer > getObjectsPerLayer() {
+		return this.publishedObjectsPerLayer;
+	}
+	
+	@Override
+	public int getCollidableObjects() {
+		return this.publishedObjectsPerLayer.getOrDefault(WorldMetrics.COLLIDABLE_LAYER_NAME, 0);
+	}
+	
+	@Override
+	public int getLeafObjects() {
+		return this.publishedObjectsPerLayer.getOrDefault(WorldMetrics.LEAVES_LAYER_NAME, 0);
+	}
+	
+	@Override
+	public int getFruitObjects() {
+		return this.publishedObjectsPerLayer.getOrDefault(WorldMetrics.FRUIT_LAYER_NAME, 0);
+	}
+	
+	@Override
+	public int getRaindropObjects() {
+		return this.publishedObjectsPerLayer.getOrDefault(WorldMetrics.RAINDROPS_LAYER_NAME, 0);
+	}
+	
+	@Override
+	public long getChunksLoaded() {
+		return this.publishedChunksLoaded;
+	}
+	
+	@Override
+	public long getChunksUnloaded() {
+		return this.publishedChunksUnloaded;
+	}
+	
+	@Override
+	public double getChunkLoadsPerSecond() {
+		return this.publishedLoadsPerSecond;
+	}
+	
+	@Override
+	public double getChunkUnloadsPerSecond() {
+		return this.publishedUnloadsPerSecond;
+	}
+	
+	@Override
+	public int getGenerationQueueDepth() {
+		return 0;
+	}
+	
+	@Override
+	public int getFruitsPendingRespawn() {
+		return this.publishedFruitsPendingRespawn;
+	}
+	
+	@Override
+	public double getAvatarSpeed() {
+		return this.publishedAvatarSpeed;
+	}
+	
+	@Override
+	public long getSnapshotTimeMillis() {
+		return this.publishedSnapshotTimeMillis;
+	}
+	
+	private Map< String, Integer > countLayers() {
+		final Map< String, Integer > counts = new LinkedHashMap<>();
+		for ( Map.Entry< String, Integer > layer: this.layers.entrySet() ) {
+			int count = 0;
+			for ( GameObject ignored: this.gameObjects.objectsInLayer(layer.getValue()) ) {
+				count++;
+			}
+			counts.put(layer.getKey(), count);
+		}
+		return counts;
+	}
+}
@@ -0,0 +1,86 @@
+package pepse;
+
+import java.util.Map;
+
+/**
+ * Live world streaming and population gauges, published over JMX as {@code pepse:type=World}.
+ * Values are snapshots taken on the game thread about once per second, so reading them never
+ * touches the game's data structures.
+ */
+public interface WorldMetricsMXBean {
+	/**
+	 * @return Chunks currently loaded.
+	 */
+	int getResidentChunks();
+	
+	/**
+	 * @return Loaded chunks too far off screen to be simulated.
+	 */
+	int getFrozenChunks();
+	
+	/**
+	 * @return Game objects per named layer.
+	 */
+	Map< String, Integer > getObjectsPerLayer();
+	
+	/**
+	 * @return Objects in the collidable layer (awake colliders).
+	 */
+	int getCollidableObjects();
+	
+	/**
+	 * @return Objects in the leaves layer.
+	 */
+	int getLeafObjects();
+	
+	/**
+	 * @return Objects in the fruit layer.
+	 */
+	int getFruitObjects();
+	
+	/**
+	 * @return Objects in the raindrop layer, 0 if the game has no weather.
+	 */
+	int getRaindropObjects();
+	
+	/**
+	 * @return Chunks loaded since the world was created (initial chunks excluded).
+	 */
+	long getChunksLoaded();
+	
+	/**
+	 * @return Chunks unloaded since the world was created.
+	 */
+	long getChunksUnloaded();
+	
+	/**
+	 * @return Chunk loads per second over the last snapshot interval.
+	 */
+	double getChunkLoadsPerSecond();
+	
+	/**
+	 * @return Chunk unloads per second over the last snapshot interval.
+	 */
+	double getChunkUnloadsPerSecond();
+	
+	/**
+	 * @return Chunks waiting to be generated. Generation currently runs synchronously on the
+	 * game thread, so this is always 0.
+	 */
+	int getGenerationQueueDepth();
+	
+	/**
+	 * @return Loaded fruits that were eaten and have not respawned yet.
+	 */
+	int getFruitsPendingRespawn();
+	
+	/**
+	 * @return The avatar's speed in pixels per second.
+	 */
+	double getAvatarSpeed();
+	
+	/**
+	 * @return Wall-clock time of the latest snapshot, in epoch milliseconds.
+	 */
+	long getSnapshotTimeMillis();
+}
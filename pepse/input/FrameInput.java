@@ -0,0 +1,22 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+/**
+ * Input that is advanced one frame at a time by its driver instead of by a window,
+ * such as a script or a recorded log.
+ */
+public interface FrameInput extends UserInputListener {
+	/**
+	 * Moves to the next frame's key state. Call once per frame, before the objects update.
+	 *
+	 * @param deltaTime The driver's delta time for the frame
+	 * @return The delta time to simulate: the recorded one for logs, otherwise {@code deltaTime}
+	 */
+	float advanceFrame(float deltaTime);
+	
+	/**
+	 * @return Whether another frame is available.
+	 */
+	boolean hasNextFrame();
+}
@@ -0,0 +1,40 @@
+package pepse.input;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * Layout of the binary input log written by {@link InputRecorder} and read by {@link ReplayInput}.
+ * <p>
+ * Header: magic ({@code int}), format version ({@code byte}), world seed ({@code int}).
+ * Then one record per frame: pressed-key bitmask over {@link #KEYS} ({@code byte}) and the frame's
+ * delta time in seconds ({@code float}), all big-endian. Five bytes per frame; an hour at 60 FPS
+ * is about 1 MB.
+ */
+final class InputLog {
+	/**
+	 * "PEPS" in ASCII.
+	 */
+	static final int MAGIC = 0x50455053;
+	static final byte VERSION = 1;
+	
+	/**
+	 * Keys captured in the log; bit i of a frame's mask is {@code KEYS[i]}.
+	 */
+	static final int[] KEYS = { KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE, KeyEvent.VK_F3 };
+	
+	private InputLog() {
+	}
+	
+	/**
+	 * @param keyCode A key code
+	 * @return Its bit in a key mask, or 0 if the key is not logged
+	 */
+	static int bitOf(int keyCode) {
+		for ( int i = 0; i < InputLog.KEYS.length; i++ ) {
+			if (InputLog.KEYS[i] == keyCode) {
+				return 1 << i;
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,81 @@
+package pepse.input;
+
+import danogl.gui.UserInputListener;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes the per-frame key state and delta time of a live session to an {@link InputLog} file,
+ * so the exact session can be replayed with {@link ReplayInput}.
+ */
+public class InputRecorder implements AutoCloseable {
+	private final DataOutputStream output;
+	private final String path;
+	private boolean closed = false;
+	
+	/**
+	 * Creates (or truncates) a log and writes its header.
+	 *
+	 * @param path Destination file
+	 * @param seed World seed of the recorded session
+	 * @throws UncheckedIOException If the file cannot be written
+	 */
+	public InputRecorder(String path, int seed) {
+		this.path = path;
+		try {
+			this.output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)));
+			this.output.writeInt(InputLog.MAGIC);
+			this.output.writeByte(InputLog.VERSION);
+			this.output.writeInt(seed);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot create input log " + path, e);
+		}
+	}
+	
+	/**
+	 * Appends one frame. Call once per frame, before the objects read the input.
+	 *
+	 * @param input     The live input
+	 * @param deltaTime The frame's delta time
+	 * @throws UncheckedIOException If the log cannot be written
+	 */
+	public synchronized void recordFrame(UserInputListener input, float deltaTime) {
+		if (this.closed) {
+			return;
+		}
+		int mask = 0;
+		for ( int i = 0; i < InputLog.KEYS.length; i++ ) {
+			if (input.isKeyPressed(InputLog.KEYS[i])) {
+				mask |= 1 << i;
+			}
+		}
+		try {
+			this.output.writeByte(mask);
+			this.output.writeFloat(deltaTime);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot write input log " + this.path, e);
+		}
+	}
+	
+	/**
+	 * Flushes and closes the log. Further frames are ignored.
+	 *
+	 * @throws UncheckedIOException If the log cannot be flushed
+	 */
+	@Override
+	public synchronized void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		try {
+			this.output.close();
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot close input log " + this.path, e);
+		}
+	}
+}
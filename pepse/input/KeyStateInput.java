@@ -0,0 +1,129 @@
+package pepse.input;
+
+import danogl.components.movement_schemes.movement_directing.KeyboardMovementDirector;
+import danogl.components.movement_schemes.movement_directing.MouseMovementDirector;
+import danogl.gui.mouse.MouseButton;
+import danogl.gui.rendering.Camera;
+import danogl.util.Vector2;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Base for windowless keyboards: key state is a bitmask over {@link InputLog#KEYS}, set by the
+ * subclass once per frame. Mouse queries always report nothing.
+ */
+public abstract class KeyStateInput implements FrameInput {
+	private int pressedMask = 0;
+	private int previousMask = 0;
+	private KeyboardMovementDirector keyboardDirector = null;
+	
+	/**
+	 * Starts a new frame with the given keys held.
+	 *
+	 * @param mask Pressed keys, bit i standing for {@code InputLog.KEYS[i]}
+	 */
+	protected void setPressedMask(int mask) {
+		this.previousMask = this.pressedMask;
+		this.pressedMask = mask;
+	}
+	
+	/**
+	 * Builds a key mask.
+	 *
+	 * @param keyCodes Key codes; only logged keys count
+	 * @return The mask
+	 */
+	protected static int maskOf(int... keyCodes) {
+		int mask = 0;
+		for ( int keyCode: keyCodes ) {
+			mask |= InputLog.bitOf(keyCode);
+		}
+		return mask;
+	}
+	
+	@Override
+	public boolean isKeyPressed(int keyCode) {
+		return ( this.pressedMask & InputLog.bitOf(keyCode) ) != 0;
+	}
+	
+	@Override
+	public boolean wasKeyPressedThisFrame(int keyCode) {
+		final int bit = InputLog.bitOf(keyCode);
+		return ( this.pressedMask & bit ) != 0 && ( this.previousMask & bit ) == 0;
+	}
+	
+	@Override
+	public boolean wasKeyReleasedThisFrame(int keyCode) {
+		final int bit = InputLog.bitOf(keyCode);
+		return ( this.pressedMask & bit ) == 0 && ( this.previousMask & bit ) != 0;
+	}
+	
+	@Override
+	public boolean wasMouseButtonClickedThisFrame(MouseButton button) {
+		return false;
+	}
+	
+	@Override
+	public boolean wasMouseButtonPressedThisFrame(MouseButton button) {
+		return false;
+	}
+	
+	@Override
+	public boolean wasMouseButtonReleasedThisFrame(MouseButton button) {
+		return false;
+	}
+	
+	@Override
+	public boolean isMouseButtonPressed(MouseButton button) {
+		return false;
+	}
+	
+	@Override
+	public Vector2 getMouseScreenPos() {
+		return Vector2.ZERO;
+	}
+	
+	@Override
+	public double mouseWheelClicksThisFrame() {
+		return 0;
+	}
+	
+	@Override
+	public Set< Integer > pressedKeys() {
+		final Set< Integer > keys = new HashSet<>();
+		for ( int i = 0; i < InputLog.KEYS.length; i++ ) {
+			if (( this.pressedMask & ( 1 << i ) ) != 0) {
+				keys.add(InputLog.KEYS[i]);
+			}
+		}
+		return keys;
+	}
+	
+	@Override
+	public Set< MouseButton > pressedMouseButtons() {
+		return Collections.emptySet();
+	}
+	
+	/**
+	 * A director over this input's mouse, which never moves or clicks.
+	 * There is no window to show the director's messages in, so it gets no message handler.
+	 */
+	@Override
+	public MouseMovementDirector mouseMovementDirector(Camera camera) {
+		return new MouseMovementDirector(null, this, camera);
+	}
+	
+	/**
+	 * A director whose directions follow this input's key states.
+	 * There is no window to show the director's messages in, so it gets no message handler.
+	 */
+	@Override
+	public KeyboardMovementDirector keyboardMovementDirector() {
+		if (this.keyboardDirector == null) {
+			this.keyboardDirector = new KeyboardMovementDirector(null, this);
+		}
+		return this.keyboardDirector;
+	}
+}
@@ -0,0 +1,96 @@
+package pepse.input;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Plays back an {@link InputLog} recorded by {@link InputRecorder}: the recorded key state through
+ * the usual {@link danogl.gui.UserInputListener} queries, and the recorded delta time per frame.
+ * The whole log is read up front, so playback does no I/O.
+ */
+public class ReplayInput extends KeyStateInput {
+	private static final int BYTES_PER_FRAME = Byte.BYTES + Float.BYTES;
+	
+	private final int seed;
+	private final byte[] masks;
+	private final float[] deltaTimes;
+	private int frame = 0;
+	
+	private ReplayInput(int seed, byte[] masks, float[] deltaTimes) {
+		this.seed = seed;
+		this.masks = masks;
+		this.deltaTimes = deltaTimes;
+	}
+	
+	/**
+	 * Reads a log.
+	 *
+	 * @param path Log file
+	 * @return The replay, positioned before the first frame
+	 * @throws UncheckedIOException If the file is missing or not an input log
+	 */
+	public static ReplayInput read(String path) {
+		try ( DataInputStream input = new DataInputStream(Files.newInputStream(Paths.get(path))) ) {
+			if (input.readInt() != InputLog.MAGIC) {
+				throw new IOException(path + " is not an input log");
+			}
+			final byte version = input.readByte();
+			if (version != InputLog.VERSION) {
+				throw new IOException("Unsupported input log version " + version + " in " + path);
+			}
+			final int seed = input.readInt();
+			final byte[] frames = input.readAllBytes();
+			final int frameCount = frames.length / ReplayInput.BYTES_PER_FRAME;
+			final byte[] masks = new byte[frameCount];
+			final float[] deltaTimes = new float[frameCount];
+			try ( DataInputStream frameInput = new DataInputStream(new ByteArrayInputStream(frames)) ) {
+				for ( int i = 0; i < frameCount; i++ ) {
+					masks[i] = frameInput.readByte();
+					deltaTimes[i] = frameInput.readFloat();
+				}
+			}
+			return new ReplayInput(seed, masks, deltaTimes);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot read input log " + path, e);
+		}
+	}
+	
+	/**
+	 * @return Seed of the world the log was recorded in.
+	 */
+	public int getSeed() {
+		return this.seed;
+	}
+	
+	/**
+	 * @return Number of frames in the log.
+	 */
+	public int getFrameCount() {
+		return this.masks.length;
+	}
+	
+	@Override
+	public boolean hasNextFrame() {
+		return this.frame < this.masks.length;
+	}
+	
+	/**
+	 * Moves to the next recorded frame. Past the end, all keys are released.
+	 *
+	 * @param deltaTime Ignored unless the log has ended
+	 * @return The recorded delta time of the frame
+	 */
+	@Override
+	public float advanceFrame(float deltaTime) {
+		if (! this.hasNextFrame()) {
+			this.setPressedMask(0);
+			return deltaTime;
+		}
+		this.setPressedMask(this.masks[this.frame] & 0xFF);
+		return this.deltaTimes[this.frame++];
+	}
+}
@@ -0,0 +1,111 @@
+package pepse.input;
+
+import danogl.components.movement_schemes.movement_directing.KeyboardMovementDirector;
+import danogl.components.movement_schemes.movement_directing.MouseMovementDirector;
+import danogl.gui.UserInputListener;
+import danogl.gui.mouse.MouseButton;
+import danogl.gui.rendering.Camera;
+import danogl.util.Vector2;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A frame's input seen one fixed simulation step at a time.
+ * A frame may run several steps or none, so "this frame" edges would fire on every step of a frame
+ * or be lost with a frame that runs none. Key edges are therefore tracked per step, from the keys
+ * held at each step; mouse edges, which the game does not use, are reported on a frame's first step.
+ * Everything else passes through.
+ */
+public class StepInput implements UserInputListener {
+	private final UserInputListener frameInput;
+	private Set< Integer > previousKeys = new HashSet<>();
+	private Set< Integer > currentKeys = new HashSet<>();
+	private boolean firstStepOfFrame = false;
+	
+	/**
+	 * @param frameInput The per-frame input to read
+	 */
+	public StepInput(UserInputListener frameInput) {
+		this.frameInput = frameInput;
+	}
+	
+	/**
+	 * Starts a step: key edges now compare the held keys with the previous step's.
+	 *
+	 * @param firstOfFrame True for the first step of a frame
+	 */
+	public void beginStep(boolean firstOfFrame) {
+		this.firstStepOfFrame = firstOfFrame;
+		final Set< Integer > recycled = this.previousKeys;
+		this.previousKeys = this.currentKeys;
+		this.currentKeys = recycled;
+		this.currentKeys.clear();
+		this.currentKeys.addAll(this.frameInput.pressedKeys());
+	}
+	
+	@Override
+	public boolean isKeyPressed(int keyCode) {
+		return this.frameInput.isKeyPressed(keyCode);
+	}
+	
+	@Override
+	public boolean wasKeyPressedThisFrame(int keyCode) {
+		return this.currentKeys.contains(keyCode) && ! this.previousKeys.contains(keyCode);
+	}
+	
+	@Override
+	public boolean wasKeyReleasedThisFrame(int keyCode) {
+		return ! this.currentKeys.contains(keyCode) && this.previousKeys.contains(keyCode);
+	}
+	
+	@Override
+	public boolean wasMouseButtonClickedThisFrame(MouseButton button) {
+		return this.firstStepOfFrame && this.frameInput.wasMouseButtonClickedThisFrame(button);
+	}
+	
+	@Override
+	public boolean wasMouseButtonPressedThisFrame(MouseButton button) {
+		return this.firstStepOfFrame && this.frameInput.wasMouseButtonPressedThisFrame(button);
+	}
+	
+	@Override
+	public boolean wasMouseButtonReleasedThisFrame(MouseButton button) {
+		return this.firstStepOfFrame && this.frameInput.wasMouseButtonReleasedThisFrame(button);
+	}
+	
+	@Override
+	public boolean isMouseButtonPressed(MouseButton button) {
+		return this.frameInput.isMouseButtonPressed(button);
+	}
+	
+	@Override
+	public Vector2 getMouseScreenPos() {
+		return this.frameInput.getMouseScreenPos();
+	}
+	
+	@Override
+	public double mouseWheelClicksThisFrame() {
+		return this.firstStepOfFrame ? this.frameInput.mouseWheelClicksThisFrame() : 0;
+	}
+	
+	@Override
+	public Set< Integer > pressedKeys() {
+		return this.frameInput.pressedKeys();
+	}
+	
+	@Override
+	public Set< MouseButton > pressedMouseButtons() {
+		return this.frameInput.pressedMouseButtons();
+	}
+	
+	@Override
+	public MouseMovementDirector mouseMovementDirector(Camera camera) {
+		return this.frameInput.mouseMovementDirector(camera);
+	}
+	
+	@Override
+	public KeyboardMovementDirector keyboardMovementDirector() {
+		return this.frameInput.keyboardMovementDirector();
+	}
+}
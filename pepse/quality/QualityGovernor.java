@@ -0,0 +1,145 @@
+package pepse.quality;
+
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the game inside its frame budget by stepping through {@link QualityLevel}s.
+ * <p>
+ * It follows an exponential moving average of the measured frame time (the work of one update
+ * plus its render, not the time spent waiting for the next frame). The level drops one step once
+ * the average has stayed above {@link #DOWNGRADE_RATIO} of the budget for
+ * {@link #DOWNGRADE_HOLD_SECONDS}, and rises one step once it has stayed below
+ * {@link #UPGRADE_RATIO} of the budget for the upgrade hold. The gap between the two thresholds,
+ * the hold times and a settling period after every change keep it from oscillating; a level that
+ * had to be left again soon after being reached doubles the upgrade hold, so a level the machine
+ * cannot quite sustain is retried less and less often.
+ * Every change is logged.
+ */
+public class QualityGovernor {
+	/**
+	 * Fraction of the frame budget above which quality drops.
+	 */
+	public static final float DOWNGRADE_RATIO = 0.9f;
+	/**
+	 * Fraction of the frame budget below which quality rises.
+	 */
+	public static final float UPGRADE_RATIO = 0.5f;
+	/**
+	 * Seconds the average must stay over budget before quality drops.
+	 */
+	public static final float DOWNGRADE_HOLD_SECONDS = 1;
+	
+	private static final Logger LOGGER = Logger.getLogger(QualityGovernor.class.getName());
+	// Weight of the newest frame in the moving average; about the last 20 frames count
+	private static final float SMOOTHING = 0.05f;
+	private static final float INITIAL_UPGRADE_HOLD_SECONDS = 5;
+	private static final float MAX_UPGRADE_HOLD_SECONDS = 80;
+	// Frames right after a change (or the start) carry its one-off cost and are not judged
+	private static final float SETTLE_SECONDS = 2;
+	// A drop this soon after a rise means the risen-to level was not sustainable
+	private static final float FAILED_UPGRADE_SECONDS = 15;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final float MILLIS_PER_SECOND = 1000;
+	
+	private final float frameBudgetSeconds;
+	private final Consumer< QualityLevel > applyLevel;
+	private QualityLevel level;
+	private float averageFrameSeconds;
+	private boolean hasAverage = false;
+	private float settleSecondsLeft = QualityGovernor.SETTLE_SECONDS;
+	private float secondsOverBudget = 0;
+	private float secondsUnderBudget = 0;
+	private float upgradeHoldSeconds = QualityGovernor.INITIAL_UPGRADE_HOLD_SECONDS;
+	// Seconds since the last rise, or negative if the last change was a drop
+	private float secondsSinceUpgrade = - 1;
+	
+	/**
+	 * Creates a governor and applies its starting level.
+	 *
+	 * @param frameBudgetSeconds Time one frame may take, e.g. 1/60 s for 60 frames per second
+	 * @param initialLevel       Level to start at
+	 * @param applyLevel         Puts a level into effect; called on the thread that reports frames
+	 */
+	public QualityGovernor(float frameBudgetSeconds, QualityLevel initialLevel,
+	                       Consumer< QualityLevel > applyLevel) {
+		this.frameBudgetSeconds = frameBudgetSeconds;
+		this.applyLevel = applyLevel;
+		this.level = initialLevel;
+		this.averageFrameSeconds = frameBudgetSeconds;
+		applyLevel.accept(initialLevel);
+	}
+	
+	/**
+	 * Reports one finished frame, possibly changing the level.
+	 *
+	 * @param frameNanos Work time of the frame
+	 * @param deltaTime  Seconds since the previous frame, which advances the hold timers
+	 */
+	public void addFrame(long frameNanos, float deltaTime) {
+		final float frameSeconds = ( float ) ( frameNanos / QualityGovernor.NANOS_PER_SECOND );
+		if (this.secondsSinceUpgrade >= 0) {
+			this.secondsSinceUpgrade += deltaTime;
+		}
+		if (this.settleSecondsLeft > 0) {
+			this.settleSecondsLeft -= deltaTime;
+			return;
+		}
+		if (this.hasAverage) {
+			this.averageFrameSeconds += QualityGovernor.SMOOTHING * ( frameSeconds - this.averageFrameSeconds );
+		} else {
+			this.averageFrameSeconds = frameSeconds;
+			this.hasAverage = true;
+		}
+		
+		if (this.averageFrameSeconds > this.frameBudgetSeconds * QualityGovernor.DOWNGRADE_RATIO) {
+			this.secondsOverBudget += deltaTime;
+			this.secondsUnderBudget = 0;
+		} else if (this.averageFrameSeconds < this.frameBudgetSeconds * QualityGovernor.UPGRADE_RATIO) {
+			this.secondsUnderBudget += deltaTime;
+			this.secondsOverBudget = 0;
+		} else {
+			this.secondsOverBudget = 0;
+			this.secondsUnderBudget = 0;
+		}
+		
+		if (this.secondsOverBudget >= QualityGovernor.DOWNGRADE_HOLD_SECONDS && this.level.lower() != this.level) {
+			if (this.secondsSinceUpgrade >= 0 && this.secondsSinceUpgrade < QualityGovernor.FAILED_UPGRADE_SECONDS) {
+				this.upgradeHoldSeconds = Math.min(QualityGovernor.MAX_UPGRADE_HOLD_SECONDS,
+						this.upgradeHoldSeconds * 2);
+			}
+			this.secondsSinceUpgrade = - 1;
+			this.changeLevel(this.level.lower());
+		} else if (this.secondsUnderBudget >= this.upgradeHoldSeconds && this.level.higher() != this.level) {
+			this.secondsSinceUpgrade = 0;
+			this.changeLevel(this.level.higher());
+		}
+	}
+	
+	/**
+	 * @return The level in effect.
+	 */
+	public QualityLevel getLevel() {
+		return this.level;
+	}
+	
+	/**
+	 * @return The moving average of the frame time, in milliseconds.
+	 */
+	public float getAverageFrameMillis() {
+		return this.averageFrameSeconds * QualityGovernor.MILLIS_PER_SECOND;
+	}
+	
+	private void changeLevel(QualityLevel newLevel) {
+		QualityGovernor.LOGGER.info(String.format("Quality %s -> %s: average frame %.1f ms, budget %.1f ms",
+				this.level, newLevel, this.getAverageFrameMillis(),
+				this.frameBudgetSeconds * QualityGovernor.MILLIS_PER_SECOND));
+		this.level = newLevel;
+		this.applyLevel.accept(newLevel);
+		// Frames of the old level say nothing about the new one
+		this.hasAverage = false;
+		this.settleSecondsLeft = QualityGovernor.SETTLE_SECONDS;
+		this.secondsOverBudget = 0;
+		this.secondsUnderBudget = 0;
+	}
+}
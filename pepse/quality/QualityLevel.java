@@ -0,0 +1,82 @@
+package pepse.quality;
+
+import pepse.world.weather.Cloud;
+
+/**
+ * Rendering and simulation quality, from cheapest to richest. {@link #HIGH} is the game as designed;
+ * the levels below it shed per-frame work, and {@link #ULTRA} spends spare time on a wider world
+ * and a busier sky.
+ */
+public enum QualityLevel {
+	/**
+	 * Still leaves and light rain.
+	 */
+	LOW(1, false, 8, 1),
+	/**
+	 * Swaying leaves and moderate rain.
+	 */
+	MEDIUM(1, true, 15, 1),
+	/**
+	 * The designed look.
+	 */
+	HIGH(1, true, Cloud.MAX_RAINDROPS, 1),
+	/**
+	 * Two chunks loaded on each side and more clouds.
+	 */
+	ULTRA(2, true, Cloud.MAX_RAINDROPS, 3);
+	
+	private final int chunksOnEachSide;
+	private final boolean leafSway;
+	private final int maxRaindrops;
+	private final int cloudCount;
+	
+	QualityLevel(int chunksOnEachSide, boolean leafSway, int maxRaindrops, int cloudCount) {
+		this.chunksOnEachSide = chunksOnEachSide;
+		this.leafSway = leafSway;
+		this.maxRaindrops = maxRaindrops;
+		this.cloudCount = cloudCount;
+	}
+	
+	/**
+	 * @return Chunks kept loaded on each side of the avatar's.
+	 */
+	public int getChunksOnEachSide() {
+		return this.chunksOnEachSide;
+	}
+	
+	/**
+	 * @return Whether leaves sway.
+	 */
+	public boolean hasLeafSway() {
+		return this.leafSway;
+	}
+	
+	/**
+	 * @return Most raindrops a cloud makes per jump.
+	 */
+	public int getMaxRaindrops() {
+		return this.maxRaindrops;
+	}
+	
+	/**
+	 * @return Number of clouds.
+	 */
+	public int getCloudCount() {
+		return this.cloudCount;
+	}
+	
+	/**
+	 * @return The next cheaper level, or this one if it is the cheapest.
+	 */
+	public QualityLevel lower() {
+		return this.ordinal() == 0 ? this : QualityLevel.values()[this.ordinal() - 1];
+	}
+	
+	/**
+	 * @return The next richer level, or this one if it is the richest.
+	 */
+	public QualityLevel higher() {
+		final QualityLevel[] levels = QualityLevel.values();
+		return this.ordinal() == levels.length - 1 ? this : levels[this.ordinal() + 1];
+	}
+}
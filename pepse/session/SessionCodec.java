@@ -0,0 +1,209 @@
+package pepse.session;
+
+import danogl.util.Vector2;
+import pepse.util.VarInts;
+import pepse.world.Block;
+import pepse.world.trees.EatenFruit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The session file format. Everything is a LEB128 varint (signed values zigzag-encoded), and
+ * only what differs from a fresh session of the same seed is written, so a just-started session
+ * takes a handful of bytes.
+ * <p>
+ * Layout: magic ({@code int}), then varints: format version, seed, a bitmask of the fields that
+ * follow, then those fields in bit order. Positions and velocities are stored in 1/16 pixel,
+ * energy in 1/100 and times in milliseconds. The avatar position is relative to the spawn point.
+ * Eaten fruits are sorted by block cell and each cell is stored relative to the previous one
+ * (the first relative to the cell of the avatar's position as decoded, so both sides start from the
+ * same cell), so neighbouring fruits cost about three bytes each.
+ */
+final class SessionCodec {
+	/**
+	 * Current format version; files of other versions are rejected.
+	 */
+	static final int VERSION = 1;
+	
+	// "PSES" in ASCII
+	private static final int MAGIC = 0x50534553;
+	private static final int HAS_POSITION = 1;
+	private static final int HAS_VELOCITY = 1 << 1;
+	private static final int HAS_ENERGY = 1 << 2;
+	private static final int HAS_DAY_TIME = 1 << 3;
+	private static final int HAS_EATEN_FRUITS = 1 << 4;
+	private static final float POSITION_SCALE = 16;
+	private static final float ENERGY_SCALE = 100;
+	private static final float TIME_SCALE = 1000;
+	private static final Comparator< EatenFruit > BY_CELL =
+			Comparator.comparingInt(EatenFruit :: getCellX).thenComparingInt(EatenFruit :: getCellY);
+	
+	private SessionCodec() {
+	}
+	
+	/**
+	 * Encodes a session.
+	 *
+	 * @param state The session
+	 * @param fresh A fresh session of the same world
+	 * @param seed  World seed
+	 * @return The file contents
+	 */
+	static byte[] encode(SessionState state, SessionState fresh, int seed) {
+		final long dx = SessionCodec.quantize(state.getAvatarPosition().x() - fresh.getAvatarPosition().x(),
+				SessionCodec.POSITION_SCALE);
+		final long dy = SessionCodec.quantize(state.getAvatarPosition().y() - fresh.getAvatarPosition().y(),
+				SessionCodec.POSITION_SCALE);
+		final long vx = SessionCodec.quantize(state.getAvatarVelocity().x(), SessionCodec.POSITION_SCALE);
+		final long vy = SessionCodec.quantize(state.getAvatarVelocity().y(), SessionCodec.POSITION_SCALE);
+		final long energy = SessionCodec.quantize(state.getEnergy(), SessionCodec.ENERGY_SCALE);
+		final long dayTime = SessionCodec.quantize(state.getDayTime(), SessionCodec.TIME_SCALE);
+		
+		int fields = 0;
+		if (dx != 0 || dy != 0) {
+			fields |= SessionCodec.HAS_POSITION;
+		}
+		if (vx != 0 || vy != 0) {
+			fields |= SessionCodec.HAS_VELOCITY;
+		}
+		if (energy != SessionCodec.quantize(fresh.getEnergy(), SessionCodec.ENERGY_SCALE)) {
+			fields |= SessionCodec.HAS_ENERGY;
+		}
+		if (dayTime != SessionCodec.quantize(fresh.getDayTime(), SessionCodec.TIME_SCALE)) {
+			fields |= SessionCodec.HAS_DAY_TIME;
+		}
+		if (! state.getEatenFruits().isEmpty()) {
+			fields |= SessionCodec.HAS_EATEN_FRUITS;
+		}
+		
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		final ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).putInt(SessionCodec.MAGIC);
+		out.write(magic.array(), 0, Integer.BYTES);
+		VarInts.write(out, SessionCodec.VERSION);
+		VarInts.writeSigned(out, seed);
+		VarInts.write(out, fields);
+		if (( fields & SessionCodec.HAS_POSITION ) != 0) {
+			VarInts.writeSigned(out, dx);
+			VarInts.writeSigned(out, dy);
+		}
+		if (( fields & SessionCodec.HAS_VELOCITY ) != 0) {
+			VarInts.writeSigned(out, vx);
+			VarInts.writeSigned(out, vy);
+		}
+		if (( fields & SessionCodec.HAS_ENERGY ) != 0) {
+			VarInts.write(out, energy);
+		}
+		if (( fields & SessionCodec.HAS_DAY_TIME ) != 0) {
+			VarInts.write(out, dayTime);
+		}
+		if (( fields & SessionCodec.HAS_EATEN_FRUITS ) != 0) {
+			final List< EatenFruit > fruits = new ArrayList<>(state.getEatenFruits());
+			fruits.sort(SessionCodec.BY_CELL);
+			VarInts.write(out, fruits.size());
+			// Anchor on the position decode rebuilds, not the exact one, or the first cell can shift by one
+			final Vector2 decodedPosition = SessionCodec.restorePosition(fresh, dx, dy);
+			int previousX = SessionCodec.cellOf(decodedPosition.x());
+			int previousY = SessionCodec.cellOf(decodedPosition.y());
+			for ( EatenFruit fruit: fruits ) {
+				VarInts.writeSigned(out, fruit.getCellX() - previousX);
+				VarInts.writeSigned(out, fruit.getCellY() - previousY);
+				VarInts.write(out, SessionCodec.quantize(fruit.getSecondsSinceEaten(),
+						SessionCodec.TIME_SCALE));
+				previousX = fruit.getCellX();
+				previousY = fruit.getCellY();
+			}
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Decodes a session.
+	 *
+	 * @param data  The file contents
+	 * @param fresh A fresh session of the same world
+	 * @param seed  World seed the session must belong to
+	 * @return The session
+	 * @throws IOException If the data is not a session file, has another version or seed, or is truncated
+	 */
+	static SessionState decode(byte[] data, SessionState fresh, int seed) throws IOException {
+		final ByteBuffer in = ByteBuffer.wrap(data);
+		try {
+			if (in.getInt() != SessionCodec.MAGIC) {
+				throw new IOException("Not a session file");
+			}
+			final long version = VarInts.read(in);
+			if (version != SessionCodec.VERSION) {
+				throw new IOException("Unsupported session version " + version);
+			}
+			final long fileSeed = VarInts.readSigned(in);
+			if (fileSeed != seed) {
+				throw new IOException("Session was saved with seed " + fileSeed + ", not " + seed);
+			}
+			final long fields = VarInts.read(in);
+			
+			long dx = 0;
+			long dy = 0;
+			if (( fields & SessionCodec.HAS_POSITION ) != 0) {
+				dx = VarInts.readSigned(in);
+				dy = VarInts.readSigned(in);
+			}
+			final Vector2 position = SessionCodec.restorePosition(fresh, dx, dy);
+			Vector2 velocity = fresh.getAvatarVelocity();
+			if (( fields & SessionCodec.HAS_VELOCITY ) != 0) {
+				velocity = new Vector2(
+						SessionCodec.dequantize(VarInts.readSigned(in), SessionCodec.POSITION_SCALE),
+						SessionCodec.dequantize(VarInts.readSigned(in), SessionCodec.POSITION_SCALE));
+			}
+			float energy = fresh.getEnergy();
+			if (( fields & SessionCodec.HAS_ENERGY ) != 0) {
+				energy = SessionCodec.dequantize(VarInts.read(in), SessionCodec.ENERGY_SCALE);
+			}
+			float dayTime = fresh.getDayTime();
+			if (( fields & SessionCodec.HAS_DAY_TIME ) != 0) {
+				dayTime = SessionCodec.dequantize(VarInts.read(in), SessionCodec.TIME_SCALE);
+			}
+			final List< EatenFruit > eatenFruits = new ArrayList<>();
+			if (( fields & SessionCodec.HAS_EATEN_FRUITS ) != 0) {
+				final long count = VarInts.read(in);
+				int cellX = SessionCodec.cellOf(position.x());
+				int cellY = SessionCodec.cellOf(position.y());
+				for ( long i = 0; i < count; i++ ) {
+					cellX += ( int ) VarInts.readSigned(in);
+					cellY += ( int ) VarInts.readSigned(in);
+					eatenFruits.add(new EatenFruit(cellX, cellY,
+							SessionCodec.dequantize(VarInts.read(in), SessionCodec.TIME_SCALE)));
+				}
+			}
+			return new SessionState(position, velocity, energy, dayTime, eatenFruits);
+		} catch ( BufferUnderflowException e ) {
+			throw new IOException("Truncated session file", e);
+		}
+	}
+	
+	/**
+	 * The avatar position as decoded from its quantized offsets; encode anchors the fruit cells on it too.
+	 */
+	private static Vector2 restorePosition(SessionState fresh, long dx, long dy) {
+		return fresh.getAvatarPosition().add(new Vector2(
+				SessionCodec.dequantize(dx, SessionCodec.POSITION_SCALE),
+				SessionCodec.dequantize(dy, SessionCodec.POSITION_SCALE)));
+	}
+	
+	private static long quantize(float value, float scale) {
+		return Math.round(( double ) value * scale);
+	}
+	
+	private static float dequantize(long value, float scale) {
+		return ( float ) ( value / ( double ) scale );
+	}
+	
+	private static int cellOf(float coordinate) {
+		return ( int ) Math.floor(coordinate / Block.SIZE);
+	}
+}
@@ -0,0 +1,76 @@
+package pepse.session;
+
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.trees.EatenFruit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Round-trips sessions through {@link SessionCodec} with the avatar just either side of block
+ * edges, where the stored 1/16 pixel position can land in another cell than the exact one, and
+ * checks that every eaten fruit comes back in its own cell.
+ * <p>
+ * Usage: {@code java pepse.session.SessionCodecCheck}; exits with status 1 on a mismatch.
+ */
+public final class SessionCodecCheck {
+	private static final int SEED = 42;
+	// Distances from a block edge, smaller than half of the stored 1/16 pixel step
+	private static final float[] EDGE_OFFSETS = { - 0.01f, - 0.001f, 0, 0.001f, 0.01f };
+	private static final float[] SPAWN_XS = { 0, 13.37f, - 45 };
+	private static final int EDGES = 8;
+	private static final List< EatenFruit > FRUITS = List.of(new EatenFruit(10, 5, 1.5f),
+			new EatenFruit(- 3, - 20, 0), new EatenFruit(11, 5, 30));
+	
+	private SessionCodecCheck() {
+	}
+	
+	/**
+	 * Entry point.
+	 */
+	public static void main(String[] args) throws IOException {
+		int checked = 0;
+		int mismatched = 0;
+		for ( float spawnX: SessionCodecCheck.SPAWN_XS ) {
+			final SessionState fresh = SessionState.fresh(new Vector2(spawnX, 400));
+			for ( int edge = - SessionCodecCheck.EDGES; edge <= SessionCodecCheck.EDGES; edge++ ) {
+				for ( float offset: SessionCodecCheck.EDGE_OFFSETS ) {
+					final float x = edge * Block.SIZE + offset;
+					final Vector2 position = new Vector2(x, x);
+					final SessionState state = new SessionState(position, Vector2.ZERO, 10, 5,
+							SessionCodecCheck.FRUITS);
+					final SessionState decoded = SessionCodec.decode(
+							SessionCodec.encode(state, fresh, SessionCodecCheck.SEED), fresh, SessionCodecCheck.SEED);
+					checked++;
+					if (! SessionCodecCheck.sameCells(decoded.getEatenFruits())) {
+						mismatched++;
+						System.out.printf("Fruit cells moved: spawn x %s, avatar at %s%n", spawnX, position);
+					}
+				}
+			}
+		}
+		System.out.printf("%d round trips, %d mismatched%n", checked, mismatched);
+		System.out.println(mismatched == 0 ? "SESSION CHECK PASSED" : "SESSION CHECK FAILED");
+		System.exit(mismatched == 0 ? 0 : 1);
+	}
+	
+	/**
+	 * Whether decoded fruits are the check's fruits, in any order.
+	 */
+	private static boolean sameCells(List< EatenFruit > decoded) {
+		if (decoded.size() != SessionCodecCheck.FRUITS.size()) {
+			return false;
+		}
+		for ( EatenFruit expected: SessionCodecCheck.FRUITS ) {
+			boolean found = false;
+			for ( EatenFruit fruit: decoded ) {
+				found |= fruit.getCellX() == expected.getCellX() && fruit.getCellY() == expected.getCellY();
+			}
+			if (! found) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,115 @@
+package pepse.session;
+
+import danogl.util.Vector2;
+import pepse.PepseWorld;
+import pepse.world.Avatar;
+import pepse.world.daynight.DayCycle;
+import pepse.world.trees.EatenFruit;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything a session adds on top of the world its seed generates: where the avatar is and how
+ * it moves, its energy, the time of day and which fruits are eaten.
+ * Immutable, so it can be handed to another thread for saving: vectors are copied on the way in.
+ */
+public final class SessionState {
+	private final Vector2 avatarPosition;
+	private final Vector2 avatarVelocity;
+	private final float energy;
+	private final float dayTime;
+	private final List< EatenFruit > eatenFruits;
+	
+	/**
+	 * Creates a state.
+	 *
+	 * @param avatarPosition Top-left corner of the avatar; copied if mutable
+	 * @param avatarVelocity The avatar's velocity; copied if mutable
+	 * @param energy         The avatar's energy
+	 * @param dayTime        Seconds into the day/night cycle
+	 * @param eatenFruits    Fruits waiting to respawn
+	 */
+	public SessionState(Vector2 avatarPosition, Vector2 avatarVelocity, float energy, float dayTime,
+	                    List< EatenFruit > eatenFruits) {
+		// The engine hands out its live (mutable) vectors; keep copies so the snapshot cannot change
+		this.avatarPosition = avatarPosition.getImmutableCopy();
+		this.avatarVelocity = avatarVelocity.getImmutableCopy();
+		this.energy = energy;
+		this.dayTime = dayTime;
+		this.eatenFruits = List.copyOf(eatenFruits);
+	}
+	
+	/**
+	 * The state of a session that has just started: what a saved file is compared against.
+	 *
+	 * @param spawnPosition Where the avatar spawns, see {@link PepseWorld#spawnPosition}
+	 * @return The fresh state
+	 */
+	public static SessionState fresh(Vector2 spawnPosition) {
+		return new SessionState(spawnPosition, Vector2.ZERO, Avatar.MAX_ENERGY, 0, Collections.emptyList());
+	}
+	
+	/**
+	 * Takes a snapshot of a running session. Cheap enough for the game thread.
+	 *
+	 * @param world    The world
+	 * @param dayCycle The time of day
+	 * @return The snapshot
+	 */
+	public static SessionState capture(PepseWorld world, DayCycle dayCycle) {
+		final Avatar avatar = world.getAvatar();
+		return new SessionState(avatar.getTopLeftCorner(), avatar.getVelocity(), ( float ) avatar.getEnergyLevel(),
+				dayCycle.getTime(), world.eatenFruits());
+	}
+	
+	/**
+	 * Applies everything but the avatar's position, which the world must be built around
+	 * (see {@link PepseWorld}'s constructor).
+	 *
+	 * @param world    A world built at {@link #getAvatarPosition()}
+	 * @param dayCycle The time of day
+	 */
+	public void restore(PepseWorld world, DayCycle dayCycle) {
+		final Avatar avatar = world.getAvatar();
+		avatar.setVelocity(this.avatarVelocity);
+		avatar.setEnergyLevel(this.energy);
+		dayCycle.setTime(this.dayTime);
+		world.restoreEatenFruits(this.eatenFruits);
+	}
+	
+	/**
+	 * @return Top-left corner of the avatar.
+	 */
+	public Vector2 getAvatarPosition() {
+		return this.avatarPosition;
+	}
+	
+	/**
+	 * @return The avatar's velocity.
+	 */
+	public Vector2 getAvatarVelocity() {
+		return this.avatarVelocity;
+	}
+	
+	/**
+	 * @return The avatar's energy.
+	 */
+	public float getEnergy() {
+		return this.energy;
+	}
+	
+	/**
+	 * @return Seconds into the day/night cycle.
+	 */
+	public float getDayTime() {
+		return this.dayTime;
+	}
+	
+	/**
+	 * @return Fruits waiting to respawn.
+	 */
+	public List< EatenFruit > getEatenFruits() {
+		return this.eatenFruits;
+	}
+}
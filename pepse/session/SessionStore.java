@@ -0,0 +1,113 @@
+package pepse.session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Saves and loads one session file.
+ * Saving encodes the snapshot on the caller's thread (a few hundred bytes at most) and leaves the
+ * file I/O to a background thread, so the game thread never waits on the disk. Saves requested
+ * while one is being written collapse into the newest. Each save goes to a temporary file that
+ * then replaces the old one, so a crash mid-write never leaves a torn session.
+ */
+public class SessionStore implements AutoCloseable {
+	private static final Logger LOGGER = Logger.getLogger(SessionStore.class.getName());
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final long CLOSE_TIMEOUT_SECONDS = 5;
+	
+	private final Path file;
+	private final int seed;
+	private final SessionState fresh;
+	private final AtomicReference< byte[] > pending = new AtomicReference<>();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+		final Thread thread = new Thread(task, "pepse-session-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	/**
+	 * Creates a store.
+	 *
+	 * @param file  The session file
+	 * @param seed  World seed; files of other seeds are rejected
+	 * @param fresh A fresh session of the world, see {@link SessionState#fresh}
+	 */
+	public SessionStore(Path file, int seed, SessionState fresh) {
+		this.file = file;
+		this.seed = seed;
+		this.fresh = fresh;
+	}
+	
+	/**
+	 * @return The session file.
+	 */
+	public Path getFile() {
+		return this.file;
+	}
+	
+	/**
+	 * Reads the session file.
+	 *
+	 * @return The saved session, or null if there is no file
+	 * @throws UncheckedIOException If the file cannot be read or is not a session of this world
+	 */
+	public SessionState load() {
+		if (! Files.exists(this.file)) {
+			return null;
+		}
+		try {
+			return SessionCodec.decode(Files.readAllBytes(this.file), this.fresh, this.seed);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot load session " + this.file, e);
+		}
+	}
+	
+	/**
+	 * Saves a session in the background.
+	 *
+	 * @param state The session to save
+	 */
+	public void save(SessionState state) {
+		final byte[] data = SessionCodec.encode(state, this.fresh, this.seed);
+		// Only schedule a write if none is queued; a queued one picks up the newest data
+		if (this.pending.getAndSet(data) == null) {
+			this.writer.execute(this :: writePending);
+		}
+	}
+	
+	/**
+	 * Finishes any queued save and stops the writer thread.
+	 */
+	@Override
+	public void close() {
+		this.writer.shutdown();
+		try {
+			this.writer.awaitTermination(SessionStore.CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private void writePending() {
+		final byte[] data = this.pending.getAndSet(null);
+		if (data == null) {
+			return;
+		}
+		final Path temporary = this.file.resolveSibling(this.file.getFileName() + SessionStore.TEMPORARY_SUFFIX);
+		try {
+			Files.write(temporary, data);
+			Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch ( IOException e ) {
+			SessionStore.LOGGER.log(Level.WARNING, "Cannot save session " + this.file, e);
+		}
+	}
+}
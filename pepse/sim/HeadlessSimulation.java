@@ -0,0 +1,294 @@
+package pepse.sim;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.util.Vector2;
+import pepse.PepseWorld;
+import pepse.input.FrameInput;
+import pepse.input.InputRecorder;
+import pepse.input.ReplayInput;
+import pepse.input.StepInput;
+import pepse.util.FixedTimestep;
+import pepse.world.Avatar;
+import pepse.world.delta.ChunkDeltaStore;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Runs the game world without a window: the same {@link PepseWorld} the game builds, driven by
+ * a {@link ScriptedInput} at a fixed frame time, or by a recorded {@link ReplayInput} at the recorded
+ * frame times. Like the game, each frame runs as many {@link PepseWorld#STEP_SECONDS} simulation steps
+ * as its time covers, and each step follows the engine's order (update every object, flush pending
+ * adds/removes, resolve collisions) and then streams the world.
+ * Scripted runs keep the avatar's energy full, so a blind script never stalls at a wall for lack
+ * of a jump; replays play by the game's energy rules.
+ * <p>
+ * Usage: {@code java pepse.sim.HeadlessSimulation [--frames N] [--warmup N] [--seed S] [--dt SECONDS]
+ * [--script STEPS | --replay FILE] [--record FILE] [--cache DIR] [--deltas DIR] [--lod CHUNKS]}. A replay
+ * supplies its own seed and delta times and ends the run when the log runs out. {@code --lod} shows that many
+ * low-detail chunks beyond the loaded ones on each side.
+ */
+public class HeadlessSimulation {
+	static final Vector2 WINDOW_DIMENSIONS = new Vector2(1024, 768);
+	private static final int DEFAULT_FRAMES = 36000;
+	private static final int DEFAULT_WARMUP_FRAMES = 600;
+	private static final int DEFAULT_SEED = 42;
+	private static final float DEFAULT_DELTA_TIME = 1 / 60f;
+	// Layers are counted outside the timed step, every this many frames
+	private static final int LAYER_SAMPLE_INTERVAL = 60;
+	
+	private final GameObjectCollection gameObjects = new GameObjectCollection(null);
+	private final FrameInput input;
+	// What the world reads: the frame's input seen one step at a time, as in the game
+	private final StepInput stepInput;
+	private final PepseWorld world;
+	private final float deltaTime;
+	private final FixedTimestep timestep = new FixedTimestep(PepseWorld.STEP_SECONDS, PepseWorld.MAX_STEPS_PER_FRAME);
+	private InputRecorder recorder = null;
+	private boolean keepEnergyFull = false;
+	private final com.sun.management.ThreadMXBean threadBean =
+			( com.sun.management.ThreadMXBean ) ManagementFactory.getThreadMXBean();
+	
+	/**
+	 * Builds a headless world.
+	 *
+	 * @param seed      World seed
+	 * @param script    Input script, see {@link ScriptedInput#ScriptedInput(String)}
+	 * @param deltaTime Fixed frame time in seconds
+	 */
+	public HeadlessSimulation(int seed, String script, float deltaTime) {
+		this(seed, new ScriptedInput(script), deltaTime, null, null);
+	}
+	
+	/**
+	 * Builds a headless world driven by any frame input.
+	 *
+	 * @param seed                World seed
+	 * @param input               Input, advanced once per frame and read by the world once per step
+	 * @param deltaTime           Frame time offered to the input; a replay substitutes its recorded one
+	 * @param chunkCacheDirectory Directory of the chunk cache, or null to generate every chunk
+	 * @param chunkDeltas         Store of the world's changes, or null to keep none; closed by the caller
+	 */
+	public HeadlessSimulation(int seed, FrameInput input, float deltaTime, Path chunkCacheDirectory,
+	                          ChunkDeltaStore chunkDeltas) {
+		this.input = input;
+		this.stepInput = new StepInput(input);
+		this.world = new PepseWorld(this.gameObjects, HeadlessSimulation.WINDOW_DIMENSIONS, this.stepInput, seed,
+				chunkCacheDirectory, chunkDeltas, null);
+		this.deltaTime = deltaTime;
+		// Apply the initial chunks before the first frame, like the game's first update would
+		this.gameObjects.update(0);
+	}
+	
+	/**
+	 * @return The simulated world.
+	 */
+	public PepseWorld getWorld() {
+		return this.world;
+	}
+	
+	/**
+	 * @return The object collection the world lives in.
+	 */
+	public GameObjectCollection getGameObjects() {
+		return this.gameObjects;
+	}
+	
+	/**
+	 * Also writes every step's input to a log, which replays this run exactly.
+	 *
+	 * @param recorder Destination log, closed by the caller
+	 */
+	public void setRecorder(InputRecorder recorder) {
+		this.recorder = recorder;
+	}
+	
+	/**
+	 * Refills the avatar's energy before every step, so jumps never run out.
+	 *
+	 * @param keepEnergyFull True to keep the energy full, false for the game's energy rules
+	 */
+	public void setKeepEnergyFull(boolean keepEnergyFull) {
+		this.keepEnergyFull = keepEnergyFull;
+	}
+	
+	/**
+	 * Advances the simulation by one frame: the fixed steps its time completes.
+	 *
+	 * @return The frame's delta time
+	 */
+	public float step() {
+		final float frameDeltaTime = this.input.advanceFrame(this.deltaTime);
+		if (this.recorder != null) {
+			this.recorder.recordFrame(this.input, frameDeltaTime);
+		}
+		final float stepSeconds = this.timestep.getStepSeconds();
+		final int steps = this.timestep.advance(frameDeltaTime);
+		for ( int step = 0; step < steps; step++ ) {
+			this.stepInput.beginStep(step == 0);
+			if (this.keepEnergyFull) {
+				this.world.getAvatar().addEnergy(Avatar.MAX_ENERGY);
+			}
+			for ( GameObject obj: this.gameObjects ) {
+				obj.update(stepSeconds);
+			}
+			this.gameObjects.update(stepSeconds);
+			this.gameObjects.handleCollisions();
+			this.world.update();
+		}
+		return frameDeltaTime;
+	}
+	
+	/**
+	 * Steps through the warmup frames unmeasured, then measures the given number of frames,
+	 * or fewer if the input runs out.
+	 *
+	 * @param warmupFrames Frames to run before measuring
+	 * @param frames       Frames to measure
+	 * @return The measurements
+	 */
+	public SimulationReport run(int warmupFrames, int frames) {
+		for ( int i = 0; i < warmupFrames && this.input.hasNextFrame(); i++ ) {
+			this.step();
+		}
+		
+		final Map< String, Integer > peakLayerCounts = this.countLayers();
+		final long[] frameNanos = new long[frames];
+		long allocatedBytes = 0;
+		final long gcCountBefore = HeadlessSimulation.totalGcCount();
+		final long gcMillisBefore = HeadlessSimulation.totalGcMillis();
+		float simulatedSeconds = 0;
+		int measured = 0;
+		int chunksCrossed = 0;
+		int avatarChunk = this.avatarChunk();
+		for ( int i = 0; i < frames && this.input.hasNextFrame(); i++ ) {
+			final long bytesBefore = this.threadBean.getCurrentThreadAllocatedBytes();
+			final long start = System.nanoTime();
+			simulatedSeconds += this.step();
+			frameNanos[i] = System.nanoTime() - start;
+			allocatedBytes += this.threadBean.getCurrentThreadAllocatedBytes() - bytesBefore;
+			measured++;
+			final int chunk = this.avatarChunk();
+			chunksCrossed += Math.abs(chunk - avatarChunk);
+			avatarChunk = chunk;
+			
+			if (i % HeadlessSimulation.LAYER_SAMPLE_INTERVAL == 0) {
+				this.countLayers().forEach((layer, count) -> peakLayerCounts.merge(layer, count, Math :: max));
+			}
+		}
+		final Map< String, Integer > finalLayerCounts = this.countLayers();
+		finalLayerCounts.forEach((layer, count) -> peakLayerCounts.merge(layer, count, Math :: max));
+		
+		return new SimulationReport(Arrays.copyOf(frameNanos, measured), allocatedBytes,
+				HeadlessSimulation.totalGcCount() - gcCountBefore,
+				HeadlessSimulation.totalGcMillis() - gcMillisBefore,
+				simulatedSeconds, this.world.getAvatar().getCenter().x(), chunksCrossed,
+				finalLayerCounts, peakLayerCounts);
+	}
+	
+	/**
+	 * Entry point; prints a {@link SimulationReport}.
+	 */
+	public static void main(String[] args) {
+		int frames = HeadlessSimulation.DEFAULT_FRAMES;
+		int warmupFrames = HeadlessSimulation.DEFAULT_WARMUP_FRAMES;
+		int seed = HeadlessSimulation.DEFAULT_SEED;
+		float deltaTime = HeadlessSimulation.DEFAULT_DELTA_TIME;
+		String script = ScriptedInput.DEFAULT_SCRIPT;
+		String replayPath = null;
+		String recordPath = null;
+		Path cacheDirectory = null;
+		Path deltasDirectory = null;
+		int lodChunks = 0;
+		for ( int i = 0; i + 1 < args.length; i += 2 ) {
+			switch ( args[i] ) {
+				case "--frames" -> frames = Integer.parseInt(args[i + 1]);
+				case "--warmup" -> warmupFrames = Integer.parseInt(args[i + 1]);
+				case "--seed" -> seed = Integer.parseInt(args[i + 1]);
+				case "--dt" -> deltaTime = Float.parseFloat(args[i + 1]);
+				case "--script" -> script = args[i + 1];
+				case "--replay" -> replayPath = args[i + 1];
+				case "--record" -> recordPath = args[i + 1];
+				case "--cache" -> cacheDirectory = Paths.get(args[i + 1]);
+				case "--deltas" -> deltasDirectory = Paths.get(args[i + 1]);
+				case "--lod" -> lodChunks = Integer.parseInt(args[i + 1]);
+				default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		
+		final ReplayInput replay = replayPath == null ? null : ReplayInput.read(replayPath);
+		if (replay != null) {
+			seed = replay.getSeed();
+		}
+		final ChunkDeltaStore chunkDeltas = deltasDirectory == null ? null
+				                                    : new ChunkDeltaStore(deltasDirectory, seed, HeadlessSimulation.WINDOW_DIMENSIONS);
+		final HeadlessSimulation simulation;
+		if (replay != null) {
+			simulation = new HeadlessSimulation(seed, replay, deltaTime, cacheDirectory, chunkDeltas);
+			System.out.printf("Headless replay: seed=%d warmup=%d log=%s (%d frames)%n", seed, warmupFrames,
+					replayPath, replay.getFrameCount());
+		} else {
+			simulation = new HeadlessSimulation(seed, new ScriptedInput(script), deltaTime, cacheDirectory,
+					chunkDeltas);
+			simulation.setKeepEnergyFull(true);
+			System.out.printf("Headless run: seed=%d dt=%.4f warmup=%d script=%s (energy kept full)%n", seed,
+					deltaTime, warmupFrames, script);
+		}
+		simulation.getWorld().setLodChunksOnEachSide(lodChunks);
+		try {
+			if (recordPath == null) {
+				simulation.run(warmupFrames, frames).print(System.out);
+				return;
+			}
+			try ( InputRecorder recorder = new InputRecorder(recordPath, seed) ) {
+				simulation.setRecorder(recorder);
+				simulation.run(warmupFrames, frames).print(System.out);
+			}
+		} finally {
+			if (chunkDeltas != null) {
+				chunkDeltas.close();
+			}
+		}
+	}
+	
+	/**
+	 * Index of the chunk the avatar's center is in; a chunk is one window wide.
+	 */
+	private int avatarChunk() {
+		return ( int ) Math.floor(this.world.getAvatar().getCenter().x() / HeadlessSimulation.WINDOW_DIMENSIONS.x());
+	}
+	
+	private Map< String, Integer > countLayers() {
+		final Map< String, Integer > counts = new LinkedHashMap<>();
+		for ( Map.Entry< String, Integer > layer: PepseWorld.namedLayers().entrySet() ) {
+			int count = 0;
+			for ( GameObject ignored: this.gameObjects.objectsInLayer(layer.getValue()) ) {
+				count++;
+			}
+			counts.put(layer.getKey(), count);
+		}
+		return counts;
+	}
+	
+	private static long totalGcCount() {
+		long count = 0;
+		for ( GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans() ) {
+			count += Math.max(0, gc.getCollectionCount());
+		}
+		return count;
+	}
+	
+	private static long totalGcMillis() {
+		long millis = 0;
+		for ( GarbageCollectorMXBean gc: ManagementFactory.getGarbageCollectorMXBeans() ) {
+			millis += Math.max(0, gc.getCollectionTime());
+		}
+		return millis;
+	}
+}
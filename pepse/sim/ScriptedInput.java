@@ -0,0 +1,94 @@
+package pepse.sim;
+
+import pepse.input.KeyStateInput;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A keyboard that plays a fixed, looping script instead of reading a window.
+ * The script is a list of steps, each holding a set of keys for some number of frames.
+ */
+public class ScriptedInput extends KeyStateInput {
+	/**
+	 * Default script: run right and jump twice a second, which clears the steps and trunks in the
+	 * way. Jumping that often needs more energy than the avatar has, so pair it with
+	 * {@link HeadlessSimulation#setKeepEnergyFull}.
+	 */
+	public static final String DEFAULT_SCRIPT = "R:30,RJ:2";
+	
+	private static final String STEP_SEPARATOR = ",";
+	private static final String FRAMES_SEPARATOR = ":";
+	private static final char NO_KEYS = '_';
+	
+	private final List< Integer > stepKeys = new ArrayList<>();
+	private final List< Integer > stepFrames = new ArrayList<>();
+	
+	private int step = 0;
+	private int framesLeftInStep = 0;
+	
+	/**
+	 * Parses a script of comma-separated {@code KEYS:FRAMES} steps. Keys are any of
+	 * {@code L} (left), {@code R} (right) and {@code J} (jump), or {@code _} for none.
+	 *
+	 * @param script The script, e.g. {@code "R:600,RJ:5,_:60"}
+	 * @throws IllegalArgumentException If the script is malformed
+	 */
+	public ScriptedInput(String script) {
+		for ( String step: script.split(ScriptedInput.STEP_SEPARATOR) ) {
+			final String[] parts = step.trim().split(ScriptedInput.FRAMES_SEPARATOR);
+			if (parts.length != 2) {
+				throw new IllegalArgumentException("Malformed script step: " + step);
+			}
+			final int frames;
+			try {
+				frames = Integer.parseInt(parts[1]);
+			} catch ( NumberFormatException e ) {
+				throw new IllegalArgumentException("Malformed script step: " + step, e);
+			}
+			if (frames <= 0) {
+				throw new IllegalArgumentException("Script step must last at least one frame: " + step);
+			}
+			this.stepKeys.add(ScriptedInput.parseKeys(parts[0], step));
+			this.stepFrames.add(frames);
+		}
+		this.framesLeftInStep = this.stepFrames.get(0);
+	}
+	
+	/**
+	 * Moves to the next frame of the script. The script loops, so there always is one.
+	 *
+	 * @param deltaTime The driver's delta time
+	 * @return {@code deltaTime}, unchanged
+	 */
+	@Override
+	public float advanceFrame(float deltaTime) {
+		this.setPressedMask(this.stepKeys.get(this.step));
+		this.framesLeftInStep--;
+		if (this.framesLeftInStep == 0) {
+			this.step = ( this.step + 1 ) % this.stepKeys.size();
+			this.framesLeftInStep = this.stepFrames.get(this.step);
+		}
+		return deltaTime;
+	}
+	
+	@Override
+	public boolean hasNextFrame() {
+		return true;
+	}
+	
+	private static int parseKeys(String keys, String step) {
+		int mask = 0;
+		for ( char key: keys.toCharArray() ) {
+			switch ( key ) {
+				case 'L' -> mask |= KeyStateInput.maskOf(KeyEvent.VK_LEFT);
+				case 'R' -> mask |= KeyStateInput.maskOf(KeyEvent.VK_RIGHT);
+				case 'J' -> mask |= KeyStateInput.maskOf(KeyEvent.VK_SPACE);
+				case ScriptedInput.NO_KEYS -> { }
+				default -> throw new IllegalArgumentException("Unknown key '" + key + "' in script step: " + step);
+			}
+		}
+		return mask;
+	}
+}
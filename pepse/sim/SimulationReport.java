@@ -0,0 +1,122 @@
+package pepse.sim;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Results of a headless run: frame-time distribution, objects per layer and allocation.
+ * Frame times and allocation cover only the simulation step itself, not the bookkeeping
+ * that samples the layers.
+ */
+public class SimulationReport {
+	private static final double NANOS_PER_MILLI = 1e6;
+	private static final double NANOS_PER_SECOND = 1e9;
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+	private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+	
+	private final long[] sortedFrameNanos;
+	private final long totalFrameNanos;
+	private final long allocatedBytes;
+	private final long gcCount;
+	private final long gcMillis;
+	private final float simulatedSeconds;
+	private final float avatarX;
+	private final int chunksCrossed;
+	private final Map< String, Integer > finalLayerCounts;
+	private final Map< String, Integer > peakLayerCounts;
+	
+	/**
+	 * Creates a report.
+	 *
+	 * @param frameNanos       Duration of every measured frame
+	 * @param allocatedBytes   Bytes allocated by the simulation thread during the measured frames
+	 * @param gcCount          Collections during the measured run
+	 * @param gcMillis         Time spent in those collections
+	 * @param simulatedSeconds Game time covered by the measured frames
+	 * @param avatarX          The avatar's center X at the end of the run
+	 * @param chunksCrossed    Chunk boundaries the avatar crossed during the measured frames, either way
+	 * @param finalLayerCounts Objects per layer at the end of the run
+	 * @param peakLayerCounts  Highest sampled object count per layer
+	 */
+	SimulationReport(long[] frameNanos, long allocatedBytes, long gcCount, long gcMillis,
+	                 float simulatedSeconds, float avatarX, int chunksCrossed,
+	                 Map< String, Integer > finalLayerCounts, Map< String, Integer > peakLayerCounts) {
+		this.sortedFrameNanos = frameNanos.clone();
+		Arrays.sort(this.sortedFrameNanos);
+		this.totalFrameNanos = Arrays.stream(frameNanos).sum();
+		this.allocatedBytes = allocatedBytes;
+		this.gcCount = gcCount;
+		this.gcMillis = gcMillis;
+		this.simulatedSeconds = simulatedSeconds;
+		this.avatarX = avatarX;
+		this.chunksCrossed = chunksCrossed;
+		this.finalLayerCounts = finalLayerCounts;
+		this.peakLayerCounts = peakLayerCounts;
+	}
+	
+	/**
+	 * @return Number of measured frames.
+	 */
+	public int getFrameCount() {
+		return this.sortedFrameNanos.length;
+	}
+	
+	/**
+	 * Nearest-rank percentile of the frame times.
+	 *
+	 * @param percentile Percentile in [0, 100]
+	 * @return Frame time in milliseconds
+	 */
+	public double frameMillisAt(double percentile) {
+		if (this.sortedFrameNanos.length == 0) {
+			return 0;
+		}
+		final int rank = ( int ) Math.ceil(percentile / 100 * this.sortedFrameNanos.length);
+		final int index = Math.min(this.sortedFrameNanos.length - 1, Math.max(0, rank - 1));
+		return this.sortedFrameNanos[index] / SimulationReport.NANOS_PER_MILLI;
+	}
+	
+	/**
+	 * @return Allocation rate in MB per second of simulation CPU time.
+	 */
+	public double allocationMegabytesPerSecond() {
+		if (this.totalFrameNanos == 0) {
+			return 0;
+		}
+		return this.allocatedBytes / SimulationReport.BYTES_PER_MEGABYTE
+				       / ( this.totalFrameNanos / SimulationReport.NANOS_PER_SECOND );
+	}
+	
+	/**
+	 * Prints the report in a human readable form.
+	 *
+	 * @param out Destination
+	 */
+	public void print(PrintStream out) {
+		final int frames = this.getFrameCount();
+		out.printf("Frames:       %d (%.1f s simulated, %.1f s of frame time)%n", frames,
+				this.simulatedSeconds, this.totalFrameNanos / SimulationReport.NANOS_PER_SECOND);
+		out.printf("Avatar X:     %.0f (%d chunks crossed)%n", this.avatarX, this.chunksCrossed);
+		out.print("Frame time:  ");
+		for ( double percentile: SimulationReport.PERCENTILES ) {
+			out.printf(" p%s=%.3f ms", SimulationReport.formatPercentile(percentile),
+					this.frameMillisAt(percentile));
+		}
+		out.printf(" max=%.3f ms%n", this.frameMillisAt(100));
+		out.printf("Allocation:   %.1f MB total, %.0f B/frame, %.1f MB/s%n",
+				this.allocatedBytes / SimulationReport.BYTES_PER_MEGABYTE,
+				frames == 0 ? 0.0 : ( double ) this.allocatedBytes / frames, this.allocationMegabytesPerSecond());
+		out.printf("GC:           %d collections, %d ms%n", this.gcCount, this.gcMillis);
+		out.println("Objects per layer (final / peak):");
+		for ( Map.Entry< String, Integer > layer: this.finalLayerCounts.entrySet() ) {
+			out.printf("  %-12s %6d / %6d%n", layer.getKey(), layer.getValue(),
+					this.peakLayerCounts.get(layer.getKey()));
+		}
+	}
+	
+	private static String formatPercentile(double percentile) {
+		return percentile == Math.rint(percentile) ? Integer.toString(( int ) percentile)
+				       : Double.toString(percentile);
+	}
+}
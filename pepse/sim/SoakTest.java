@@ -0,0 +1,268 @@
+package pepse.sim;
+
+import danogl.GameObject;
+import danogl.collisions.Layer;
+import danogl.util.Vector2;
+import pepse.Weather;
+import pepse.quality.QualityLevel;
+import pepse.world.Avatar;
+import pepse.world.ChunkListener;
+import pepse.world.ObjectKind;
+import pepse.world.Terrain;
+import pepse.world.weather.CloudCover;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Long-distance soak test: carries the avatar thousands of chunks right, then back left past the
+ * origin, then home again, with rain, jumps and fruit pickups along the way. The weather is the
+ * game's cloud cover, switched to another quality level on every leg so clouds are added and
+ * removed as the quality governor would. Every few hundred chunks it takes a live-object heap
+ * histogram through the DiagnosticCommand MBean and compares each tracked world class with the
+ * instances actually in the game.
+ * Instances beyond those, the baseline and one chunk's worth of slack are retained garbage,
+ * and the run fails.
+ * <p>
+ * Usage: {@code java pepse.sim.SoakTest [--chunks N] [--sample-every N] [--seed S]}; exits with
+ * status 1 on a leak.
+ */
+public class SoakTest {
+	private static final int DEFAULT_CHUNKS_PER_LEG = 1000;
+	private static final int DEFAULT_SAMPLE_EVERY_CHUNKS = 250;
+	private static final int DEFAULT_SEED = 42;
+	private static final float DELTA_TIME = 1 / 60f;
+	// Horizontal travel per frame: a chunk every 16 frames at the default window width
+	private static final float TRAVEL_PER_FRAME = 64;
+	// Frames run in place before the baseline, so the initial chunks and first drops settle
+	private static final int SETTLE_FRAMES = 120;
+	// Tap jump once a second so clouds keep raining
+	private static final String JUMP_SCRIPT = "J:1,_:59";
+	private static final float CLOUD_MOVEMENT_TIME = 10;
+	private static final float RAINDROP_DURATION = 2;
+	private static final int CLOUD_LAYER = Layer.BACKGROUND + 1;
+	private static final int RAINDROP_LAYER = SoakTest.CLOUD_LAYER + 1;
+	// Quality of each leg's weather, in travel order
+	private static final QualityLevel[] LEG_QUALITIES = { QualityLevel.ULTRA, QualityLevel.LOW,
+			QualityLevel.HIGH };
+	// Headroom for plain game objects (raindrops) whose removal is still pending in the engine
+	private static final int MIN_SLACK = 32;
+	private static final String[] TRACKED_CLASSES = { "pepse.world.Block", "pepse.world.trees.Log",
+			"pepse.world.trees.Leaf", "pepse.world.trees.Fruit", "danogl.GameObject" };
+	private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+	private static final String HISTOGRAM_OPERATION = "gcClassHistogram";
+	// " 12:   3456   78901  pepse.world.Block" (an optional module suffix may follow)
+	private static final Pattern HISTOGRAM_LINE = Pattern.compile("^\\s*\\d+:\\s+(\\d+)\\s+\\d+\\s+(\\S+)");
+	private static final double BYTES_PER_MEGABYTE = 1024.0 * 1024.0;
+	
+	private final HeadlessSimulation simulation;
+	private final Avatar avatar;
+	private final Terrain terrain;
+	private final int chunkWidth;
+	private final CloudCover cloudCover;
+	private final Map< String, Integer > maxPerChunk = new HashMap<>();
+	private Map< String, Integer > baselineRetained;
+	private float travelX;
+	private boolean failed = false;
+	
+	/**
+	 * Builds the world, its weather and the travel driver.
+	 *
+	 * @param seed World seed
+	 */
+	public SoakTest(int seed) {
+		this.simulation = new HeadlessSimulation(seed, SoakTest.JUMP_SCRIPT, SoakTest.DELTA_TIME);
+		this.avatar = this.simulation.getWorld().getAvatar();
+		this.terrain = this.simulation.getWorld().getTerrain();
+		this.chunkWidth = ( int ) HeadlessSimulation.WINDOW_DIMENSIONS.x();
+		this.travelX = this.avatar.getTopLeftCorner().x();
+		
+		this.cloudCover = Weather.addCover(this.simulation.getGameObjects(), HeadlessSimulation.WINDOW_DIMENSIONS,
+				SoakTest.CLOUD_MOVEMENT_TIME, SoakTest.RAINDROP_DURATION, SoakTest.CLOUD_LAYER,
+				SoakTest.RAINDROP_LAYER, SoakTest.LEG_QUALITIES[0].getCloudCount());
+		this.applyQuality(SoakTest.LEG_QUALITIES[0]);
+		this.avatar.addJumpListener(this.cloudCover);
+		this.simulation.getWorld().addChunkListener(new ChunkListener() {
+			@Override
+			public void onChunkLoaded(int chunkIndex,
+			                          Map< ObjectKind, List< GameObject > > objectsByKind,
+			                          long nanos) {
+				SoakTest.this.recordChunkSize(objectsByKind);
+			}
+		});
+	}
+	
+	/**
+	 * Entry point.
+	 */
+	public static void main(String[] args) {
+		int chunksPerLeg = SoakTest.DEFAULT_CHUNKS_PER_LEG;
+		int sampleEvery = SoakTest.DEFAULT_SAMPLE_EVERY_CHUNKS;
+		int seed = SoakTest.DEFAULT_SEED;
+		for ( int i = 0; i + 1 < args.length; i += 2 ) {
+			switch ( args[i] ) {
+				case "--chunks" -> chunksPerLeg = Integer.parseInt(args[i + 1]);
+				case "--sample-every" -> sampleEvery = Integer.parseInt(args[i + 1]);
+				case "--seed" -> seed = Integer.parseInt(args[i + 1]);
+				default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		
+		final boolean passed = new SoakTest(seed).run(chunksPerLeg, sampleEvery);
+		System.out.println(passed ? "SOAK PASSED" : "SOAK FAILED: world objects retained after unload");
+		System.exit(passed ? 0 : 1);
+	}
+	
+	/**
+	 * Travels right, left past the origin and back home, sampling the heap along the way.
+	 *
+	 * @param chunksPerLeg Chunks travelled right first; the way back is twice as long
+	 * @param sampleEvery  Chunks between heap histograms
+	 * @return True if no sample exceeded its bound
+	 */
+	public boolean run(int chunksPerLeg, int sampleEvery) {
+		for ( int i = 0; i < SoakTest.SETTLE_FRAMES; i++ ) {
+			this.placeAvatar();
+			this.simulation.step();
+		}
+		this.baselineRetained = this.retainedCounts();
+		System.out.printf("%8s %7s %9s  %s%n", "chunks", "at", "heap MB", "class: in game + retained (bound)");
+		this.printSample(0, this.baselineRetained);
+		
+		final int[] legs = { chunksPerLeg, - 2 * chunksPerLeg, chunksPerLeg };
+		int travelled = 0;
+		for ( int i = 0; i < legs.length; i++ ) {
+			this.applyQuality(SoakTest.LEG_QUALITIES[i]);
+			travelled = this.travel(travelled, legs[i], sampleEvery);
+		}
+		return ! this.failed;
+	}
+	
+	private int travel(int travelled, int chunks, int sampleEvery) {
+		final float direction = Math.signum(chunks);
+		final float legStartX = this.travelX;
+		final float targetX = legStartX + chunks * this.chunkWidth;
+		int nextSample = ( travelled / sampleEvery + 1 ) * sampleEvery;
+		while ( direction > 0 ? this.travelX < targetX : this.travelX > targetX ) {
+			this.travelX += direction * SoakTest.TRAVEL_PER_FRAME;
+			this.placeAvatar();
+			this.simulation.step();
+			
+			final int travelledNow = travelled + ( int ) ( Math.abs(this.travelX - legStartX) / this.chunkWidth );
+			if (travelledNow >= nextSample) {
+				this.printSample(travelledNow, this.retainedCounts());
+				nextSample += sampleEvery;
+			}
+		}
+		return travelled + Math.abs(chunks);
+	}
+	
+	/**
+	 * Puts a quality level's weather into effect, as the game does.
+	 */
+	private void applyQuality(QualityLevel level) {
+		this.cloudCover.setMaxRaindrops(level.getMaxRaindrops());
+		this.cloudCover.setCloudCount(level.getCloudCount());
+	}
+	
+	/**
+	 * Puts the avatar on the ground at the travel position, with energy to keep jumping.
+	 */
+	private void placeAvatar() {
+		final Vector2 dimensions = this.avatar.getDimensions();
+		final float groundTop = Math.min(this.terrain.blockTopAt(this.travelX),
+				this.terrain.blockTopAt(this.travelX + dimensions.x() - 1));
+		this.avatar.setTopLeftCorner(new Vector2(this.travelX, groundTop - dimensions.y()));
+		this.avatar.addEnergy(Float.MAX_VALUE);
+	}
+	
+	private void recordChunkSize(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		final Map< String, Integer > counts = new HashMap<>();
+		for ( List< GameObject > group: objectsByKind.values() ) {
+			for ( GameObject obj: group ) {
+				counts.merge(obj.getClass().getName(), 1, Integer :: sum);
+			}
+		}
+		counts.forEach((className, count) -> this.maxPerChunk.merge(className, count, Math :: max));
+	}
+	
+	private void printSample(int travelled, Map< String, Integer > retained) {
+		final Map< String, Integer > inGame = this.countInGame();
+		final MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		final StringBuilder line = new StringBuilder(String.format("%8d %7d %9.1f ", travelled,
+				( int ) Math.floor(this.travelX / this.chunkWidth), heap.getUsed() / SoakTest.BYTES_PER_MEGABYTE));
+		for ( String className: SoakTest.TRACKED_CLASSES ) {
+			final int bound = this.retainedBound(className);
+			final int kept = retained.getOrDefault(className, 0);
+			final boolean leaking = kept > bound;
+			this.failed |= leaking;
+			line.append(String.format(" %s: %d + %d (%d)%s", SoakTest.simpleName(className),
+					inGame.getOrDefault(className, 0), kept, bound, leaking ? " LEAK" : ""));
+		}
+		System.out.println(line);
+	}
+	
+	private int retainedBound(String className) {
+		final int baseline = this.baselineRetained.getOrDefault(className, 0);
+		return baseline + Math.max(SoakTest.MIN_SLACK, this.maxPerChunk.getOrDefault(className, 0));
+	}
+	
+	/**
+	 * Live instances of every tracked class minus the ones currently in the game.
+	 */
+	private Map< String, Integer > retainedCounts() {
+		// Apply the engine's pending removals first, or the chunk unloaded this frame counts as retained
+		this.simulation.getGameObjects().update(0);
+		final Map< String, Integer > live = SoakTest.liveInstanceCounts();
+		final Map< String, Integer > inGame = this.countInGame();
+		final Map< String, Integer > retained = new LinkedHashMap<>();
+		for ( String className: SoakTest.TRACKED_CLASSES ) {
+			retained.put(className, live.getOrDefault(className, 0) - inGame.getOrDefault(className, 0));
+		}
+		return retained;
+	}
+	
+	private Map< String, Integer > countInGame() {
+		final Map< String, Integer > counts = new HashMap<>();
+		for ( GameObject obj: this.simulation.getGameObjects() ) {
+			counts.merge(obj.getClass().getName(), 1, Integer :: sum);
+		}
+		return counts;
+	}
+	
+	/**
+	 * Runs {@code GC.class_histogram} (a full GC, then live objects only) and parses the counts.
+	 */
+	private static Map< String, Integer > liveInstanceCounts() {
+		final String histogram;
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			histogram = ( String ) server.invoke(new ObjectName(SoakTest.DIAGNOSTIC_COMMAND),
+					SoakTest.HISTOGRAM_OPERATION, new Object[]{ new String[0] },
+					new String[]{ String[].class.getName() });
+		} catch ( JMException e ) {
+			throw new IllegalStateException("Cannot take a heap histogram", e);
+		}
+		final Map< String, Integer > counts = new HashMap<>();
+		for ( String line: histogram.split("\n") ) {
+			final Matcher matcher = SoakTest.HISTOGRAM_LINE.matcher(line);
+			if (matcher.find()) {
+				counts.put(matcher.group(2), Integer.parseInt(matcher.group(1)));
+			}
+		}
+		return counts;
+	}
+	
+	private static String simpleName(String className) {
+		return className.substring(className.lastIndexOf('.') + 1);
+	}
+}
@@ -0,0 +1,69 @@
+package pepse.util;
+
+/**
+ * Turns variable frame times into a whole number of fixed-length simulation steps.
+ * Frame time is added to an accumulator and every full step in it is run; the remainder carries
+ * over to the next frame, and its fraction of a step is how far rendering should interpolate
+ * between the last two simulated states. A frame may run at most a fixed number of steps: the
+ * whole steps beyond that are dropped, so after a long stall the game slows down for a frame
+ * instead of spending ever longer frames catching up.
+ */
+public class FixedTimestep {
+	private final double stepSeconds;
+	private final int maxStepsPerFrame;
+	private double accumulatedSeconds = 0;
+	private long droppedSteps = 0;
+	
+	/**
+	 * Creates an empty accumulator.
+	 *
+	 * @param stepSeconds      Length of one simulation step
+	 * @param maxStepsPerFrame Most steps one frame may run
+	 * @throws IllegalArgumentException If the step is not positive or the cap is below 1
+	 */
+	public FixedTimestep(float stepSeconds, int maxStepsPerFrame) {
+		if (stepSeconds <= 0 || maxStepsPerFrame < 1) {
+			throw new IllegalArgumentException("Need a positive step and at least one step per frame");
+		}
+		this.stepSeconds = stepSeconds;
+		this.maxStepsPerFrame = maxStepsPerFrame;
+	}
+	
+	/**
+	 * Adds a frame's time and takes the steps it completes.
+	 *
+	 * @param frameSeconds Time since the previous frame
+	 * @return Number of steps to simulate this frame, between 0 and the cap
+	 */
+	public int advance(float frameSeconds) {
+		this.accumulatedSeconds += Math.max(0, frameSeconds);
+		final long steps = ( long ) ( this.accumulatedSeconds / this.stepSeconds );
+		this.accumulatedSeconds -= steps * this.stepSeconds;
+		if (steps > this.maxStepsPerFrame) {
+			this.droppedSteps += steps - this.maxStepsPerFrame;
+			return this.maxStepsPerFrame;
+		}
+		return ( int ) steps;
+	}
+	
+	/**
+	 * @return Length of one step in seconds.
+	 */
+	public float getStepSeconds() {
+		return ( float ) this.stepSeconds;
+	}
+	
+	/**
+	 * @return How far the accumulated time is into the next step, from 0 (inclusive) to 1 (exclusive).
+	 */
+	public float getAlpha() {
+		return ( float ) ( this.accumulatedSeconds / this.stepSeconds );
+	}
+	
+	/**
+	 * @return Steps dropped by the catch-up cap so far.
+	 */
+	public long getDroppedSteps() {
+		return this.droppedSteps;
+	}
+}
@@ -0,0 +1,14 @@
+package pepse.util;
+
+/**
+ * A float-to-float function, the primitive counterpart of {@code Function<Float, Float>}: hot paths
+ * that probe the terrain several times a step use it so no call boxes its argument or result.
+ */
+@FunctionalInterface
+public interface FloatUnaryOperator {
+	/**
+	 * @param value The argument
+	 * @return The result
+	 */
+	float applyAsFloat(float value);
+}
@@ -0,0 +1,159 @@
+package pepse.util;
+
+import java.util.Arrays;
+
+/**
+ * Rolling per-frame timings, split into a few sections.
+ * The last {@code capacity} frames live in preallocated primitive ring buffers (one for the
+ * whole frame, one per section), so recording a frame never allocates.
+ * Time not claimed by any section is booked as {@link Section#OTHER}.
+ */
+public class FrameProfiler {
+	private static final double NANOS_PER_MILLI = 1e6;
+	
+	/**
+	 * Parts of a frame that are timed separately.
+	 */
+	public enum Section {
+		/**
+		 * Generating and attaching chunks.
+		 */
+		CHUNK_LOAD("Chunk load"),
+		/**
+		 * Detaching chunks.
+		 */
+		CHUNK_UNLOAD("Chunk unload"),
+		/**
+		 * The avatar's own update (movement, height field, animation).
+		 */
+		AVATAR_UPDATE("Avatar update"),
+		/**
+		 * Drawing the frame.
+		 */
+		RENDER("Render"),
+		/**
+		 * Everything else: other objects, the engine's flush and collision pass.
+		 */
+		OTHER("Other");
+		
+		private final String label;
+		
+		Section(String label) {
+			this.label = label;
+		}
+		
+		/**
+		 * @return Short human readable name.
+		 */
+		public String getLabel() {
+			return this.label;
+		}
+	}
+	
+	private static final Section[] SECTIONS = Section.values();
+	
+	private final int capacity;
+	private final long[] frameNanos;
+	private final long[][] sectionNanos;
+	// Sections accumulated for the frame in progress
+	private final long[] currentSectionNanos = new long[FrameProfiler.SECTIONS.length];
+	// Reused when computing percentiles
+	private final long[] sortScratch;
+	private int next = 0;
+	private int size = 0;
+	
+	/**
+	 * Creates a profiler.
+	 *
+	 * @param capacity Number of frames kept
+	 */
+	public FrameProfiler(int capacity) {
+		this.capacity = capacity;
+		this.frameNanos = new long[capacity];
+		this.sectionNanos = new long[FrameProfiler.SECTIONS.length][capacity];
+		this.sortScratch = new long[capacity];
+	}
+	
+	/**
+	 * Books time to a section of the frame in progress. May be called several times per frame.
+	 *
+	 * @param section The section
+	 * @param nanos   Elapsed time
+	 */
+	public void add(Section section, long nanos) {
+		this.currentSectionNanos[section.ordinal()] += nanos;
+	}
+	
+	/**
+	 * Closes the frame in progress, overwriting the oldest recorded frame once full.
+	 *
+	 * @param totalNanos Duration of the whole frame
+	 */
+	public void endFrame(long totalNanos) {
+		long claimed = 0;
+		for ( Section section: FrameProfiler.SECTIONS ) {
+			if (section != Section.OTHER) {
+				claimed += this.currentSectionNanos[section.ordinal()];
+			}
+		}
+		this.currentSectionNanos[Section.OTHER.ordinal()] += Math.max(0, totalNanos - claimed);
+		
+		this.frameNanos[this.next] = totalNanos;
+		for ( int s = 0; s < FrameProfiler.SECTIONS.length; s++ ) {
+			this.sectionNanos[s][this.next] = this.currentSectionNanos[s];
+			this.currentSectionNanos[s] = 0;
+		}
+		this.next = ( this.next + 1 ) % this.capacity;
+		this.size = Math.min(this.size + 1, this.capacity);
+	}
+	
+	/**
+	 * @return Number of recorded frames, at most the capacity.
+	 */
+	public int getFrameCount() {
+		return this.size;
+	}
+	
+	/**
+	 * Nearest-rank percentile of the recorded frame times.
+	 *
+	 * @param percentile Percentile in [0, 100]
+	 * @return Frame time in milliseconds, 0 if nothing was recorded
+	 */
+	public double frameMillisAt(double percentile) {
+		if (this.size == 0) {
+			return 0;
+		}
+		System.arraycopy(this.frameNanos, 0, this.sortScratch, 0, this.size);
+		Arrays.sort(this.sortScratch, 0, this.size);
+		final int rank = ( int ) Math.ceil(percentile / 100 * this.size);
+		return this.sortScratch[Math.min(this.size - 1, Math.max(0, rank - 1))] / FrameProfiler.NANOS_PER_MILLI;
+	}
+	
+	/**
+	 * @param section A section
+	 * @return Mean time per frame spent in the section, in milliseconds
+	 */
+	public double sectionMeanMillis(Section section) {
+		if (this.size == 0) {
+			return 0;
+		}
+		long total = 0;
+		for ( int i = 0; i < this.size; i++ ) {
+			total += this.sectionNanos[section.ordinal()][i];
+		}
+		return total / FrameProfiler.NANOS_PER_MILLI / this.size;
+	}
+	
+	/**
+	 * @param section A section
+	 * @return Longest time a single recorded frame spent in the section, in milliseconds
+	 */
+	public double sectionMaxMillis(Section section) {
+		long max = 0;
+		for ( int i = 0; i < this.size; i++ ) {
+			max = Math.max(max, this.sectionNanos[section.ordinal()][i]);
+		}
+		return max / FrameProfiler.NANOS_PER_MILLI;
+	}
+}
@@ -0,0 +1,255 @@
+package pepse.util;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOInvalidTreeException;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.w3c.dom.NodeList;
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single packed image holding many sprite frames, plus an index of where each frame lives.
+ * The index is stored inside the PNG itself (a tEXt chunk), so loading an atlas is one file read.
+ * Frames are handed out as {@link ImageRenderable}s that share the atlas raster.
+ */
+public final class SpriteAtlas {
+	private static final String PNG_FORMAT = "png";
+	private static final String PNG_METADATA_FORMAT = "javax_imageio_png_1.0";
+	private static final String TEXT_NODE = "tEXt";
+	private static final String TEXT_ENTRY_NODE = "tEXtEntry";
+	private static final String KEYWORD_ATTRIBUTE = "keyword";
+	private static final String VALUE_ATTRIBUTE = "value";
+	private static final String INDEX_KEYWORD = "pepse-atlas-index";
+	private static final String ENTRY_SEPARATOR = ";";
+	private static final String FIELD_SEPARATOR = ",";
+	private static final int FIELDS_PER_ENTRY = 5;
+
+	private final BufferedImage image;
+	private final Map< String, Rectangle > index;
+	private final Map< String, Renderable > frameCache = new LinkedHashMap<>();
+
+	private SpriteAtlas(BufferedImage image, Map< String, Rectangle > index) {
+		this.image = image;
+		this.index = index;
+	}
+
+	/**
+	 * Packs the given image files into one atlas, one shelf (row) per group.
+	 * Frame names in the index are the original file paths.
+	 *
+	 * @param groups Groups of image paths; each group is laid out left to right on its own row
+	 * @return The packed atlas
+	 * @throws UncheckedIOException If a frame cannot be read
+	 */
+	public static SpriteAtlas pack(List< List< String > > groups) {
+		final Map< String, BufferedImage > frames = new LinkedHashMap<>();
+		final Map< String, Rectangle > index = new LinkedHashMap<>();
+		int atlasWidth = 0;
+		int shelfY = 0;
+		for ( List< String > group: groups ) {
+			int shelfX = 0;
+			int shelfHeight = 0;
+			for ( String path: group ) {
+				final BufferedImage frame = SpriteAtlas.readFrame(path);
+				frames.put(path, frame);
+				index.put(path, new Rectangle(shelfX, shelfY, frame.getWidth(), frame.getHeight()));
+				shelfX += frame.getWidth();
+				shelfHeight = Math.max(shelfHeight, frame.getHeight());
+			}
+			atlasWidth = Math.max(atlasWidth, shelfX);
+			shelfY += shelfHeight;
+		}
+
+		final BufferedImage atlasImage = new BufferedImage(atlasWidth, shelfY, BufferedImage.TYPE_4BYTE_ABGR);
+		final Graphics2D graphics = atlasImage.createGraphics();
+		// Copy pixels verbatim; blending onto the empty atlas would round semi-transparent edges
+		graphics.setComposite(AlphaComposite.Src);
+		for ( Map.Entry< String, BufferedImage > frame: frames.entrySet() ) {
+			final Rectangle bounds = index.get(frame.getKey());
+			graphics.drawImage(frame.getValue(), bounds.x, bounds.y, null);
+		}
+		graphics.dispose();
+		return new SpriteAtlas(atlasImage, index);
+	}
+
+	/**
+	 * Reads an atlas previously written by {@link #write(String)}.
+	 *
+	 * @param path Path of the atlas PNG
+	 * @return The loaded atlas
+	 * @throws UncheckedIOException If the file is missing, unreadable or carries no index
+	 */
+	public static SpriteAtlas read(String path) {
+		try ( ImageInputStream input = ImageIO.createImageInputStream(new File(path)) ) {
+			if (input == null) {
+				throw new IOException("Cannot open atlas " + path);
+			}
+			final Iterator< ImageReader > readers = ImageIO.getImageReaders(input);
+			if (! readers.hasNext()) {
+				throw new IOException("No image reader for atlas " + path);
+			}
+			final ImageReader reader = readers.next();
+			try {
+				reader.setInput(input);
+				final BufferedImage atlasImage = reader.read(0);
+				final String encodedIndex = SpriteAtlas.findIndexText(reader.getImageMetadata(0));
+				if (encodedIndex == null) {
+					throw new IOException("Atlas " + path + " has no frame index");
+				}
+				return new SpriteAtlas(atlasImage, SpriteAtlas.decodeIndex(encodedIndex));
+			} finally {
+				reader.dispose();
+			}
+		} catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Writes this atlas as a PNG with the frame index embedded.
+	 *
+	 * @param path Destination path
+	 * @throws UncheckedIOException If the file cannot be written
+	 */
+	public void write(String path) {
+		final ImageWriter writer = ImageIO.getImageWritersByFormatName(SpriteAtlas.PNG_FORMAT).next();
+		final ImageWriteParam param = writer.getDefaultWriteParam();
+		final IIOMetadata metadata = writer.getDefaultImageMetadata(
+				ImageTypeSpecifier.createFromRenderedImage(this.image), param);
+		final File file = new File(path);
+		try {
+			this.attachIndex(metadata);
+			file.delete();
+			try ( ImageOutputStream output = ImageIO.createImageOutputStream(file) ) {
+				writer.setOutput(output);
+				writer.write(null, new IIOImage(this.image, null, metadata), param);
+			}
+		} catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	/**
+	 * Returns whether the atlas holds a frame with the given name.
+	 *
+	 * @param name Frame name (original file path)
+	 * @return True if present
+	 */
+	public boolean contains(String name) {
+		return this.index.containsKey(name);
+	}
+
+	/**
+	 * Slices the named frames out of the atlas. Slices are cached, so repeated calls
+	 * return the same renderables and never copy pixels.
+	 *
+	 * @param names Frame names (original file paths)
+	 * @return One renderable per name, in order
+	 * @throws IllegalArgumentException If a name is not in the index
+	 */
+	public Renderable[] frames(String... names) {
+		final Renderable[] result = new Renderable[names.length];
+		for ( int i = 0; i < names.length; i++ ) {
+			result[i] = this.frameCache.computeIfAbsent(names[i], this :: sliceFrame);
+		}
+		return result;
+	}
+
+	private Renderable sliceFrame(String name) {
+		final Rectangle bounds = this.index.get(name);
+		if (bounds == null) {
+			throw new IllegalArgumentException("Frame not in atlas: " + name);
+		}
+		return new ImageRenderable(this.image.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height));
+	}
+
+	private static BufferedImage readFrame(String path) {
+		try {
+			final BufferedImage frame = ImageIO.read(new File(path));
+			if (frame == null) {
+				throw new IOException("Unsupported image " + path);
+			}
+			return frame;
+		} catch ( IOException e ) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void attachIndex(IIOMetadata metadata) throws IIOInvalidTreeException {
+		final IIOMetadataNode entry = new IIOMetadataNode(SpriteAtlas.TEXT_ENTRY_NODE);
+		entry.setAttribute(SpriteAtlas.KEYWORD_ATTRIBUTE, SpriteAtlas.INDEX_KEYWORD);
+		entry.setAttribute(SpriteAtlas.VALUE_ATTRIBUTE, SpriteAtlas.encodeIndex(this.index));
+		final IIOMetadataNode text = new IIOMetadataNode(SpriteAtlas.TEXT_NODE);
+		text.appendChild(entry);
+		final IIOMetadataNode root = new IIOMetadataNode(SpriteAtlas.PNG_METADATA_FORMAT);
+		root.appendChild(text);
+		metadata.mergeTree(SpriteAtlas.PNG_METADATA_FORMAT, root);
+	}
+
+	private static String findIndexText(IIOMetadata metadata) {
+		final IIOMetadataNode root = ( IIOMetadataNode ) metadata.getAsTree(SpriteAtlas.PNG_METADATA_FORMAT);
+		final NodeList entries = root.getElementsByTagName(SpriteAtlas.TEXT_ENTRY_NODE);
+		for ( int i = 0; i < entries.getLength(); i++ ) {
+			final IIOMetadataNode entry = ( IIOMetadataNode ) entries.item(i);
+			if (SpriteAtlas.INDEX_KEYWORD.equals(entry.getAttribute(SpriteAtlas.KEYWORD_ATTRIBUTE))) {
+				return entry.getAttribute(SpriteAtlas.VALUE_ATTRIBUTE);
+			}
+		}
+		return null;
+	}
+
+	private static String encodeIndex(Map< String, Rectangle > index) {
+		final StringBuilder builder = new StringBuilder();
+		for ( Map.Entry< String, Rectangle > entry: index.entrySet() ) {
+			final Rectangle r = entry.getValue();
+			if (builder.length() > 0) {
+				builder.append(SpriteAtlas.ENTRY_SEPARATOR);
+			}
+			builder.append(entry.getKey()).append(SpriteAtlas.FIELD_SEPARATOR)
+					.append(r.x).append(SpriteAtlas.FIELD_SEPARATOR)
+					.append(r.y).append(SpriteAtlas.FIELD_SEPARATOR)
+					.append(r.width).append(SpriteAtlas.FIELD_SEPARATOR)
+					.append(r.height);
+		}
+		return builder.toString();
+	}
+
+	private static Map< String, Rectangle > decodeIndex(String encoded) throws IOException {
+		final Map< String, Rectangle > index = new LinkedHashMap<>();
+		for ( String entry: encoded.split(SpriteAtlas.ENTRY_SEPARATOR) ) {
+			final String[] fields = entry.split(SpriteAtlas.FIELD_SEPARATOR);
+			if (fields.length != SpriteAtlas.FIELDS_PER_ENTRY) {
+				throw new IOException("Malformed atlas index entry: " + entry);
+			}
+			try {
+				index.put(fields[0], new Rectangle(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]),
+						Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+			} catch ( NumberFormatException e ) {
+				throw new IOException("Malformed atlas index entry: " + entry, e);
+			}
+		}
+		return index;
+	}
+}
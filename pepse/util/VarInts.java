@@ -0,0 +1,77 @@
+package pepse.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 varints, the building block of the game's compact binary files: seven bits per byte,
+ * low bits first, the high bit set on every byte but the last. Signed values are zigzag-encoded
+ * first, so small magnitudes of either sign take one byte.
+ */
+public final class VarInts {
+	private static final int PAYLOAD_BITS = 7;
+	private static final int PAYLOAD_MASK = 0x7F;
+	private static final int CONTINUATION = 0x80;
+	private static final int MAX_SHIFT = 63;
+	
+	private VarInts() {
+	}
+	
+	/**
+	 * Writes an unsigned varint.
+	 *
+	 * @param out   Destination
+	 * @param value Value, treated as unsigned
+	 */
+	public static void write(ByteArrayOutputStream out, long value) {
+		while ( ( value & ~ ( long ) VarInts.PAYLOAD_MASK ) != 0 ) {
+			out.write(( int ) ( value & VarInts.PAYLOAD_MASK ) | VarInts.CONTINUATION);
+			value >>>= VarInts.PAYLOAD_BITS;
+		}
+		out.write(( int ) value);
+	}
+	
+	/**
+	 * Writes a zigzag-encoded signed varint.
+	 *
+	 * @param out   Destination
+	 * @param value Value
+	 */
+	public static void writeSigned(ByteArrayOutputStream out, long value) {
+		VarInts.write(out, ( value << 1 ) ^ ( value >> VarInts.MAX_SHIFT ));
+	}
+	
+	/**
+	 * Reads an unsigned varint.
+	 *
+	 * @param in Source, advanced past the varint
+	 * @return The value
+	 * @throws IOException                        If the varint is longer than 64 bits
+	 * @throws java.nio.BufferUnderflowException If the source ends inside the varint
+	 */
+	public static long read(ByteBuffer in) throws IOException {
+		long value = 0;
+		for ( int shift = 0; shift <= VarInts.MAX_SHIFT; shift += VarInts.PAYLOAD_BITS ) {
+			final int b = in.get();
+			value |= ( long ) ( b & VarInts.PAYLOAD_MASK ) << shift;
+			if (( b & VarInts.CONTINUATION ) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed varint");
+	}
+	
+	/**
+	 * Reads a zigzag-encoded signed varint.
+	 *
+	 * @param in Source, advanced past the varint
+	 * @return The value
+	 * @throws IOException                        If the varint is longer than 64 bits
+	 * @throws java.nio.BufferUnderflowException If the source ends inside the varint
+	 */
+	public static long readSigned(ByteBuffer in) throws IOException {
+		final long value = VarInts.read(in);
+		return ( value >>> 1 ) ^ - ( value & 1 );
+	}
+}
@@ -2,15 +2,16 @@ package pepse.world;
 
 import danogl.GameObject;
 import danogl.collisions.Collision;
-import danogl.gui.ImageReader;
 import danogl.gui.UserInputListener;
 import danogl.gui.rendering.AnimationRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.FloatUnaryOperator;
 
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * Player's avatar with movement, energy management and collision handling capabilities.
@@ -25,34 +26,14 @@ public class Avatar extends GameObject {
 	private static final float ENERGY_GAIN_IDLE = 1.0f;
 	private static final float ENERGY_LOSS_RUN = 0.5f;
 	private static final float ENERGY_LOSS_JUMP = 10.0f;
-	private static final float MAX_ENERGY = 100.0f;
+	/**
+	 * Energy of a fresh avatar, and the most it can hold.
+	 */
+	public static final float MAX_ENERGY = 100.0f;
 	private static final float MIN_ENERGY = 0.0f;
 	
 	private static final Vector2 DEFAULT_AVATAR_DIMENSIONS = new Vector2(29.0f, 59.0f);
 	
-	// Idle animation uses 12 frames (example)
-	private static final String[] IDLE_FRAMES = { "assets/Idle-hero01_001.png", "assets/Idle-hero01_002.png",
-			"assets/Idle-hero01_003.png", "assets/Idle-hero01_004.png", "assets/Idle-hero01_005.png",
-			"assets/Idle-hero01_006.png", "assets/Idle-hero01_007.png", "assets/Idle-hero01_008.png",
-			"assets/Idle-hero01_009.png", "assets/Idle-hero01_010.png", "assets/Idle-hero01_011.png",
-			"assets/Idle-hero01_012.png" };
-	// Run animation uses 7 frames
-	private static final String[] RUN_FRAMES = { "assets/Run-hero01_001.png", "assets/Run-hero01_002.png",
-			"assets/Run-hero01_003.png", "assets/Run-hero01_004.png", "assets/Run-hero01_005.png",
-			"assets/Run-hero01_006.png", "assets/Run-hero01_007.png" };
-	// Jump animation uses 9 frames
-	private static final String[] JUMP_FRAMES = { "assets/Jump-hero01_001.png", "assets/Jump-hero01_002.png",
-			"assets/Jump-hero01_003.png", "assets/Jump-hero01_004.png", "assets/Jump-hero01_005.png",
-			"assets/Jump-hero01_006.png", "assets/Jump-hero01_007.png", "assets/Jump-hero01_008.png",
-			"assets/Jump-hero01_009.png" };
-	
-	private static final double IDLE_FRAME_DURATION = 0.08;
-	private static final double RUN_FRAME_DURATION = 0.10;
-	private static final double JUMP_FRAME_DURATION = 0.125;
-	
-	private static final String GROUND_TAG = "ground";
-	private static final String TRUNK_TAG = "trunk";
-	
 	// Key constants
 	private static final int MOVE_LEFT = KeyEvent.VK_LEFT;
 	private static final int MOVE_RIGHT = KeyEvent.VK_RIGHT;
@@ -60,11 +41,16 @@ public class Avatar extends GameObject {
 	
 	private static final String AVATAR_TAG = "avatar";
 	private static final double EPSILON = 1.0e-6;
+	// Slack so feet resting exactly on a column top are not treated as hitting a wall
+	private static final float HEIGHT_FIELD_TOLERANCE = 0.5f;
 	
 	private final UserInputListener inputListener;
 	private final List< JumpListener > jumpListeners = new ArrayList<>();
 	private int groundContacts = 0;
 	private boolean onGround = true;
+	private FloatUnaryOperator groundTopFunction;
+	private boolean onHeightField = false;
+	private LongConsumer updateTimeListener;
 	private float energy;
 	
 	// Renderables for the three states
@@ -78,9 +64,8 @@ public class Avatar extends GameObject {
 	 *
 	 * @param topLeftCorner Initial position
 	 * @param inputListener Keyboard input handler
-	 * @param imageReader   Loads animation frames
 	 */
-	public Avatar(Vector2 topLeftCorner, UserInputListener inputListener, ImageReader imageReader) {
+	public Avatar(Vector2 topLeftCorner, UserInputListener inputListener) {
 		super(topLeftCorner, Avatar.DEFAULT_AVATAR_DIMENSIONS, null);
 		this.inputListener = inputListener;
 		this.energy = Avatar.MAX_ENERGY;
@@ -92,7 +77,7 @@ public class Avatar extends GameObject {
 		this.transform().setAccelerationY(Avatar.GRAVITY);
 		
 		// Initialize animations
-		this.initAnimations(imageReader);
+		this.initAnimations(AvatarAnimations.shared());
 		this.renderer().setRenderable(this.idleRenderable);
 		this.currentState = AvatarState.IDLE;
 	}
@@ -115,6 +100,25 @@ public class Avatar extends GameObject {
 		this.jumpListeners.remove(listener);
 	}
 	
+	/**
+	 * Switches terrain contact to {@link GroundContactMode#HEIGHT_FIELD}: the avatar is kept on
+	 * top of the terrain analytically instead of through collisions with ground blocks.
+	 *
+	 * @param groundTopFunction Top y of the terrain column containing a given x
+	 */
+	public void setGroundHeightField(FloatUnaryOperator groundTopFunction) {
+		this.groundTopFunction = groundTopFunction;
+	}
+	
+	/**
+	 * Sets a callback receiving how long each {@link #update(float)} took, for profiling.
+	 *
+	 * @param updateTimeListener Receives the update duration in nanoseconds; null to stop
+	 */
+	public void setUpdateTimeListener(LongConsumer updateTimeListener) {
+		this.updateTimeListener = updateTimeListener;
+	}
+	
 	/**
 	 * Gets current energy level.
 	 *
@@ -133,6 +137,15 @@ public class Avatar extends GameObject {
 		this.energy = Math.min(Avatar.MAX_ENERGY, this.energy + amount);
 	}
 	
+	/**
+	 * Sets the energy level, clamped to [MIN_ENERGY, MAX_ENERGY].
+	 *
+	 * @param energy The new level.
+	 */
+	public void setEnergyLevel(float energy) {
+		this.energy = Math.max(Avatar.MIN_ENERGY, Math.min(Avatar.MAX_ENERGY, energy));
+	}
+	
 	/**
 	 * Reduces the avatar's energy.
 	 */
@@ -142,11 +155,21 @@ public class Avatar extends GameObject {
 	
 	@Override
 	public void update(float deltaTime) {
+		final long start = System.nanoTime();
+		// Copied as scalars: the engine hands out its live position vector
+		final float previousX = this.getTopLeftCorner().x();
+		final float previousY = this.getTopLeftCorner().y();
 		super.update(deltaTime);
+		if (this.groundTopFunction != null) {
+			this.resolveHeightField(previousX, previousY);
+		}
 		this.handleHorizontalMovement(deltaTime);
 		this.handleJump();
 		this.handleIdleEnergyGain(deltaTime);
 		this.handleAnimation();
+		if (this.updateTimeListener != null) {
+			this.updateTimeListener.accept(System.nanoTime() - start);
+		}
 	}
 	
 	/**
@@ -158,11 +181,10 @@ public class Avatar extends GameObject {
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
 		super.onCollisionEnter(other, collision);
-		if (( Avatar.GROUND_TAG.equals(other.getTag()) || Avatar.TRUNK_TAG.equals(other.getTag()) ) &&
-				    ( collision.getNormal().y() < 0 )) {
+		if (ObjectKind.of(other).supportsAvatar() && ( collision.getNormal().y() < 0 )) {
 			
 			this.groundContacts++;
-			this.onGround = this.groundContacts > 0;
+			this.updateOnGround();
 			
 			// Reset vertical velocity to prevent sinking into the ground
 			this.transform().setVelocityY(0);
@@ -178,25 +200,75 @@ public class Avatar extends GameObject {
 	@Override
 	public void onCollisionExit(GameObject other) {
 		super.onCollisionExit(other);
-		if (Avatar.GROUND_TAG.equals(other.getTag()) || Avatar.TRUNK_TAG.equals(other.getTag())) {
+		if (ObjectKind.of(other).supportsAvatar()) {
 			this.groundContacts--;
 			if (this.groundContacts < 0) {
 				this.groundContacts = 0;
 			}
-			this.onGround = ( this.groundContacts > 0 );
+			this.updateOnGround();
+		}
+	}
+	
+	private void updateOnGround() {
+		this.onGround = this.groundContacts > 0 || this.onHeightField;
+	}
+	
+	/**
+	 * Resolves the avatar against the terrain height field after the engine moved it.
+	 * Columns rising above the avatar's feet act as walls; otherwise the avatar is
+	 * snapped onto the highest column under its footprint. Costs a handful of cached
+	 * column lookups per frame, regardless of how many blocks are loaded.
+	 */
+	private void resolveHeightField(float previousX, float previousY) {
+		final Vector2 dimensions = this.getDimensions();
+		final float previousBottom = previousY + dimensions.y();
+		float left = this.getTopLeftCorner().x();
+		
+		// 1) Horizontal: stop at a column edge when the leading column is taller than the feet
+		final float dx = left - previousX;
+		if (dx > 0) {
+			final float leadingX = left + dimensions.x() - Avatar.HEIGHT_FIELD_TOLERANCE;
+			if (this.isWall(leadingX, previousBottom) &&
+					    ! this.isWall(previousX + dimensions.x() - Avatar.HEIGHT_FIELD_TOLERANCE,
+							    previousBottom)) {
+				left = ( float ) Math.floor(leadingX / Block.SIZE) * Block.SIZE - dimensions.x();
+			}
+		} else if (dx < 0) {
+			final float leadingX = left + Avatar.HEIGHT_FIELD_TOLERANCE;
+			if (this.isWall(leadingX, previousBottom) &&
+					    ! this.isWall(previousX + Avatar.HEIGHT_FIELD_TOLERANCE, previousBottom)) {
+				left = ( float ) ( Math.floor(leadingX / Block.SIZE) + 1 ) * Block.SIZE;
+			}
 		}
+		
+		// 2) Vertical: land on the highest column under the footprint
+		// (the avatar is narrower than a block, so its feet span at most two columns)
+		final float groundTop = Math.min(
+				this.groundTopFunction.applyAsFloat(left + Avatar.HEIGHT_FIELD_TOLERANCE),
+				this.groundTopFunction.applyAsFloat(left + dimensions.x() - Avatar.HEIGHT_FIELD_TOLERANCE));
+		final float bottom = this.getTopLeftCorner().y() + dimensions.y();
+		this.onHeightField = bottom >= groundTop - Avatar.HEIGHT_FIELD_TOLERANCE &&
+				                     this.getVelocity().y() >= 0;
+		if (this.onHeightField) {
+			this.transform().setTopLeftCorner(left, groundTop - dimensions.y());
+			this.transform().setVelocityY(0);
+		} else if (left != this.getTopLeftCorner().x()) {
+			this.transform().setTopLeftCornerX(left);
+		}
+		this.updateOnGround();
+	}
+	
+	private boolean isWall(float x, float feetY) {
+		return this.groundTopFunction.applyAsFloat(x) < feetY - Avatar.HEIGHT_FIELD_TOLERANCE;
 	}
 	
 	/**
-	 * Initializes the animations using paths.
+	 * Initializes this avatar's animations over the shared atlas frames.
 	 */
-	private void initAnimations(ImageReader imageReader) {
-		this.idleRenderable = new AnimationRenderable(Avatar.IDLE_FRAMES, imageReader, true,
-				Avatar.IDLE_FRAME_DURATION);
-		this.runRenderable = new AnimationRenderable(Avatar.RUN_FRAMES, imageReader, true,
-				Avatar.RUN_FRAME_DURATION);
-		this.jumpRenderable = new AnimationRenderable(Avatar.JUMP_FRAMES, imageReader, true,
-				Avatar.JUMP_FRAME_DURATION);
+	private void initAnimations(AvatarAnimations animations) {
+		this.idleRenderable = animations.createIdle();
+		this.runRenderable = animations.createRun();
+		this.jumpRenderable = animations.createJump();
 	}
 	
 	private void handleHorizontalMovement(float deltaTime) {
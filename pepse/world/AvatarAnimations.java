@@ -0,0 +1,130 @@
+package pepse.world;
+
+import danogl.gui.rendering.AnimationRenderable;
+import danogl.gui.rendering.Renderable;
+import pepse.util.SpriteAtlas;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Shared avatar animation frames, sliced from a single sprite atlas.
+ * The atlas is read once per process; every avatar built afterwards reuses the same frames
+ * and only gets its own {@link AnimationRenderable} playback state.
+ * <p>
+ * If the atlas is missing, or lacks one of the frames listed here, it is packed from the
+ * individual frame files and written next to them, so later runs take the one-read path.
+ * Edits to existing frame files are not detected (that would mean reading every frame again);
+ * repack after editing them with {@code make atlas}.
+ */
+public final class AvatarAnimations {
+	/**
+	 * Path of the packed avatar atlas.
+	 */
+	public static final String ATLAS_PATH = "assets/avatar-atlas.png";
+
+	// Idle animation uses 12 frames (example)
+	private static final String[] IDLE_FRAMES = { "assets/Idle-hero01_001.png", "assets/Idle-hero01_002.png",
+			"assets/Idle-hero01_003.png", "assets/Idle-hero01_004.png", "assets/Idle-hero01_005.png",
+			"assets/Idle-hero01_006.png", "assets/Idle-hero01_007.png", "assets/Idle-hero01_008.png",
+			"assets/Idle-hero01_009.png", "assets/Idle-hero01_010.png", "assets/Idle-hero01_011.png",
+			"assets/Idle-hero01_012.png" };
+	// Run animation uses 7 frames
+	private static final String[] RUN_FRAMES = { "assets/Run-hero01_001.png", "assets/Run-hero01_002.png",
+			"assets/Run-hero01_003.png", "assets/Run-hero01_004.png", "assets/Run-hero01_005.png",
+			"assets/Run-hero01_006.png", "assets/Run-hero01_007.png" };
+	// Jump animation uses 9 frames
+	private static final String[] JUMP_FRAMES = { "assets/Jump-hero01_001.png", "assets/Jump-hero01_002.png",
+			"assets/Jump-hero01_003.png", "assets/Jump-hero01_004.png", "assets/Jump-hero01_005.png",
+			"assets/Jump-hero01_006.png", "assets/Jump-hero01_007.png", "assets/Jump-hero01_008.png",
+			"assets/Jump-hero01_009.png" };
+
+	private static final double IDLE_FRAME_DURATION = 0.08;
+	private static final double RUN_FRAME_DURATION = 0.10;
+	private static final double JUMP_FRAME_DURATION = 0.125;
+
+	private static AvatarAnimations shared;
+
+	private final Renderable[] idleFrames;
+	private final Renderable[] runFrames;
+	private final Renderable[] jumpFrames;
+
+	private AvatarAnimations(SpriteAtlas atlas) {
+		this.idleFrames = atlas.frames(AvatarAnimations.IDLE_FRAMES);
+		this.runFrames = atlas.frames(AvatarAnimations.RUN_FRAMES);
+		this.jumpFrames = atlas.frames(AvatarAnimations.JUMP_FRAMES);
+	}
+
+	/**
+	 * Returns the process-wide animation frames, loading the atlas on first use.
+	 *
+	 * @return The shared frames
+	 */
+	public static synchronized AvatarAnimations shared() {
+		if (AvatarAnimations.shared == null) {
+			AvatarAnimations.shared = new AvatarAnimations(AvatarAnimations.loadAtlas());
+		}
+		return AvatarAnimations.shared;
+	}
+
+	/**
+	 * Build step: packs the avatar frames into {@link #ATLAS_PATH}.
+	 */
+	public static void main(String[] args) {
+		AvatarAnimations.packAtlas().write(AvatarAnimations.ATLAS_PATH);
+		System.out.println("Wrote " + AvatarAnimations.ATLAS_PATH);
+	}
+
+	/**
+	 * @return A new idle animation over the shared frames.
+	 */
+	AnimationRenderable createIdle() {
+		return new AnimationRenderable(this.idleFrames, AvatarAnimations.IDLE_FRAME_DURATION);
+	}
+
+	/**
+	 * @return A new run animation over the shared frames.
+	 */
+	AnimationRenderable createRun() {
+		return new AnimationRenderable(this.runFrames, AvatarAnimations.RUN_FRAME_DURATION);
+	}
+
+	/**
+	 * @return A new jump animation over the shared frames.
+	 */
+	AnimationRenderable createJump() {
+		return new AnimationRenderable(this.jumpFrames, AvatarAnimations.JUMP_FRAME_DURATION);
+	}
+
+	private static SpriteAtlas loadAtlas() {
+		if (new File(AvatarAnimations.ATLAS_PATH).isFile()) {
+			final SpriteAtlas atlas = SpriteAtlas.read(AvatarAnimations.ATLAS_PATH);
+			if (AvatarAnimations.containsAllFrames(atlas)) {
+				return atlas;
+			}
+		}
+		// First run (or an atlas without some frame): pack once and keep it for the next start
+		final SpriteAtlas atlas = AvatarAnimations.packAtlas();
+		atlas.write(AvatarAnimations.ATLAS_PATH);
+		return atlas;
+	}
+
+	private static SpriteAtlas packAtlas() {
+		return SpriteAtlas.pack(List.of(
+				List.of(AvatarAnimations.IDLE_FRAMES),
+				List.of(AvatarAnimations.RUN_FRAMES),
+				List.of(AvatarAnimations.JUMP_FRAMES)));
+	}
+
+	private static boolean containsAllFrames(SpriteAtlas atlas) {
+		for ( String[] frames: List.of(AvatarAnimations.IDLE_FRAMES, AvatarAnimations.RUN_FRAMES,
+				AvatarAnimations.JUMP_FRAMES) ) {
+			for ( String frame: frames ) {
+				if (! atlas.contains(frame)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+}
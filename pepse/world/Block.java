@@ -21,6 +21,8 @@ public class Block extends GameObject {
 	 */
 	private static final String TAG_BLOCK = "block";
 	
+	private final ObjectKind kind;
+	
 	/**
 	 * Creates a new block with specified position and appearance.
 	 *
@@ -28,9 +30,28 @@ public class Block extends GameObject {
 	 * @param renderable    Visual representation of the block
 	 */
 	public Block(Vector2 topLeftCorner, Renderable renderable) {
+		this(topLeftCorner, renderable, ObjectKind.BLOCK);
+	}
+	
+	/**
+	 * Creates a new block of a specific kind.
+	 *
+	 * @param topLeftCorner Starting position of the block
+	 * @param renderable    Visual representation of the block
+	 * @param kind          What this block is in the world
+	 */
+	public Block(Vector2 topLeftCorner, Renderable renderable, ObjectKind kind) {
 		super(topLeftCorner, Vector2.ONES.mult(Block.SIZE), renderable);
 		this.physics().preventIntersectionsFromDirection(Vector2.ZERO);
 		this.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
 		this.setTag(Block.TAG_BLOCK);
+		this.kind = kind;
+	}
+	
+	/**
+	 * @return What this block is in the world.
+	 */
+	public ObjectKind getKind() {
+		return this.kind;
 	}
 }
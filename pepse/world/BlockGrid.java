@@ -0,0 +1,310 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The ground of one loaded chunk as a dense grid of byte material ids, column-major, with the
+ * block object materialized for every solid cell.
+ * The grid is the source of truth: an edit changes a cell and marks its column dirty, and
+ * {@link #rebuildDirtyColumns} then replaces the blocks of the dirty columns only.
+ * The grid spans the chunk's columns and, vertically, from a few rows above its highest column
+ * top down to the bottom of its deepest column.
+ * <p>
+ * Vertically the world is cut into sections of {@link #SECTION_ROWS} rows, so a chunk and a
+ * section form a 2D chunk. Only the cells of the resident sections have block objects; the rest
+ * of the grid is kept as material bytes, which is all that height queries and edits need.
+ */
+public class BlockGrid {
+	/**
+	 * Empty cell.
+	 */
+	public static final byte AIR = 0;
+	/**
+	 * Ground block.
+	 */
+	public static final byte GROUND = 1;
+	/**
+	 * Rows per vertical section, the unit of vertical streaming. Sections are aligned to world
+	 * rows, so section {@code s} holds the rows {@code [s * SECTION_ROWS, (s + 1) * SECTION_ROWS)}.
+	 */
+	static final int SECTION_ROWS = 8;
+	
+	// Rows kept above the highest column top, so blocks can be placed on the surface
+	private static final int HEADROOM_ROWS = 4;
+	
+	private final int chunkIndex;
+	private final int firstColumnX;
+	private final int firstRow;
+	private final int columnCount;
+	private final int rowCount;
+	// Column-major: the cells of column i are [i * rowCount, (i + 1) * rowCount), top cell first
+	private final byte[] materials;
+	private final int[] colors;
+	private final Block[] blocks;
+	// Row of each column's highest solid cell, or rowCount if the column is empty; kept up to date
+	// by every material change so height queries are a lookup
+	private final int[] topRows;
+	private final BitSet dirtyColumns = new BitSet();
+	// Grid rows [residentStartRow, residentEndRow) belong to resident sections
+	private int residentStartRow = 0;
+	private int residentEndRow = 0;
+	
+	private BlockGrid(int chunkIndex, int firstColumnX, int firstRow, int columnCount, int rowCount) {
+		this.chunkIndex = chunkIndex;
+		this.firstColumnX = firstColumnX;
+		this.firstRow = firstRow;
+		this.columnCount = columnCount;
+		this.rowCount = rowCount;
+		this.materials = new byte[columnCount * rowCount];
+		this.colors = new int[columnCount * rowCount];
+		this.blocks = new Block[columnCount * rowCount];
+		this.topRows = new int[columnCount];
+		Arrays.fill(this.topRows, rowCount);
+	}
+	
+	/**
+	 * Fills a grid from a chunk's ground layout. No blocks are materialized yet.
+	 *
+	 * @param chunkIndex The chunk
+	 * @param layout     The chunk's ground
+	 * @return The grid
+	 */
+	static BlockGrid fromLayout(int chunkIndex, GroundLayout layout) {
+		int minTopRow = Integer.MAX_VALUE;
+		int maxTopRow = Integer.MIN_VALUE;
+		for ( int column = 0; column < layout.getColumnCount(); column++ ) {
+			final int topRow = BlockGrid.rowOf(layout.getColumnTop(column));
+			minTopRow = Math.min(minTopRow, topRow);
+			maxTopRow = Math.max(maxTopRow, topRow);
+		}
+		if (layout.getColumnCount() == 0) {
+			minTopRow = maxTopRow = 0;
+		}
+		final int firstRow = minTopRow - BlockGrid.HEADROOM_ROWS;
+		final BlockGrid grid = new BlockGrid(chunkIndex, layout.getFirstColumnX(), firstRow, layout.getColumnCount(),
+				maxTopRow + layout.getDepth() - firstRow);
+		for ( int column = 0; column < layout.getColumnCount(); column++ ) {
+			final int topRow = BlockGrid.rowOf(layout.getColumnTop(column)) - firstRow;
+			if (layout.getDepth() > 0) {
+				grid.topRows[column] = topRow;
+			}
+			for ( int depth = 0; depth < layout.getDepth(); depth++ ) {
+				final int cell = grid.cellOf(column, topRow + depth);
+				grid.materials[cell] = BlockGrid.GROUND;
+				grid.colors[cell] = layout.getBlockColor(column, depth);
+			}
+		}
+		return grid;
+	}
+	
+	/**
+	 * Makes a range of sections resident and creates the block of every solid cell in them.
+	 * Edits made before this call need no rebuild, so the dirty set is cleared.
+	 *
+	 * @param terrain    Builds the blocks
+	 * @param minSection First resident section
+	 * @param maxSection Last resident section, inclusive
+	 * @return The blocks, column by column from the top
+	 */
+	List< GameObject > materialize(Terrain terrain, int minSection, int maxSection) {
+		this.setResidentRows(minSection, maxSection);
+		final List< GameObject > created = new ArrayList<>();
+		for ( int column = 0; column < this.columnCount; column++ ) {
+			this.materializeColumn(column, terrain, created);
+		}
+		this.dirtyColumns.clear();
+		return created;
+	}
+	
+	/**
+	 * @return The chunk this grid holds the ground of.
+	 */
+	int getChunkIndex() {
+		return this.chunkIndex;
+	}
+	
+	/**
+	 * @return Every block currently materialized, column by column from the top.
+	 */
+	List< GameObject > materializedBlocks() {
+		final List< GameObject > materialized = new ArrayList<>();
+		for ( Block block: this.blocks ) {
+			if (block != null) {
+				materialized.add(block);
+			}
+		}
+		return materialized;
+	}
+	
+	/**
+	 * @param x A world x
+	 * @return True if x lies in one of the grid's columns
+	 */
+	boolean containsX(float x) {
+		final int column = this.columnAt(x);
+		return column >= 0 && column < this.columnCount;
+	}
+	
+	/**
+	 * @param x A world x inside the grid
+	 * @return Top y of the highest solid cell in that column, or the grid's bottom if the column is empty
+	 */
+	float blockTopAt(float x) {
+		return ( float ) ( this.firstRow + this.topRows[this.columnAt(x)] ) * Block.SIZE;
+	}
+	
+	/**
+	 * @param x A world x inside the grid
+	 * @param y A world y
+	 * @return The material of the cell containing (x, y); {@link #AIR} above or below the grid
+	 */
+	byte materialAt(float x, float y) {
+		final int row = BlockGrid.rowOf(y) - this.firstRow;
+		if (row < 0 || row >= this.rowCount) {
+			return BlockGrid.AIR;
+		}
+		return this.materials[this.cellOf(this.columnAt(x), row)];
+	}
+	
+	/**
+	 * Changes the cell containing (x, y) and marks its column dirty.
+	 *
+	 * @param x        A world x inside the grid
+	 * @param y        A world y
+	 * @param material The new material
+	 * @param color    RGB of the new block; ignored for {@link #AIR}
+	 * @return True if the cell changed; false if it already held the material or lies above or below the grid
+	 */
+	boolean setMaterial(float x, float y, byte material, int color) {
+		final int row = BlockGrid.rowOf(y) - this.firstRow;
+		if (row < 0 || row >= this.rowCount) {
+			return false;
+		}
+		final int column = this.columnAt(x);
+		final int cell = this.cellOf(column, row);
+		if (this.materials[cell] == material) {
+			return false;
+		}
+		this.materials[cell] = material;
+		this.colors[cell] = material == BlockGrid.AIR ? 0 : color;
+		this.dirtyColumns.set(column);
+		if (material != BlockGrid.AIR) {
+			this.topRows[column] = Math.min(this.topRows[column], row);
+		} else if (row == this.topRows[column]) {
+			// The top was dug out: the new top is the next solid cell below, if any
+			int top = row + 1;
+			while ( top < this.rowCount && this.materials[this.cellOf(column, top)] == BlockGrid.AIR ) {
+				top++;
+			}
+			this.topRows[column] = top;
+		}
+		return true;
+	}
+	
+	/**
+	 * Moves the resident range: blocks of sections leaving it are dropped and solid cells of
+	 * sections entering it get blocks.
+	 *
+	 * @param terrain    Builds the blocks
+	 * @param minSection First resident section
+	 * @param maxSection Last resident section, inclusive
+	 * @param removed    Receives the blocks that left the world
+	 * @param added      Receives the new blocks
+	 */
+	void setResidentSections(Terrain terrain, int minSection, int maxSection, List< GameObject > removed,
+	                         List< GameObject > added) {
+		final int oldStartRow = this.residentStartRow;
+		final int oldEndRow = this.residentEndRow;
+		this.setResidentRows(minSection, maxSection);
+		if (oldStartRow == this.residentStartRow && oldEndRow == this.residentEndRow) {
+			return;
+		}
+		final int fromRow = Math.min(oldStartRow, this.residentStartRow);
+		final int toRow = Math.max(oldEndRow, this.residentEndRow);
+		for ( int column = 0; column < this.columnCount; column++ ) {
+			final int x = this.firstColumnX + column * Block.SIZE;
+			for ( int row = fromRow; row < toRow; row++ ) {
+				final boolean wasResident = row >= oldStartRow && row < oldEndRow;
+				final boolean resident = this.isResident(row);
+				final int cell = this.cellOf(column, row);
+				if (wasResident && ! resident && this.blocks[cell] != null) {
+					removed.add(this.blocks[cell]);
+					this.blocks[cell] = null;
+				} else if (! wasResident && resident && this.materials[cell] != BlockGrid.AIR) {
+					this.blocks[cell] = terrain.createBlock(x, ( this.firstRow + row ) * Block.SIZE, this.colors[cell]);
+					added.add(this.blocks[cell]);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @param y A world y
+	 * @return The section containing y
+	 */
+	static int sectionAt(float y) {
+		return Math.floorDiv(BlockGrid.rowOf(y), BlockGrid.SECTION_ROWS);
+	}
+	
+	/**
+	 * Replaces the blocks of every dirty column with ones matching the grid, and clears the dirty set.
+	 *
+	 * @param terrain Builds the blocks
+	 * @param removed Receives the blocks that no longer belong in the world
+	 * @param added   Receives the new blocks
+	 */
+	void rebuildDirtyColumns(Terrain terrain, List< GameObject > removed, List< GameObject > added) {
+		for ( int column = this.dirtyColumns.nextSetBit(0); column >= 0;
+		      column = this.dirtyColumns.nextSetBit(column + 1) ) {
+			for ( int row = 0; row < this.rowCount; row++ ) {
+				final int cell = this.cellOf(column, row);
+				if (this.blocks[cell] != null) {
+					removed.add(this.blocks[cell]);
+					this.blocks[cell] = null;
+				}
+			}
+			this.materializeColumn(column, terrain, added);
+		}
+		this.dirtyColumns.clear();
+	}
+	
+	private void materializeColumn(int column, Terrain terrain, List< GameObject > created) {
+		final int x = this.firstColumnX + column * Block.SIZE;
+		for ( int row = this.residentStartRow; row < this.residentEndRow; row++ ) {
+			final int cell = this.cellOf(column, row);
+			if (this.materials[cell] != BlockGrid.AIR) {
+				final Block block = terrain.createBlock(x, ( this.firstRow + row ) * Block.SIZE, this.colors[cell]);
+				this.blocks[cell] = block;
+				created.add(block);
+			}
+		}
+	}
+	
+	private void setResidentRows(int minSection, int maxSection) {
+		final long startRow = ( long ) minSection * BlockGrid.SECTION_ROWS - this.firstRow;
+		final long endRow = ( ( long ) maxSection + 1 ) * BlockGrid.SECTION_ROWS - this.firstRow;
+		this.residentStartRow = ( int ) Math.max(0, Math.min(this.rowCount, startRow));
+		this.residentEndRow = ( int ) Math.max(this.residentStartRow, Math.min(this.rowCount, endRow));
+	}
+	
+	private boolean isResident(int row) {
+		return row >= this.residentStartRow && row < this.residentEndRow;
+	}
+	
+	private int columnAt(float x) {
+		return ( int ) Math.floor(( x - this.firstColumnX ) / Block.SIZE);
+	}
+	
+	private int cellOf(int column, int row) {
+		return column * this.rowCount + row;
+	}
+	
+	private static int rowOf(float y) {
+		return ( int ) Math.floor(y / Block.SIZE);
+	}
+}
@@ -0,0 +1,64 @@
+package pepse.world;
+
+/**
+ * The simulation time of one loaded chunk's animated objects (leaves, fruit).
+ * Between steps, the world advances the clock with the chunk's {@link SimulationTier}; during the
+ * next step its objects update only if the clock is due, and then by every second they have not
+ * simulated yet, so time skipped while off screen is caught up rather than lost.
+ */
+public class ChunkClock {
+	private SimulationTier tier = SimulationTier.FULL;
+	private boolean due = false;
+	private float dueSeconds = 0;
+	// Time that has passed and that the objects have not simulated, excluding the coming step
+	private float owedSeconds = 0;
+	private int stepsSinceDue = 0;
+	
+	/**
+	 * Closes the step that just ran and schedules the next one.
+	 *
+	 * @param stepSeconds Length of a step
+	 * @param tier        The chunk's tier for the next step
+	 */
+	public void advance(float stepSeconds, SimulationTier tier) {
+		// The step that just ran either simulated everything owed, or added to it
+		this.owedSeconds = this.due ? 0 : this.owedSeconds + stepSeconds;
+		this.tier = tier;
+		this.stepsSinceDue++;
+		this.due = tier.getStepInterval() > 0 && this.stepsSinceDue >= tier.getStepInterval();
+		if (this.due) {
+			this.stepsSinceDue = 0;
+			this.dueSeconds = this.owedSeconds + stepSeconds;
+		} else {
+			this.dueSeconds = 0;
+		}
+	}
+	
+	/**
+	 * @return Whether the chunk's objects update in the coming (or current) step.
+	 */
+	public boolean isDue() {
+		return this.due;
+	}
+	
+	/**
+	 * @return Seconds the chunk's objects simulate in the coming (or current) step, 0 if not due.
+	 */
+	public float getDueSeconds() {
+		return this.dueSeconds;
+	}
+	
+	/**
+	 * @return Seconds the chunk's objects are behind the world, read between steps.
+	 */
+	public float getOwedSeconds() {
+		return this.owedSeconds;
+	}
+	
+	/**
+	 * @return The tier of the coming (or current) step.
+	 */
+	public SimulationTier getTier() {
+		return this.tier;
+	}
+}
@@ -0,0 +1,34 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observer of the {@link InfiniteWorldManager}'s chunk streaming.
+ * Both callbacks run on the game thread, right after the chunk was attached or detached.
+ */
+public interface ChunkListener {
+	/**
+	 * Called after a chunk was generated and placed.
+	 *
+	 * @param chunkIndex    Index of the chunk (chunk width is window width)
+	 * @param objectsByKind The chunk's objects, grouped by kind; must not be modified
+	 * @param nanos         Time spent generating and placing the chunk
+	 */
+	default void onChunkLoaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind,
+	                           long nanos) {
+	}
+	
+	/**
+	 * Called after a chunk was removed from the game.
+	 *
+	 * @param chunkIndex    Index of the chunk
+	 * @param objectsByKind The chunk's objects, grouped by kind; must not be modified
+	 * @param nanos         Time spent removing the chunk
+	 */
+	default void onChunkUnloaded(int chunkIndex, Map< ObjectKind, List< GameObject > > objectsByKind,
+	                             long nanos) {
+	}
+}
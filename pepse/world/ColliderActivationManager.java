@@ -0,0 +1,152 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Keeps only the static colliders near the avatar in the colliding layer.
+ * Colliders are bucketed by block column as chunks load; when the avatar moves into a new
+ * column, the columns entering the activation radius are woken and the ones leaving it are
+ * put to sleep. Everything else stays in a non-colliding static layer, so the engine's
+ * avatar-vs-static pass only sees a few columns.
+ */
+public class ColliderActivationManager {
+	private final int radiusColumns;
+	private final Predicate< ObjectKind > hasCollider;
+	private final Consumer< GameObject > wake;
+	private final Consumer< GameObject > sleep;
+	private final Map< Integer, List< GameObject > > columns = new HashMap<>();
+	
+	private int activeMinColumn = 0;
+	private int activeMaxColumn = - 1;
+	private int awakeCount = 0;
+	
+	/**
+	 * Creates a collider activation manager.
+	 *
+	 * @param activationRadius Horizontal distance from the avatar's center within which colliders are awake
+	 * @param hasCollider      Selects the object kinds that take part in activation
+	 * @param wake             Moves an object into the colliding layer
+	 * @param sleep            Moves an object into the non-colliding static layer
+	 */
+	public ColliderActivationManager(float activationRadius, Predicate< ObjectKind > hasCollider,
+	                                 Consumer< GameObject > wake, Consumer< GameObject > sleep) {
+		this.radiusColumns = ( int ) Math.ceil(activationRadius / Block.SIZE);
+		this.hasCollider = hasCollider;
+		this.wake = wake;
+		this.sleep = sleep;
+	}
+	
+	/**
+	 * @return Number of colliders currently awake.
+	 */
+	public int getAwakeCount() {
+		return this.awakeCount;
+	}
+	
+	/**
+	 * Buckets a freshly loaded chunk's colliders. They are expected to have been placed asleep;
+	 * any that fall inside the current radius are woken immediately.
+	 *
+	 * @param objectsByKind All objects of the chunk, grouped by kind
+	 */
+	void registerChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			if (this.hasCollider.test(group.getKey())) {
+				this.registerGroup(group.getValue());
+			}
+		}
+	}
+	
+	/**
+	 * Forgets an unloaded chunk's colliders. Removal from the game is the caller's job.
+	 *
+	 * @param objectsByKind All objects of the chunk, grouped by kind
+	 */
+	void unregisterChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			if (this.hasCollider.test(group.getKey())) {
+				this.unregisterGroup(group.getValue());
+			}
+		}
+	}
+	
+	private void registerGroup(List< GameObject > colliders) {
+		for ( GameObject obj: colliders ) {
+			final int column = ColliderActivationManager.columnOf(obj);
+			this.columns.computeIfAbsent(column, key -> new ArrayList<>()).add(obj);
+			if (this.isActive(column)) {
+				this.wake.accept(obj);
+				this.awakeCount++;
+			}
+		}
+	}
+	
+	private void unregisterGroup(List< GameObject > colliders) {
+		for ( GameObject obj: colliders ) {
+			final int column = ColliderActivationManager.columnOf(obj);
+			final List< GameObject > bucket = this.columns.get(column);
+			if (bucket != null && bucket.remove(obj)) {
+				if (this.isActive(column)) {
+					this.awakeCount--;
+				}
+				if (bucket.isEmpty()) {
+					this.columns.remove(column);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Migrates colliders between layers if the avatar changed column. Does nothing otherwise.
+	 *
+	 * @param avatarX The avatar's current center X
+	 */
+	void update(float avatarX) {
+		final int avatarColumn = ( int ) Math.floor(avatarX / Block.SIZE);
+		final int newMin = avatarColumn - this.radiusColumns;
+		final int newMax = avatarColumn + this.radiusColumns;
+		if (newMin == this.activeMinColumn && newMax == this.activeMaxColumn) {
+			return;
+		}
+		
+		// Sleep columns leaving the range, then wake the ones entering it
+		for ( int column = this.activeMinColumn; column <= this.activeMaxColumn; column++ ) {
+			if (column < newMin || column > newMax) {
+				this.forEachInColumn(column, this.sleep, - 1);
+			}
+		}
+		for ( int column = newMin; column <= newMax; column++ ) {
+			if (! this.isActive(column)) {
+				this.forEachInColumn(column, this.wake, 1);
+			}
+		}
+		this.activeMinColumn = newMin;
+		this.activeMaxColumn = newMax;
+	}
+	
+	private void forEachInColumn(int column, Consumer< GameObject > action, int awakeDelta) {
+		final List< GameObject > bucket = this.columns.get(column);
+		if (bucket == null) {
+			return;
+		}
+		for ( GameObject obj: bucket ) {
+			action.accept(obj);
+		}
+		this.awakeCount += awakeDelta * bucket.size();
+	}
+	
+	private boolean isActive(int column) {
+		return column >= this.activeMinColumn && column <= this.activeMaxColumn;
+	}
+	
+	private static int columnOf(GameObject obj) {
+		return ( int ) Math.floor(obj.getTopLeftCorner().x() / Block.SIZE);
+	}
+}
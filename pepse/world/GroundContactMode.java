@@ -0,0 +1,17 @@
+package pepse.world;
+
+/**
+ * How the avatar detects that it stands on the terrain.
+ */
+public enum GroundContactMode {
+	/**
+	 * Terrain blocks are real colliders; grounding is counted from collision events.
+	 */
+	COLLISIONS,
+	/**
+	 * Terrain is resolved analytically from the top of each ground column: the loaded grid's,
+	 * as edited, or the generated terrain's. Terrain blocks are only rendered, and real
+	 * collisions are kept for tree trunks.
+	 */
+	HEIGHT_FIELD
+}
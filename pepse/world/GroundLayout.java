@@ -0,0 +1,104 @@
+package pepse.world;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Everything needed to rebuild a range of ground blocks without sampling noise: the x of the
+ * first column, the top of every column and the colour of every block.
+ * Produced by {@link Terrain#describeRange} and turned into blocks by {@link Terrain#create}.
+ */
+public final class GroundLayout {
+	private final int firstColumnX;
+	private final int depth;
+	private final float[] columnTops;
+	// Column-major: the blocks of column i are [i * depth, (i + 1) * depth), top block first
+	private final int[] blockColors;
+	
+	/**
+	 * Creates a layout.
+	 *
+	 * @param firstColumnX Left x of the first column
+	 * @param depth        Blocks per column
+	 * @param columnTops   Top y of every column
+	 * @param blockColors  RGB of every block, column-major
+	 */
+	GroundLayout(int firstColumnX, int depth, float[] columnTops, int[] blockColors) {
+		this.firstColumnX = firstColumnX;
+		this.depth = depth;
+		this.columnTops = columnTops;
+		this.blockColors = blockColors;
+	}
+	
+	int getFirstColumnX() {
+		return this.firstColumnX;
+	}
+	
+	int getDepth() {
+		return this.depth;
+	}
+	
+	float getColumnTop(int column) {
+		return this.columnTops[column];
+	}
+	
+	int getBlockColor(int column, int depth) {
+		return this.blockColors[column * this.depth + depth];
+	}
+	
+	/**
+	 * @return Number of columns.
+	 */
+	public int getColumnCount() {
+		return this.columnTops.length;
+	}
+	
+	/**
+	 * @return Number of blocks the layout describes.
+	 */
+	public int getBlockCount() {
+		return this.blockColors.length;
+	}
+	
+	/**
+	 * @return Size of {@link #writeTo}'s output in bytes.
+	 */
+	public int encodedSize() {
+		return 3 * Integer.BYTES + this.columnTops.length * Float.BYTES + this.blockColors.length * Integer.BYTES;
+	}
+	
+	/**
+	 * Appends the layout to a buffer.
+	 *
+	 * @param buffer Destination, with at least {@link #encodedSize()} bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		buffer.putInt(this.firstColumnX);
+		buffer.putInt(this.depth);
+		buffer.putInt(this.columnTops.length);
+		for ( float top: this.columnTops ) {
+			buffer.putFloat(top);
+		}
+		for ( int color: this.blockColors ) {
+			buffer.putInt(color);
+		}
+	}
+	
+	/**
+	 * Reads a layout written by {@link #writeTo}.
+	 *
+	 * @param buffer Source, positioned at the layout; advanced past it
+	 * @return The layout
+	 */
+	public static GroundLayout readFrom(ByteBuffer buffer) {
+		final int firstColumnX = buffer.getInt();
+		final int depth = buffer.getInt();
+		final float[] columnTops = new float[buffer.getInt()];
+		for ( int i = 0; i < columnTops.length; i++ ) {
+			columnTops[i] = buffer.getFloat();
+		}
+		final int[] blockColors = new int[columnTops.length * depth];
+		buffer.asIntBuffer().get(blockColors);
+		buffer.position(buffer.position() + blockColors.length * Integer.BYTES);
+		return new GroundLayout(firstColumnX, depth, columnTops, blockColors);
+	}
+}
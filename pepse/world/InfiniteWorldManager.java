@@ -1,57 +1,219 @@
 package pepse.world;
 
 import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.cache.ChunkCache;
+import pepse.world.cache.ChunkDescriptor;
+import pepse.world.delta.ChunkDelta;
+import pepse.world.delta.ChunkDeltaStore;
+import pepse.world.jfr.ChunkLoadEvent;
+import pepse.world.jfr.ChunkUnloadEvent;
+import pepse.world.jfr.WorldEvents;
 import pepse.world.trees.Flora;
+import pepse.world.trees.FruitPickupGrid;
 
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages procedural generation of an infinite world around the player's position.
  * Handles chunk loading/unloading and terrain/flora generation.
+ * The ground of every loaded chunk is held in a {@link BlockGrid}; blocks can be edited through
+ * {@link #setBlockAt}, and the edited columns are rebuilt on the next {@link #update}.
+ * Ground is also streamed vertically: chunks and {@link BlockGrid#SECTION_ROWS}-row sections form
+ * 2D chunks, and only the sections that intersect the view, plus a small margin, have block objects.
+ * With a {@link ChunkDeltaStore}, block edits and eaten fruit are recorded as changes against the
+ * seed and reapplied whenever their chunk is generated again.
+ * Each loaded chunk has a {@link ChunkClock} that its leaves and fruit update by; {@link #advanceClocks}
+ * puts the chunks on screen at the full rate, the ones just beside it at a reduced rate, and
+ * freezes the rest.
+ * Beyond the loaded chunks, {@link #setLodChunksOnEachSide} more chunks on each side can be shown at
+ * low detail: a terrain silhouette and one impostor per tree, a handful of objects instead of hundreds.
+ * A chunk swaps its low-detail objects for the full ones once it comes into the loaded range.
+ * Everything placed, full or low detail, is kept in a {@link SpatialIndex} for range and nearest queries.
  */
 public class InfiniteWorldManager {
-	// How many chunks to keep loaded on each side of the avatar
-	private static final int CHUNKS_TO_LOAD_ON_EACH_SIDE = 1;
+	// How many chunks to keep loaded on each side of the avatar, unless changed
+	private static final int DEFAULT_CHUNKS_TO_LOAD_ON_EACH_SIDE = 1;
+	// Extra height kept resident above and below the view, covering a fast fall for the frame
+	// that new blocks take to appear
+	private static final float VERTICAL_MARGIN = 2 * Block.SIZE;
+	// Section range that keeps every row resident, far enough from the int limits to do row math on
+	private static final int ALL_SECTIONS = Integer.MAX_VALUE / ( 2 * BlockGrid.SECTION_ROWS );
+	// Distance beyond the view's sides within which a chunk is simulated at the reduced rate
+	private static final float REDUCED_TIER_MARGIN = 8 * Block.SIZE;
 	
-	// Holds references to all GameObjects in each chunk so we can remove them if needed.
-	private final Map< ChunkRange, List< GameObject > > chunks = new HashMap<>();
+	// Holds references to all GameObjects in each chunk, grouped by kind, so we can remove them if needed.
+	private final Map< ChunkRange, Map< ObjectKind, List< GameObject > > > chunks = new HashMap<>();
+	// Ground of every loaded chunk, by chunk index
+	private final Map< Integer, BlockGrid > grids = new HashMap<>();
+	// Grids edited since the last rebuild
+	private final Set< BlockGrid > dirtyGrids = new LinkedHashSet<>();
+	// Simulation clock of every loaded chunk, by chunk index
+	private final Map< Integer, ChunkClock > clocks = new HashMap<>();
+	// Objects of every low-detail chunk, by chunk index
+	private final Map< Integer, List< GameObject > > lodChunks = new HashMap<>();
+	private final SpatialIndex spatialIndex = new SpatialIndex();
 	
 	private final int chunkWidth;
 	private final Terrain terrain;
 	private final Flora flora;
 	private final InfiniteWorldObjectPlacer objectPlacer;
+	private final ColliderActivationManager colliderActivation;
+	private final ChunkCache chunkCache;
+	private final ChunkDeltaStore chunkDeltas;
+	private final List< ChunkListener > chunkListeners = new ArrayList<>();
+	// Height of the view, or 0 to keep every row resident
+	private final float viewHeight;
 	
+	private int chunksToLoadOnEachSide = InfiniteWorldManager.DEFAULT_CHUNKS_TO_LOAD_ON_EACH_SIDE;
+	private int lodChunksOnEachSide = 0;
 	private int minChunkIndex;
 	private int maxChunkIndex;
+	private int minSection;
+	private int maxSection;
+	// Grid of the last lookup, so repeated queries in one chunk skip the map
+	private BlockGrid lastGrid = null;
 	
 	/**
-	 * Constructs the InfiniteWorldManager.
+	 * Constructs the InfiniteWorldManager. Every row of every loaded chunk is kept resident.
 	 *
 	 * @param terrain      Terrain generator (seeded) for creating ground blocks.
 	 * @param flora        Flora generator (seeded) for creating trees, leaves, fruits, etc.
-	 * @param objectPlacer A facade for placing/removing objects in the world.
-	 * @param windowWidth  Width of the window, used to determine chunk width.
+	 * @param objectPlacer       A facade for placing/removing objects in the world.
+	 * @param colliderActivation Wakes/sleeps static colliders around the avatar; may be null,
+	 *                           in which case placed colliders are never migrated.
+	 * @param windowWidth        Width of the window, used to determine chunk width.
 	 */
 	public InfiniteWorldManager(Terrain terrain, Flora flora, InfiniteWorldObjectPlacer objectPlacer,
-	                            float windowWidth) {
+	                            ColliderActivationManager colliderActivation, float windowWidth) {
+		this(terrain, flora, objectPlacer, colliderActivation, null, null, new Vector2(windowWidth, 0),
+				Vector2.ZERO);
+	}
+	
+	/**
+	 * Constructs the InfiniteWorldManager with an on-disk chunk cache, loading the chunks around
+	 * the view's start position and streaming ground sections vertically with the view.
+	 *
+	 * @param terrain            Terrain generator (seeded) for creating ground blocks.
+	 * @param flora              Flora generator (seeded) for creating trees, leaves, fruits, etc.
+	 * @param objectPlacer       A facade for placing/removing objects in the world.
+	 * @param colliderActivation Wakes/sleeps static colliders around the avatar; may be null.
+	 * @param chunkCache         Stores generated chunks and supplies them on later loads; may be null,
+	 *                           in which case every load generates.
+	 * @param chunkDeltas        Records the world's changes and supplies them on later loads; may be
+	 *                           null, in which case changes are lost when their chunk unloads.
+	 * @param windowDimensions   Size of the window: the width is the chunk width, and the height the
+	 *                           view's height, or 0 to keep every row resident.
+	 * @param viewCenter         Center of the view at the start (the avatar, which the camera follows);
+	 *                           only the chunks and sections around it are loaded.
+	 */
+	public InfiniteWorldManager(Terrain terrain, Flora flora, InfiniteWorldObjectPlacer objectPlacer,
+	                            ColliderActivationManager colliderActivation, ChunkCache chunkCache,
+	                            ChunkDeltaStore chunkDeltas, Vector2 windowDimensions, Vector2 viewCenter) {
 		this.terrain = terrain;
 		this.flora = flora;
 		this.objectPlacer = objectPlacer;
+		this.colliderActivation = colliderActivation;
+		this.chunkCache = chunkCache;
+		this.chunkDeltas = chunkDeltas;
 		
 		// We treat one "chunk" width as the entire window width
-		this.chunkWidth = ( int ) windowWidth;
-		this.minChunkIndex = - InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE;
-		this.maxChunkIndex = InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE;
+		this.chunkWidth = ( int ) windowDimensions.x();
+		this.viewHeight = windowDimensions.y();
+		WorldEvents.setChunkWidth(this.chunkWidth);
+		final int startChunkIndex = ( int ) Math.floor(viewCenter.x() / this.chunkWidth);
+		this.minChunkIndex = startChunkIndex - this.chunksToLoadOnEachSide;
+		this.maxChunkIndex = startChunkIndex + this.chunksToLoadOnEachSide;
+		this.minSection = this.viewHeight > 0 ? this.minSectionAt(viewCenter.y()) : - InfiniteWorldManager.ALL_SECTIONS;
+		this.maxSection = this.viewHeight > 0 ? this.maxSectionAt(viewCenter.y()) : InfiniteWorldManager.ALL_SECTIONS;
 		
 		this.initInitialChunks();
 	}
 	
+	/**
+	 * Adds a listener notified whenever a chunk is loaded or unloaded.
+	 * Chunks loaded by the constructor are not reported.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addChunkListener(ChunkListener listener) {
+		this.chunkListeners.add(listener);
+	}
+	
+	/**
+	 * Changes how many chunks stay loaded on each side of the avatar's chunk. The next
+	 * {@link #update} loads or unloads chunks to match.
+	 *
+	 * @param chunksToLoadOnEachSide At least 1, so the view, one chunk wide, is always covered
+	 * @throws IllegalArgumentException If less than 1
+	 */
+	public void setChunksToLoadOnEachSide(int chunksToLoadOnEachSide) {
+		if (chunksToLoadOnEachSide < 1) {
+			throw new IllegalArgumentException("Need at least one chunk on each side, not " + chunksToLoadOnEachSide);
+		}
+		this.chunksToLoadOnEachSide = chunksToLoadOnEachSide;
+	}
+	
+	/**
+	 * Changes how many low-detail chunks are shown beyond the loaded ones on each side. The next
+	 * {@link #update} adds or removes low-detail chunks to match.
+	 *
+	 * @param lodChunksOnEachSide At least 0
+	 * @throws IllegalArgumentException If negative
+	 */
+	public void setLodChunksOnEachSide(int lodChunksOnEachSide) {
+		if (lodChunksOnEachSide < 0) {
+			throw new IllegalArgumentException("Negative low-detail chunk count " + lodChunksOnEachSide);
+		}
+		this.lodChunksOnEachSide = lodChunksOnEachSide;
+	}
+	
+	/**
+	 * @return Index of every object currently placed by this manager.
+	 */
+	public SpatialIndex getSpatialIndex() {
+		return this.spatialIndex;
+	}
+	
+	/**
+	 * @return Number of chunks currently shown at low detail.
+	 */
+	public int getLodChunkCount() {
+		return this.lodChunks.size();
+	}
+	
+	/**
+	 * @return Number of chunks currently loaded.
+	 */
+	public int getResidentChunkCount() {
+		return this.chunks.size();
+	}
+	
+	/**
+	 * Updates the manager based on the view's current center: first swaps the ground sections
+	 * that entered or left the view's height, then streams chunks horizontally as
+	 * {@link #update(float)} does.
+	 *
+	 * @param viewCenterX The view's (the avatar's) current center X.
+	 * @param viewCenterY The view's current center Y.
+	 */
+	public void update(float viewCenterX, float viewCenterY) {
+		if (this.viewHeight > 0) {
+			this.streamSections(this.minSectionAt(viewCenterY), this.maxSectionAt(viewCenterY));
+		}
+		this.update(viewCenterX);
+	}
+	
 	/**
 	 * Updates the manager based on the avatar's current X, loading/unloading chunks
-	 * so that CHUNKS_TO_LOAD_ON_EACH_SIDE remain visible on each side.
+	 * so that chunksToLoadOnEachSide remain visible on each side, then lets the
+	 * collider activation follow the avatar.
 	 *
 	 * @param avatarX The avatar's current X coordinate.
 	 */
@@ -59,28 +221,119 @@ public class InfiniteWorldManager {
 		final int currentChunkIndex = ( int ) Math.floor(avatarX / this.chunkWidth);
 		
 		// Ensure we have enough chunks to the left
-		while ( currentChunkIndex - this.minChunkIndex < InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE ) {
+		while ( currentChunkIndex - this.minChunkIndex < this.chunksToLoadOnEachSide ) {
 			this.minChunkIndex--;
 			this.loadChunk(this.minChunkIndex);
 		}
 		
 		// Ensure we have enough chunks to the right
-		while ( this.maxChunkIndex - currentChunkIndex < InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE ) {
+		while ( this.maxChunkIndex - currentChunkIndex < this.chunksToLoadOnEachSide ) {
 			this.maxChunkIndex++;
 			this.loadChunk(this.maxChunkIndex);
 		}
 		
 		// Unload chunks too far left
-		while ( currentChunkIndex - this.minChunkIndex > InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE ) {
+		while ( currentChunkIndex - this.minChunkIndex > this.chunksToLoadOnEachSide ) {
 			this.unloadChunk(this.minChunkIndex);
 			this.minChunkIndex++;
 		}
 		
 		// Unload chunks too far right
-		while ( this.maxChunkIndex - currentChunkIndex > InfiniteWorldManager.CHUNKS_TO_LOAD_ON_EACH_SIDE ) {
+		while ( this.maxChunkIndex - currentChunkIndex > this.chunksToLoadOnEachSide ) {
 			this.unloadChunk(this.maxChunkIndex);
 			this.maxChunkIndex--;
 		}
+		
+		this.streamLodChunks();
+		this.rebuildDirtyGrids();
+		
+		if (this.colliderActivation != null) {
+			this.colliderActivation.update(avatarX);
+		}
+	}
+	
+	/**
+	 * Closes a simulation step for every loaded chunk and sets the chunk's tier for the next one, by
+	 * its distance from the view. Call once between steps, before the chunks are streamed.
+	 *
+	 * @param stepSeconds Length of a step
+	 * @param viewCenterX The view's (the avatar's) current center X.
+	 */
+	public void advanceClocks(float stepSeconds, float viewCenterX) {
+		// A chunk is one view wide
+		final float viewMinX = viewCenterX - this.chunkWidth / 2f;
+		final float viewMaxX = viewCenterX + this.chunkWidth / 2f;
+		for ( Map.Entry< Integer, ChunkClock > entry: this.clocks.entrySet() ) {
+			final int minX = entry.getKey() * this.chunkWidth;
+			final float distance = Math.max(0, Math.max(minX - viewMaxX, viewMinX - ( minX + this.chunkWidth )));
+			final SimulationTier tier;
+			if (distance == 0) {
+				tier = SimulationTier.FULL;
+			} else if (distance <= InfiniteWorldManager.REDUCED_TIER_MARGIN) {
+				tier = SimulationTier.REDUCED;
+			} else {
+				tier = SimulationTier.FROZEN;
+			}
+			entry.getValue().advance(stepSeconds, tier);
+		}
+	}
+	
+	/**
+	 * @param tier A simulation tier
+	 * @return Number of loaded chunks in the tier
+	 */
+	public int countChunksInTier(SimulationTier tier) {
+		int count = 0;
+		for ( ChunkClock clock: this.clocks.values() ) {
+			if (clock.getTier() == tier) {
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Top of the ground at x: the highest solid cell of the loaded grid there, or the generated
+	 * terrain height where no chunk is loaded.
+	 *
+	 * @param x A world x
+	 * @return Top y of the topmost ground block in the column containing x
+	 */
+	public float blockTopAt(float x) {
+		final BlockGrid grid = this.gridAt(x);
+		return grid != null ? grid.blockTopAt(x) : this.terrain.blockTopAt(x);
+	}
+	
+	/**
+	 * @param x A world x
+	 * @param y A world y
+	 * @return The material of the ground cell containing (x, y), {@link BlockGrid#AIR} outside the loaded grids
+	 */
+	public byte blockAt(float x, float y) {
+		final BlockGrid grid = this.gridAt(x);
+		return grid != null ? grid.materialAt(x, y) : BlockGrid.AIR;
+	}
+	
+	/**
+	 * Digs out or places a ground block. The change is visible (and collidable) after the next
+	 * {@link #update}, which rebuilds only the edited columns.
+	 *
+	 * @param x        A world x
+	 * @param y        A world y
+	 * @param material {@link BlockGrid#AIR} to dig, {@link BlockGrid#GROUND} to place
+	 * @return True if the cell changed; false if it already held the material or is not loaded
+	 */
+	public boolean setBlockAt(float x, float y, byte material) {
+		final BlockGrid grid = this.gridAt(x);
+		if (grid == null || ! grid.setMaterial(x, y, material, this.terrain.nextBlockColor())) {
+			return false;
+		}
+		this.dirtyGrids.add(grid);
+		if (this.chunkDeltas != null) {
+			this.chunkDeltas.recordBlock(grid.getChunkIndex(), ( int ) Math.floor(x / Block.SIZE),
+					( int ) Math.floor(y / Block.SIZE), material);
+		}
+		return true;
 	}
 	
 	/**
@@ -93,12 +346,16 @@ public class InfiniteWorldManager {
 	}
 	
 	/**
-	 * Loads a chunk by creating terrain and flora in [minX, maxX),
+	 * Loads a chunk by creating terrain and flora in [minX, maxX) (from the cache if it has them),
 	 * then passing them to objectPlacer callbacks.
 	 *
 	 * @param chunkIndex The index of the chunk (chunk width is window width).
 	 */
 	private void loadChunk(int chunkIndex) {
+		final long start = System.nanoTime();
+		final ChunkLoadEvent event = new ChunkLoadEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
 		final int minX = chunkIndex * this.chunkWidth;
 		final int maxX = minX + this.chunkWidth;
 		final ChunkRange chunkRange = new ChunkRange(minX, maxX);
@@ -108,23 +365,68 @@ public class InfiniteWorldManager {
 			return;
 		}
 		
-		// 1) Terrain blocks
-		final List< Block > terrainBlocks = this.terrain.createInRange(minX, maxX);
-		// 2) Flora objects (trees, leaves, fruits, etc.)
-		final List< GameObject > floraObjects = this.flora.createInRange(minX, maxX);
+		// 1) Layout of the chunk: stored, or generated (and stored)
+		ChunkDescriptor descriptor = this.chunkCache == null ? null : this.chunkCache.read(chunkIndex);
+		final boolean fromCache = descriptor != null;
+		if (! fromCache) {
+			descriptor = new ChunkDescriptor(this.terrain.describeRange(minX, maxX),
+					this.flora.describeRange(minX, maxX));
+			if (this.chunkCache != null) {
+				this.chunkCache.write(chunkIndex, descriptor);
+			}
+		}
+		// 2) Terrain blocks, materialized from the chunk's grid with the recorded edits applied
+		final ChunkDelta delta = this.chunkDeltas == null ? null : this.chunkDeltas.get(chunkIndex);
+		final BlockGrid grid = BlockGrid.fromLayout(chunkIndex, descriptor.getGround());
+		if (delta != null) {
+			delta.forEachBlock((cellX, cellY, material) -> grid.setMaterial(cellX * Block.SIZE, cellY * Block.SIZE,
+					material, this.terrain.nextBlockColor()));
+		}
+		final List< GameObject > terrainBlocks = grid.materialize(this.terrain, this.minSection, this.maxSection);
+		// 3) Flora objects (trees, leaves, fruits, etc.)
+		final ChunkClock clock = new ChunkClock();
+		final List< GameObject > floraObjects = this.flora.create(descriptor.getFlora(), clock);
+		if (delta != null) {
+			FruitPickupGrid.restoreEatenAmong(floraObjects, delta.getEatenFruits());
+		}
 		
-		// Combine all objects in one list so we can store for unloading
-		final List< GameObject > combined = new ArrayList<>();
-		combined.addAll(terrainBlocks);
-		combined.addAll(floraObjects);
+		// Group all objects by kind so the placer can attach each group in one pass
+		final Map< ObjectKind, List< GameObject > > objectsByKind = new EnumMap<>(ObjectKind.class);
+		objectsByKind.put(ObjectKind.GROUND, terrainBlocks);
+		for ( GameObject obj: floraObjects ) {
+			objectsByKind.computeIfAbsent(ObjectKind.of(obj), kind -> new ArrayList<>()).add(obj);
+		}
 		
 		// Place them via the interface callback
-		for ( GameObject obj: combined ) {
-			this.objectPlacer.placeObject(obj);
+		this.objectPlacer.placeChunk(objectsByKind);
+		if (this.colliderActivation != null) {
+			this.colliderActivation.registerChunk(objectsByKind);
 		}
+		this.spatialIndex.registerChunk(objectsByKind);
 		
 		// Store references for unloading
-		this.chunks.put(chunkRange, combined);
+		this.chunks.put(chunkRange, objectsByKind);
+		this.grids.put(chunkIndex, grid);
+		this.clocks.put(chunkIndex, clock);
+		
+		if (event.shouldCommit()) {
+			event.chunkIndex = chunkIndex;
+			event.groundCount = InfiniteWorldManager.countOf(objectsByKind, ObjectKind.GROUND);
+			event.trunkCount = InfiniteWorldManager.countOf(objectsByKind, ObjectKind.TRUNK);
+			event.leafCount = InfiniteWorldManager.countOf(objectsByKind, ObjectKind.LEAF);
+			event.fruitCount = InfiniteWorldManager.countOf(objectsByKind, ObjectKind.FRUIT);
+			event.objectCount = InfiniteWorldManager.totalCount(objectsByKind);
+			event.fromCache = fromCache;
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
+		final long nanos = System.nanoTime() - start;
+		for ( ChunkListener listener: this.chunkListeners ) {
+			listener.onChunkLoaded(chunkIndex, objectsByKind, nanos);
+		}
+		// The grid owns the ground from here on; keeping the load-time blocks would hold on to the
+		// ones that edits and vertical streaming remove until the chunk unloads
+		objectsByKind.put(ObjectKind.GROUND, List.of());
 	}
 	
 	/**
@@ -133,6 +435,10 @@ public class InfiniteWorldManager {
 	 * @param chunkIndex The index of the chunk to unload.
 	 */
 	private void unloadChunk(int chunkIndex) {
+		final long start = System.nanoTime();
+		final ChunkUnloadEvent event = new ChunkUnloadEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
 		final int minX = chunkIndex * this.chunkWidth;
 		final int maxX = minX + this.chunkWidth;
 		final ChunkRange chunkRange = new ChunkRange(minX, maxX);
@@ -140,11 +446,183 @@ public class InfiniteWorldManager {
 		if (! this.chunks.containsKey(chunkRange)) {
 			return;
 		}
-		final List< GameObject > objectsInChunk = this.chunks.get(chunkRange);
-		for ( GameObject obj: objectsInChunk ) {
-			this.objectPlacer.removeObject(obj);
+		final Map< ObjectKind, List< GameObject > > objectsInChunk = this.chunks.remove(chunkRange);
+		final BlockGrid grid = this.grids.remove(chunkIndex);
+		this.dirtyGrids.remove(grid);
+		this.clocks.remove(chunkIndex);
+		if (grid == this.lastGrid) {
+			this.lastGrid = null;
+		}
+		// Edits and vertical streaming change the ground after loading; the grid knows what is placed now
+		objectsInChunk.put(ObjectKind.GROUND, grid.materializedBlocks());
+		if (this.chunkDeltas != null) {
+			this.chunkDeltas.recordEatenFruits(chunkIndex,
+					FruitPickupGrid.eatenAmong(objectsInChunk.getOrDefault(ObjectKind.FRUIT, List.of())));
+		}
+		if (this.colliderActivation != null) {
+			this.colliderActivation.unregisterChunk(objectsInChunk);
+		}
+		this.spatialIndex.unregisterChunk(objectsInChunk);
+		this.objectPlacer.removeChunk(objectsInChunk);
+		
+		if (event.shouldCommit()) {
+			event.chunkIndex = chunkIndex;
+			event.objectCount = InfiniteWorldManager.totalCount(objectsInChunk);
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
+		final long nanos = System.nanoTime() - start;
+		for ( ChunkListener listener: this.chunkListeners ) {
+			listener.onChunkUnloaded(chunkIndex, objectsInChunk, nanos);
+		}
+	}
+	
+	/**
+	 * Drops the low-detail chunks that are now loaded or out of range, and adds the missing ones.
+	 * Runs after the loaded range has moved, so a chunk never shows both of its versions.
+	 */
+	private void streamLodChunks() {
+		final int lodMinChunkIndex = this.minChunkIndex - this.lodChunksOnEachSide;
+		final int lodMaxChunkIndex = this.maxChunkIndex + this.lodChunksOnEachSide;
+		final List< GameObject > removed = new ArrayList<>();
+		this.lodChunks.entrySet().removeIf(entry -> {
+			final int chunkIndex = entry.getKey();
+			final boolean drop = chunkIndex < lodMinChunkIndex || chunkIndex > lodMaxChunkIndex
+			                     || this.isLoadedIndex(chunkIndex);
+			if (drop) {
+				removed.addAll(entry.getValue());
+			}
+			return drop;
+		});
+		final List< GameObject > added = new ArrayList<>();
+		for ( int chunkIndex = lodMinChunkIndex; chunkIndex <= lodMaxChunkIndex; chunkIndex++ ) {
+			if (! this.isLoadedIndex(chunkIndex) && ! this.lodChunks.containsKey(chunkIndex)) {
+				final List< GameObject > objects = this.createLodChunk(chunkIndex);
+				this.lodChunks.put(chunkIndex, objects);
+				added.addAll(objects);
+			}
+		}
+		if (! removed.isEmpty()) {
+			final Map< ObjectKind, List< GameObject > > removedImpostors = Map.of(ObjectKind.IMPOSTOR, removed);
+			this.spatialIndex.unregisterChunk(removedImpostors);
+			this.objectPlacer.removeChunk(removedImpostors);
+		}
+		if (! added.isEmpty()) {
+			final Map< ObjectKind, List< GameObject > > addedImpostors = Map.of(ObjectKind.IMPOSTOR, added);
+			this.objectPlacer.placeChunk(addedImpostors);
+			this.spatialIndex.registerChunk(addedImpostors);
+		}
+	}
+	
+	/**
+	 * Builds the low-detail objects of a chunk: its terrain silhouette and its tree impostors,
+	 * the trees taken from the cache if it has the chunk.
+	 */
+	private List< GameObject > createLodChunk(int chunkIndex) {
+		final int minX = chunkIndex * this.chunkWidth;
+		final int maxX = minX + this.chunkWidth;
+		final ChunkDescriptor descriptor = this.chunkCache == null ? null : this.chunkCache.read(chunkIndex);
+		final List< GameObject > objects = new ArrayList<>();
+		objects.add(this.terrain.createSilhouette(minX, maxX));
+		objects.addAll(this.flora.createImpostors(descriptor != null ? descriptor.getFlora()
+				                                          : this.flora.describeRange(minX, maxX)));
+		return objects;
+	}
+	
+	/**
+	 * Moves every loaded chunk's resident sections to a new range. Does nothing if it is unchanged.
+	 */
+	private void streamSections(int newMinSection, int newMaxSection) {
+		if (newMinSection == this.minSection && newMaxSection == this.maxSection) {
+			return;
+		}
+		this.minSection = newMinSection;
+		this.maxSection = newMaxSection;
+		final List< GameObject > removed = new ArrayList<>();
+		final List< GameObject > added = new ArrayList<>();
+		for ( BlockGrid grid: this.grids.values() ) {
+			grid.setResidentSections(this.terrain, newMinSection, newMaxSection, removed, added);
+		}
+		this.swapGround(removed, added);
+	}
+	
+	/**
+	 * Swaps the blocks of every edited column.
+	 */
+	private void rebuildDirtyGrids() {
+		if (this.dirtyGrids.isEmpty()) {
+			return;
+		}
+		final List< GameObject > removed = new ArrayList<>();
+		final List< GameObject > added = new ArrayList<>();
+		for ( BlockGrid grid: this.dirtyGrids ) {
+			grid.rebuildDirtyColumns(this.terrain, removed, added);
+		}
+		this.dirtyGrids.clear();
+		this.swapGround(removed, added);
+	}
+	
+	/**
+	 * Detaches and attaches ground blocks the same way whole chunks are.
+	 */
+	private void swapGround(List< GameObject > removed, List< GameObject > added) {
+		if (removed.isEmpty() && added.isEmpty()) {
+			return;
+		}
+		final Map< ObjectKind, List< GameObject > > removedGround = Map.of(ObjectKind.GROUND, removed);
+		final Map< ObjectKind, List< GameObject > > addedGround = Map.of(ObjectKind.GROUND, added);
+		if (this.colliderActivation != null) {
+			this.colliderActivation.unregisterChunk(removedGround);
+		}
+		this.spatialIndex.unregisterChunk(removedGround);
+		this.objectPlacer.removeChunk(removedGround);
+		this.objectPlacer.placeChunk(addedGround);
+		this.spatialIndex.registerChunk(addedGround);
+		if (this.colliderActivation != null) {
+			this.colliderActivation.registerChunk(addedGround);
+		}
+	}
+	
+	private boolean isLoadedIndex(int chunkIndex) {
+		return chunkIndex >= this.minChunkIndex && chunkIndex <= this.maxChunkIndex;
+	}
+	
+	private int minSectionAt(float viewCenterY) {
+		return BlockGrid.sectionAt(viewCenterY - this.viewHeight / 2 - InfiniteWorldManager.VERTICAL_MARGIN);
+	}
+	
+	private int maxSectionAt(float viewCenterY) {
+		return BlockGrid.sectionAt(viewCenterY + this.viewHeight / 2 + InfiniteWorldManager.VERTICAL_MARGIN);
+	}
+	
+	private BlockGrid gridAt(float x) {
+		if (this.lastGrid != null && this.lastGrid.containsX(x)) {
+			return this.lastGrid;
+		}
+		// Chunks are cut on block columns, so the column at the very end of a chunk's x range
+		// belongs to the next chunk
+		final int chunkIndex = ( int ) Math.floor(x / this.chunkWidth);
+		for ( int candidate = chunkIndex; candidate <= chunkIndex + 1; candidate++ ) {
+			final BlockGrid grid = this.grids.get(candidate);
+			if (grid != null && grid.containsX(x)) {
+				this.lastGrid = grid;
+				return grid;
+			}
+		}
+		return null;
+	}
+	
+	private static int countOf(Map< ObjectKind, List< GameObject > > objectsByKind, ObjectKind kind) {
+		final List< GameObject > group = objectsByKind.get(kind);
+		return group == null ? 0 : group.size();
+	}
+	
+	private static int totalCount(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		int count = 0;
+		for ( List< GameObject > group: objectsByKind.values() ) {
+			count += group.size();
 		}
-		this.chunks.remove(chunkRange);
+		return count;
 	}
 	
 	/**
@@ -2,6 +2,9 @@ package pepse.world;
 
 import danogl.GameObject;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Facade interface for managing game objects in the world.
  * Provides abstraction for object placement and removal operations.
@@ -20,4 +23,33 @@ public interface InfiniteWorldObjectPlacer {
 	 * @param gameObject The game object to remove from the world
 	 */
 	void removeObject(GameObject gameObject);
+	
+	/**
+	 * Places a whole chunk at once. Objects arrive grouped by kind, so an implementation can
+	 * resolve each group's layer once and add the group in one pass.
+	 * The default places objects one by one.
+	 *
+	 * @param objectsByKind The chunk's objects, grouped by kind
+	 */
+	default void placeChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( List< GameObject > group: objectsByKind.values() ) {
+			for ( GameObject obj: group ) {
+				this.placeObject(obj);
+			}
+		}
+	}
+	
+	/**
+	 * Removes a whole chunk at once, grouped the same way it was placed.
+	 * The default removes objects one by one.
+	 *
+	 * @param objectsByKind The chunk's objects, grouped by kind
+	 */
+	default void removeChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( List< GameObject > group: objectsByKind.values() ) {
+			for ( GameObject obj: group ) {
+				this.removeObject(obj);
+			}
+		}
+	}
 }
@@ -0,0 +1,57 @@
+package pepse.world;
+
+import danogl.GameObject;
+
+/**
+ * The kind of a world object, attached when the object is created.
+ * Used instead of string tags wherever objects are routed or classified at runtime.
+ */
+public enum ObjectKind {
+	/**
+	 * Terrain block.
+	 */
+	GROUND(true),
+	/**
+	 * Tree trunk block.
+	 */
+	TRUNK(true),
+	/**
+	 * Canopy leaf.
+	 */
+	LEAF(false),
+	/**
+	 * Collectible fruit.
+	 */
+	FRUIT(false),
+	/**
+	 * Any other block.
+	 */
+	BLOCK(false),
+	/**
+	 * Low-detail stand-in for the terrain or the trees of a distant chunk.
+	 */
+	IMPOSTOR(false);
+	
+	private final boolean supportsAvatar;
+	
+	ObjectKind(boolean supportsAvatar) {
+		this.supportsAvatar = supportsAvatar;
+	}
+	
+	/**
+	 * @return Whether the avatar can stand on objects of this kind.
+	 */
+	public boolean supportsAvatar() {
+		return this.supportsAvatar;
+	}
+	
+	/**
+	 * Returns the kind of any game object; objects that are not blocks count as {@link #BLOCK}.
+	 *
+	 * @param obj The object to classify
+	 * @return Its kind
+	 */
+	public static ObjectKind of(GameObject obj) {
+		return obj instanceof Block block ? block.getKind() : ObjectKind.BLOCK;
+	}
+}
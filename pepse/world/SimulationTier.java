@@ -0,0 +1,32 @@
+package pepse.world;
+
+/**
+ * How often the animated objects of a loaded chunk are updated, chosen by the chunk's distance from the view.
+ */
+public enum SimulationTier {
+	/**
+	 * On screen: every step.
+	 */
+	FULL(1),
+	/**
+	 * Just off screen: every few steps, each update covering the steps in between.
+	 */
+	REDUCED(4),
+	/**
+	 * Far off screen: not at all; the time is owed and caught up once the chunk is updated again.
+	 */
+	FROZEN(0);
+	
+	private final int stepInterval;
+	
+	SimulationTier(int stepInterval) {
+		this.stepInterval = stepInterval;
+	}
+	
+	/**
+	 * @return Steps from one update to the next, or 0 for never.
+	 */
+	public int getStepInterval() {
+		return this.stepInterval;
+	}
+}
@@ -0,0 +1,239 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers "which objects of a kind lie in this x range" and "which is nearest to this point"
+ * over the world's loaded objects without walking every chunk.
+ * Objects are bucketed by kind and by the block column of their left edge as chunks load, and
+ * forgotten as they unload. Queries visit only the columns the range can reach: the widest object
+ * of a kind seen so far widens the scan to the left, so wide objects (impostors) are not missed.
+ * Indexed objects are expected to stay where they were placed.
+ */
+public class SpatialIndex {
+	private final Map< ObjectKind, KindColumns > kinds = new EnumMap<>(ObjectKind.class);
+	
+	/**
+	 * Adds a chunk's objects, or any group of objects, by kind.
+	 *
+	 * @param objectsByKind Objects grouped by kind
+	 */
+	void registerChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			final KindColumns columns = this.kinds.computeIfAbsent(group.getKey(), kind -> new KindColumns());
+			for ( GameObject obj: group.getValue() ) {
+				columns.add(obj);
+			}
+		}
+	}
+	
+	/**
+	 * Removes objects added by {@link #registerChunk}; ones never added are ignored.
+	 *
+	 * @param objectsByKind Objects grouped by kind
+	 */
+	void unregisterChunk(Map< ObjectKind, List< GameObject > > objectsByKind) {
+		for ( Map.Entry< ObjectKind, List< GameObject > > group: objectsByKind.entrySet() ) {
+			final KindColumns columns = this.kinds.get(group.getKey());
+			if (columns == null) {
+				continue;
+			}
+			for ( GameObject obj: group.getValue() ) {
+				columns.remove(obj);
+			}
+		}
+	}
+	
+	/**
+	 * @param kind An object kind
+	 * @return Number of indexed objects of the kind
+	 */
+	public int count(ObjectKind kind) {
+		final KindColumns columns = this.kinds.get(kind);
+		return columns == null ? 0 : columns.size;
+	}
+	
+	/**
+	 * Finds the objects of a kind that overlap an x range.
+	 *
+	 * @param kind   The kind to look for
+	 * @param minX   Left end of the range
+	 * @param maxX   Right end of the range
+	 * @param result Receives the objects, in no particular order; not cleared first
+	 * @return Number of objects added to the result
+	 */
+	public int findInRange(ObjectKind kind, float minX, float maxX, List< GameObject > result) {
+		final KindColumns columns = this.kinds.get(kind);
+		if (columns == null || minX > maxX) {
+			return 0;
+		}
+		int found = 0;
+		final int lastColumn = SpatialIndex.columnAt(maxX);
+		for ( int column = SpatialIndex.columnAt(minX - columns.maxWidth); column <= lastColumn; column++ ) {
+			final List< GameObject > bucket = columns.columns.get(column);
+			if (bucket == null) {
+				continue;
+			}
+			for ( GameObject obj: bucket ) {
+				final float left = obj.getTopLeftCorner().x();
+				if (left <= maxX && left + obj.getDimensions().x() >= minX) {
+					result.add(obj);
+					found++;
+				}
+			}
+		}
+		return found;
+	}
+	
+	/**
+	 * Finds the object of a kind whose center is nearest to a point.
+	 *
+	 * @param kind        The kind to look for
+	 * @param point       The point
+	 * @param maxDistance Objects farther than this are not considered; infinite for no limit
+	 * @return The nearest object, or null if none is within the distance
+	 * @throws IllegalArgumentException If the distance is negative or NaN
+	 */
+	public GameObject findNearest(ObjectKind kind, Vector2 point, float maxDistance) {
+		if (! ( maxDistance >= 0 )) {
+			throw new IllegalArgumentException("Distance must be non-negative, got " + maxDistance);
+		}
+		final KindColumns columns = this.kinds.get(kind);
+		if (columns == null || columns.size == 0) {
+			return null;
+		}
+		columns.refreshBounds();
+		final float x = point.x();
+		final float y = point.y();
+		final int pointColumn = SpatialIndex.columnAt(x);
+		GameObject nearest = null;
+		// Overflows to infinity for huge distances, which still means no limit
+		float nearestDistanceSquared = maxDistance * maxDistance;
+		// Walk outward column by column on both sides until neither side can hold anything nearer,
+		// or has any occupied column left
+		boolean leftOpen = true;
+		boolean rightOpen = true;
+		// From a point outside the occupied columns, start at the nearest of them
+		final int firstOffset = Math.max(0, Math.max(columns.minColumn - pointColumn, pointColumn - columns.maxColumn));
+		for ( int offset = firstOffset; leftOpen || rightOpen; offset++ ) {
+			if (leftOpen) {
+				final int column = pointColumn - offset;
+				// An object starting in this column has its center at least this far left of the point
+				final float gap = Math.max(0, x - ( ( column + 1 ) * Block.SIZE + columns.maxWidth / 2 ));
+				if (column < columns.minColumn || gap * gap > nearestDistanceSquared) {
+					leftOpen = false;
+				} else {
+					nearest = columns.nearestInColumn(column, x, y, nearest, nearestDistanceSquared);
+					if (nearest != null) {
+						nearestDistanceSquared = SpatialIndex.distanceSquared(nearest, x, y);
+					}
+				}
+			}
+			if (rightOpen && offset > 0) {
+				final int column = pointColumn + offset;
+				final float gap = Math.max(0, column * Block.SIZE - x);
+				if (column > columns.maxColumn || gap * gap > nearestDistanceSquared) {
+					rightOpen = false;
+				} else {
+					nearest = columns.nearestInColumn(column, x, y, nearest, nearestDistanceSquared);
+					if (nearest != null) {
+						nearestDistanceSquared = SpatialIndex.distanceSquared(nearest, x, y);
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+	
+	private static int columnAt(float x) {
+		return ( int ) Math.floor(x / Block.SIZE);
+	}
+	
+	private static float distanceSquared(GameObject obj, float x, float y) {
+		final float dx = obj.getTopLeftCorner().x() + obj.getDimensions().x() / 2 - x;
+		final float dy = obj.getTopLeftCorner().y() + obj.getDimensions().y() / 2 - y;
+		return dx * dx + dy * dy;
+	}
+	
+	/**
+	 * The column buckets of one kind.
+	 */
+	private static class KindColumns {
+		final Map< Integer, List< GameObject > > columns = new HashMap<>();
+		// Widest object added so far; never shrinks, which only makes queries look a little further
+		float maxWidth = 0;
+		int size = 0;
+		// Leftmost and rightmost occupied columns; recomputed lazily once a bound's bucket empties
+		int minColumn = 0;
+		int maxColumn = 0;
+		boolean boundsStale = false;
+		
+		void add(GameObject obj) {
+			final int column = SpatialIndex.columnAt(obj.getTopLeftCorner().x());
+			this.columns.computeIfAbsent(column, key -> new ArrayList<>()).add(obj);
+			this.maxWidth = Math.max(this.maxWidth, obj.getDimensions().x());
+			if (this.size == 0) {
+				this.minColumn = column;
+				this.maxColumn = column;
+				this.boundsStale = false;
+			} else {
+				this.minColumn = Math.min(this.minColumn, column);
+				this.maxColumn = Math.max(this.maxColumn, column);
+			}
+			this.size++;
+		}
+		
+		void remove(GameObject obj) {
+			final int column = SpatialIndex.columnAt(obj.getTopLeftCorner().x());
+			final List< GameObject > bucket = this.columns.get(column);
+			if (bucket != null && bucket.remove(obj)) {
+				this.size--;
+				if (bucket.isEmpty()) {
+					this.columns.remove(column);
+					this.boundsStale |= column == this.minColumn || column == this.maxColumn;
+				}
+			}
+		}
+		
+		/**
+		 * Recomputes the occupied column bounds if a removal may have moved them.
+		 */
+		void refreshBounds() {
+			if (! this.boundsStale) {
+				return;
+			}
+			this.minColumn = Integer.MAX_VALUE;
+			this.maxColumn = Integer.MIN_VALUE;
+			for ( int column: this.columns.keySet() ) {
+				this.minColumn = Math.min(this.minColumn, column);
+				this.maxColumn = Math.max(this.maxColumn, column);
+			}
+			this.boundsStale = false;
+		}
+		
+		/**
+		 * @return The nearer of the given object and the column's nearest object within the distance.
+		 */
+		GameObject nearestInColumn(int column, float x, float y, GameObject nearest, float nearestDistanceSquared) {
+			final List< GameObject > bucket = this.columns.get(column);
+			if (bucket == null) {
+				return nearest;
+			}
+			for ( GameObject obj: bucket ) {
+				final float distanceSquared = SpatialIndex.distanceSquared(obj, x, y);
+				if (distanceSquared <= nearestDistanceSquared) {
+					nearest = obj;
+					nearestDistanceSquared = distanceSquared;
+				}
+			}
+			return nearest;
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Places and removes random objects in a {@link SpatialIndex}, a chunk's worth at a time, and
+ * checks every range and nearest query against a brute-force scan of the objects still placed.
+ * Most objects are one block wide; a few are as wide as impostors, so the widened scan is covered
+ * too, and nearest queries are asked with finite, huge and infinite distances.
+ * <p>
+ * Usage: {@code java pepse.world.SpatialIndexCheck}; exits with status 1 on a mismatch.
+ */
+public final class SpatialIndexCheck {
+	private static final long SEED = 42;
+	private static final int ROUNDS = 400;
+	private static final int QUERIES_PER_ROUND = 20;
+	private static final int GROUP_SIZE = 30;
+	// Objects are placed within this many pixels either side of zero
+	private static final float SPREAD = 4000;
+	private static final float WIDE_OBJECT_WIDTH = 8 * Block.SIZE;
+	private static final ObjectKind[] KINDS = { ObjectKind.GROUND, ObjectKind.IMPOSTOR };
+	
+	private SpatialIndexCheck() {
+	}
+	
+	/**
+	 * Entry point.
+	 */
+	public static void main(String[] args) {
+		final Random random = new Random(SpatialIndexCheck.SEED);
+		final SpatialIndex index = new SpatialIndex();
+		final List< Map< ObjectKind, List< GameObject > > > groups = new ArrayList<>();
+		int checked = 0;
+		int mismatched = 0;
+		for ( int round = 0; round < SpatialIndexCheck.ROUNDS; round++ ) {
+			// Mostly place, sometimes remove, so the index both fills and empties out at its ends
+			if (groups.isEmpty() || random.nextInt(3) != 0) {
+				final Map< ObjectKind, List< GameObject > > group = SpatialIndexCheck.randomGroup(random);
+				index.registerChunk(group);
+				groups.add(group);
+			} else {
+				index.unregisterChunk(groups.remove(random.nextInt(groups.size())));
+			}
+			for ( ObjectKind kind: SpatialIndexCheck.KINDS ) {
+				final List< GameObject > placed = SpatialIndexCheck.placed(groups, kind);
+				checked++;
+				if (index.count(kind) != placed.size()) {
+					mismatched++;
+					System.out.printf("Round %d: %s count %d, expected %d%n", round, kind, index.count(kind),
+							placed.size());
+				}
+				for ( int query = 0; query < SpatialIndexCheck.QUERIES_PER_ROUND; query++ ) {
+					final float minX = SpatialIndexCheck.randomX(random);
+					final float maxX = minX + random.nextFloat() * 20 * Block.SIZE;
+					checked++;
+					if (! SpatialIndexCheck.sameRange(index, kind, placed, minX, maxX)) {
+						mismatched++;
+						System.out.printf("Round %d: %s range [%s, %s] differs%n", round, kind, minX, maxX);
+					}
+					final Vector2 point = new Vector2(minX, random.nextFloat() * 1000);
+					final float maxDistance = SpatialIndexCheck.maxDistance(random, query);
+					checked++;
+					if (! SpatialIndexCheck.sameNearest(index, kind, placed, point, maxDistance)) {
+						mismatched++;
+						System.out.printf("Round %d: %s nearest to %s within %s differs%n", round, kind, point,
+								maxDistance);
+					}
+				}
+			}
+		}
+		System.out.printf("%d queries, %d mismatched%n", checked, mismatched);
+		System.out.println(mismatched == 0 ? "SPATIAL INDEX CHECK PASSED" : "SPATIAL INDEX CHECK FAILED");
+		System.exit(mismatched == 0 ? 0 : 1);
+	}
+	
+	/**
+	 * A chunk-like group of objects of every checked kind, clustered around one x.
+	 */
+	private static Map< ObjectKind, List< GameObject > > randomGroup(Random random) {
+		final Map< ObjectKind, List< GameObject > > group = new EnumMap<>(ObjectKind.class);
+		final float centerX = SpatialIndexCheck.randomX(random);
+		for ( ObjectKind kind: SpatialIndexCheck.KINDS ) {
+			final List< GameObject > objects = new ArrayList<>();
+			final int size = random.nextInt(SpatialIndexCheck.GROUP_SIZE);
+			for ( int i = 0; i < size; i++ ) {
+				final float width = random.nextInt(10) == 0 ? SpatialIndexCheck.WIDE_OBJECT_WIDTH : Block.SIZE;
+				final Vector2 topLeftCorner = new Vector2(centerX + ( random.nextFloat() - 0.5f ) * 40 * Block.SIZE,
+						random.nextFloat() * 1000);
+				objects.add(new GameObject(topLeftCorner, new Vector2(width, Block.SIZE), null));
+			}
+			group.put(kind, objects);
+		}
+		return group;
+	}
+	
+	private static float randomX(Random random) {
+		return ( random.nextFloat() * 2 - 1 ) * SpatialIndexCheck.SPREAD;
+	}
+	
+	/**
+	 * Cycles through a finite distance, no limit, and a limit whose square overflows.
+	 */
+	private static float maxDistance(Random random, int query) {
+		switch (query % 3) {
+			case 0:
+				return Float.POSITIVE_INFINITY;
+			case 1:
+				return Float.MAX_VALUE;
+			default:
+				return random.nextFloat() * 50 * Block.SIZE;
+		}
+	}
+	
+	private static List< GameObject > placed(List< Map< ObjectKind, List< GameObject > > > groups, ObjectKind kind) {
+		final List< GameObject > placed = new ArrayList<>();
+		for ( Map< ObjectKind, List< GameObject > > group: groups ) {
+			placed.addAll(group.get(kind));
+		}
+		return placed;
+	}
+	
+	private static boolean sameRange(SpatialIndex index, ObjectKind kind, List< GameObject > placed, float minX,
+			float maxX) {
+		final List< GameObject > expected = new ArrayList<>();
+		for ( GameObject obj: placed ) {
+			final float left = obj.getTopLeftCorner().x();
+			if (left <= maxX && left + obj.getDimensions().x() >= minX) {
+				expected.add(obj);
+			}
+		}
+		final List< GameObject > found = new ArrayList<>();
+		final int count = index.findInRange(kind, minX, maxX, found);
+		return count == found.size() && found.size() == expected.size()
+				&& new HashSet<>(found).equals(new HashSet<>(expected));
+	}
+	
+	/**
+	 * Whether the index finds an object exactly as near as the nearest one placed; ties may pick
+	 * either object.
+	 */
+	private static boolean sameNearest(SpatialIndex index, ObjectKind kind, List< GameObject > placed,
+			Vector2 point, float maxDistance) {
+		GameObject expected = null;
+		float expectedDistanceSquared = maxDistance * maxDistance;
+		for ( GameObject obj: placed ) {
+			final float distanceSquared = SpatialIndexCheck.distanceSquared(obj, point);
+			if (distanceSquared <= expectedDistanceSquared) {
+				expected = obj;
+				expectedDistanceSquared = distanceSquared;
+			}
+		}
+		final GameObject found = index.findNearest(kind, point, maxDistance);
+		if (expected == null || found == null) {
+			return expected == found;
+		}
+		return SpatialIndexCheck.distanceSquared(found, point) == expectedDistanceSquared;
+	}
+	
+	private static float distanceSquared(GameObject obj, Vector2 point) {
+		final float dx = obj.getTopLeftCorner().x() + obj.getDimensions().x() / 2 - point.x();
+		final float dy = obj.getTopLeftCorner().y() + obj.getDimensions().y() / 2 - point.y();
+		return dx * dx + dy * dy;
+	}
+}
@@ -1,9 +1,13 @@
 package pepse.world;
 
+import danogl.GameObject;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.util.NoiseGenerator;
+import pepse.world.jfr.TerrainGenerationEvent;
+import pepse.world.jfr.WorldEvents;
+import pepse.world.lod.SilhouetteRenderable;
 
 import java.awt.Color;
 import java.util.ArrayList;
@@ -13,18 +17,30 @@ import java.util.List;
  * Manages procedural terrain generation using noise and block-based construction.
  */
 public class Terrain {
+	/**
+	 * Amplitude passed to {@link NoiseGenerator#noise} for every height sample.
+	 */
+	public static final float NOISE_FACTOR = ( Block.SIZE * 11 );
+	
 	// Block tags and styling
 	private static final String GROUND_TAG = "ground";
 	private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
 	// Terrain generation parameters
 	private static final int TERRAIN_DEPTH = 20;
-	private static final float NOISE_FACTOR = ( Block.SIZE * 11 );
 	private static final float GROUND_HEIGHT_RATIO = 2.0f / 3.0f;
 	private static final int INITIAL_BLOCK_DEPTH = 0;
 	private static final int MAX_BLOCK_DEPTH = Terrain.TERRAIN_DEPTH;
+	// Column-top cache: direct-mapped by column index, so lookups are O(1) and allocation-free
+	private static final int COLUMN_CACHE_SIZE = 1024;
+	private static final int COLUMN_CACHE_MASK = Terrain.COLUMN_CACHE_SIZE - 1;
+	// Spacing of the height samples of a low-detail silhouette
+	private static final float SILHOUETTE_SAMPLE_SPACING = 2 * Block.SIZE;
 	
 	private final float groundHeightAtX0;
 	private final NoiseGenerator noiseGenerator;
+	private final int[] cachedColumns = new int[Terrain.COLUMN_CACHE_SIZE];
+	private final float[] cachedColumnTops = new float[Terrain.COLUMN_CACHE_SIZE];
+	private final boolean[] columnCached = new boolean[Terrain.COLUMN_CACHE_SIZE];
 	
 	/**
 	 * Creates a terrain generator with specified dimensions and randomization.
@@ -34,7 +50,19 @@ public class Terrain {
 	 */
 	public Terrain(Vector2 windowDimensions, int seed) {
 		this.groundHeightAtX0 = Terrain.GROUND_HEIGHT_RATIO * windowDimensions.y();
-		this.noiseGenerator = new NoiseGenerator(seed, ( int ) this.groundHeightAtX0);
+		this.noiseGenerator = Terrain.createNoiseGenerator(windowDimensions, seed);
+	}
+	
+	/**
+	 * Builds the noise generator a terrain samples its heights from, for measuring the noise
+	 * on its own. Sample it with {@link #NOISE_FACTOR}.
+	 *
+	 * @param windowDimensions The game window dimensions
+	 * @param seed             Random seed for terrain generation
+	 * @return A generator configured like the terrain's
+	 */
+	public static NoiseGenerator createNoiseGenerator(Vector2 windowDimensions, int seed) {
+		return new NoiseGenerator(seed, ( int ) ( Terrain.GROUND_HEIGHT_RATIO * windowDimensions.y() ));
 	}
 	
 	/**
@@ -48,6 +76,27 @@ public class Terrain {
 		return this.groundHeightAtX0 + ( float ) noiseVal;
 	}
 	
+	/**
+	 * Returns the y of the top surface of the terrain column containing x, aligned to the
+	 * block grid exactly as {@link #createInRange} places the topmost block.
+	 * Column tops are cached, so repeated queries cost one array lookup.
+	 *
+	 * @param x The x coordinate to check
+	 * @return Top y of the topmost ground block in that column
+	 */
+	public float blockTopAt(float x) {
+		final int column = ( int ) Math.floor(x / Block.SIZE);
+		final int slot = column & Terrain.COLUMN_CACHE_MASK;
+		if (this.columnCached[slot] && this.cachedColumns[slot] == column) {
+			return this.cachedColumnTops[slot];
+		}
+		final float top = this.alignedGroundHeightAt(column * Block.SIZE);
+		this.cachedColumns[slot] = column;
+		this.cachedColumnTops[slot] = top;
+		this.columnCached[slot] = true;
+		return top;
+	}
+	
 	/**
 	 * Generates terrain blocks within specified x-range.
 	 *
@@ -56,27 +105,126 @@ public class Terrain {
 	 * @return List of generated terrain blocks
 	 */
 	public List< Block > createInRange(int minX, int maxX) {
-		final List< Block > blocks = new ArrayList<>();
+		return this.create(this.describeRange(minX, maxX));
+	}
+	
+	/**
+	 * Builds a low-detail stand-in for the terrain within specified x-range: a single object
+	 * drawing the ground, as deep as the blocks go, as one strip through the column tops of
+	 * {@link #blockTopAt} sampled every few blocks, so trees still stand on it.
+	 * It has no colliders and ignores edits to the ground.
+	 *
+	 * @param minX Leftmost x coordinate
+	 * @param maxX Rightmost x coordinate
+	 * @return The silhouette object
+	 */
+	public GameObject createSilhouette(int minX, int maxX) {
+		final float width = maxX - minX;
+		final int samples = Math.max(2, Math.round(width / Terrain.SILHOUETTE_SAMPLE_SPACING) + 1);
+		final float depth = Terrain.MAX_BLOCK_DEPTH * Block.SIZE;
+		final float[] tops = new float[samples];
+		float minTop = Float.MAX_VALUE;
+		float maxTop = - Float.MAX_VALUE;
+		for ( int i = 0; i < samples; i++ ) {
+			tops[i] = this.blockTopAt(minX + i * width / ( samples - 1 ));
+			minTop = Math.min(minTop, tops[i]);
+			maxTop = Math.max(maxTop, tops[i]);
+		}
+		// Edges as fractions of the object's height, which runs from the highest top to the lowest bottom
+		final float height = maxTop + depth - minTop;
+		final float[] bottoms = new float[samples];
+		for ( int i = 0; i < samples; i++ ) {
+			tops[i] = ( tops[i] - minTop ) / height;
+			bottoms[i] = tops[i] + depth / height;
+		}
+		final GameObject silhouette = new GameObject(new Vector2(minX, minTop), new Vector2(width, height),
+				new SilhouetteRenderable(tops, bottoms, Terrain.BASE_GROUND_COLOR));
+		silhouette.setTag(Terrain.GROUND_TAG);
+		return silhouette;
+	}
+	
+	/**
+	 * Samples the terrain within specified x-range: column heights and block colours, but no
+	 * game objects yet.
+	 *
+	 * @param minX Leftmost x coordinate
+	 * @param maxX Rightmost x coordinate
+	 * @return Layout of the blocks in the range
+	 */
+	public GroundLayout describeRange(int minX, int maxX) {
+		final TerrainGenerationEvent event = new TerrainGenerationEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
 		
 		final int startCol = this.calculateStartColumn(minX);
 		final int endCol = this.calculateEndColumn(maxX);
+		final int columnCount = Math.max(0, ( endCol - startCol ) / Block.SIZE);
+		final float[] columnTops = new float[columnCount];
+		final int[] blockColors = new int[columnCount * Terrain.MAX_BLOCK_DEPTH];
 		
-		for ( int x = startCol; x < endCol; x += Block.SIZE ) {
-			float topY = this.groundHeightAt(x);
-			topY = ( float ) ( Math.floor(( topY / Block.SIZE )) * Block.SIZE );
-			
+		for ( int column = 0; column < columnCount; column++ ) {
+			columnTops[column] = this.blockTopAt(startCol + column * Block.SIZE);
 			for ( int depth = Terrain.INITIAL_BLOCK_DEPTH; depth < Terrain.MAX_BLOCK_DEPTH; depth++ ) {
+				blockColors[column * Terrain.MAX_BLOCK_DEPTH + depth] = this.nextBlockColor();
+			}
+		}
+		final GroundLayout layout = new GroundLayout(startCol, Terrain.MAX_BLOCK_DEPTH, columnTops, blockColors);
+		
+		if (event.shouldCommit()) {
+			event.chunkIndex = WorldEvents.chunkIndexAt(minX);
+			event.minX = minX;
+			event.maxX = maxX;
+			event.blockCount = layout.getBlockCount();
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
+		return layout;
+	}
+	
+	/**
+	 * Builds the ground blocks of a layout.
+	 *
+	 * @param layout Layout from {@link #describeRange}, possibly read back from a cache
+	 * @return The blocks, column by column from the top
+	 */
+	public List< Block > create(GroundLayout layout) {
+		final List< Block > blocks = new ArrayList<>(layout.getBlockCount());
+		for ( int column = 0; column < layout.getColumnCount(); column++ ) {
+			final int x = layout.getFirstColumnX() + column * Block.SIZE;
+			final float topY = layout.getColumnTop(column);
+			for ( int depth = 0; depth < layout.getDepth(); depth++ ) {
 				final float y = topY + ( depth * Block.SIZE );
-				final RectangleRenderable renderable =
-						new RectangleRenderable(ColorSupplier.approximateColor(Terrain.BASE_GROUND_COLOR));
-				final Block block = new Block(new Vector2(x, y), renderable);
-				block.setTag(Terrain.GROUND_TAG);
-				blocks.add(block);
+				blocks.add(this.createBlock(x, y, layout.getBlockColor(column, depth)));
 			}
 		}
 		return blocks;
 	}
 	
+	/**
+	 * Builds one ground block.
+	 *
+	 * @param x     Left x of the block
+	 * @param y     Top y of the block
+	 * @param color RGB of the block
+	 * @return The block
+	 */
+	Block createBlock(int x, float y, int color) {
+		final Block block = new Block(new Vector2(x, y), new RectangleRenderable(new Color(color)), ObjectKind.GROUND);
+		block.setTag(Terrain.GROUND_TAG);
+		return block;
+	}
+	
+	/**
+	 * @return RGB for a new ground block: the base ground colour, slightly varied.
+	 */
+	int nextBlockColor() {
+		return ColorSupplier.approximateColor(Terrain.BASE_GROUND_COLOR).getRGB();
+	}
+	
+	private float alignedGroundHeightAt(float x) {
+		return ( float ) ( Math.floor(( this.groundHeightAt(x) / Block.SIZE )) * Block.SIZE );
+	}
+	
 	private int calculateStartColumn(int minX) {
 		int startCol = ( minX / Block.SIZE ) * Block.SIZE;
 		if (minX < 0 && minX % Block.SIZE != 0) {
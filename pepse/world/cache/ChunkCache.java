@@ -0,0 +1,151 @@
+package pepse.world.cache;
+
+import danogl.util.Vector2;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On-disk cache of generated chunks, so a chunk seen before (in this session or an earlier one)
+ * is rebuilt from its stored {@link ChunkDescriptor} instead of sampling noise again.
+ * <p>
+ * Descriptors live in {@link RegionFile}s of {@link RegionFile#CHUNKS_PER_REGION} chunks each,
+ * named after the seed and window size. Each file also records {@link #GENERATOR_VERSION}, so
+ * bumping it whenever {@code Terrain} or {@code Flora} output changes retires every old file.
+ * Only a few region files are kept open at a time; the least recently used is closed first.
+ * Colours are part of the descriptor, so a cached chunk looks exactly as it did when first generated.
+ */
+public class ChunkCache implements AutoCloseable {
+	/**
+	 * Version of the world generators' output. Bump whenever a generator change would make
+	 * stored chunks differ from freshly generated ones.
+	 */
+	public static final int GENERATOR_VERSION = 1;
+	
+	private static final int MAX_OPEN_REGIONS = 8;
+	private static final String REGION_FILE_FORMAT = "s%d-%dx%d-r%d.region";
+	
+	private final Path directory;
+	private final int seed;
+	private final int windowWidth;
+	private final int windowHeight;
+	// Access-ordered, so iteration starts at the least recently used region
+	private final Map< Integer, RegionFile > openRegions = new LinkedHashMap<>(16, 0.75f, true);
+	
+	/**
+	 * Opens (creating if needed) a cache directory.
+	 *
+	 * @param directory        Directory holding the region files
+	 * @param seed             World seed
+	 * @param windowDimensions Window size; the width is the chunk width and the height sets the
+	 *                         ground level, so both shape the generated chunks
+	 * @throws UncheckedIOException If the directory cannot be created
+	 */
+	public ChunkCache(Path directory, int seed, Vector2 windowDimensions) {
+		this.directory = directory;
+		this.seed = seed;
+		this.windowWidth = ( int ) windowDimensions.x();
+		this.windowHeight = ( int ) windowDimensions.y();
+		try {
+			Files.createDirectories(directory);
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot create chunk cache " + directory, e);
+		}
+	}
+	
+	/**
+	 * Checks whether a chunk is stored, without decoding it.
+	 *
+	 * @param chunkIndex The chunk
+	 * @return True if the chunk was stored
+	 * @throws UncheckedIOException If the region file cannot be opened
+	 */
+	public boolean contains(int chunkIndex) {
+		try {
+			return this.regionOf(chunkIndex).contains(ChunkCache.slotOf(chunkIndex));
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot open the region of chunk " + chunkIndex + " in " + this.directory, e);
+		}
+	}
+	
+	/**
+	 * Looks a chunk up.
+	 *
+	 * @param chunkIndex The chunk
+	 * @return Its stored descriptor, or null if it was never stored or cannot be decoded
+	 * @throws UncheckedIOException If the region file cannot be read
+	 */
+	public ChunkDescriptor read(int chunkIndex) {
+		try {
+			final ByteBuffer data = this.regionOf(chunkIndex).read(ChunkCache.slotOf(chunkIndex));
+			return data == null ? null : ChunkDescriptor.decode(data);
+		} catch ( BufferUnderflowException | IllegalArgumentException e ) {
+			// A damaged entry is a miss; the chunk is generated and stored again
+			return null;
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot read chunk " + chunkIndex + " from " + this.directory, e);
+		}
+	}
+	
+	/**
+	 * Stores a chunk.
+	 *
+	 * @param chunkIndex The chunk
+	 * @param descriptor Its generated content
+	 * @throws UncheckedIOException If the region file cannot be written
+	 */
+	public void write(int chunkIndex, ChunkDescriptor descriptor) {
+		try {
+			this.regionOf(chunkIndex).write(ChunkCache.slotOf(chunkIndex), descriptor.encode());
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot write chunk " + chunkIndex + " to " + this.directory, e);
+		}
+	}
+	
+	/**
+	 * Closes every open region file.
+	 *
+	 * @throws UncheckedIOException If a file cannot be closed
+	 */
+	@Override
+	public void close() {
+		try {
+			for ( RegionFile region: this.openRegions.values() ) {
+				region.close();
+			}
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot close chunk cache " + this.directory, e);
+		} finally {
+			this.openRegions.clear();
+		}
+	}
+	
+	private RegionFile regionOf(int chunkIndex) throws IOException {
+		final int regionIndex = Math.floorDiv(chunkIndex, RegionFile.CHUNKS_PER_REGION);
+		RegionFile region = this.openRegions.get(regionIndex);
+		if (region != null) {
+			return region;
+		}
+		if (this.openRegions.size() >= ChunkCache.MAX_OPEN_REGIONS) {
+			final Iterator< RegionFile > leastRecentlyUsed = this.openRegions.values().iterator();
+			leastRecentlyUsed.next().close();
+			leastRecentlyUsed.remove();
+		}
+		final Path path = this.directory.resolve(String.format(ChunkCache.REGION_FILE_FORMAT, this.seed,
+				this.windowWidth, this.windowHeight, regionIndex));
+		region = new RegionFile(path, ChunkCache.GENERATOR_VERSION, this.seed, this.windowWidth, this.windowHeight);
+		this.openRegions.put(regionIndex, region);
+		return region;
+	}
+	
+	private static int slotOf(int chunkIndex) {
+		return Math.floorMod(chunkIndex, RegionFile.CHUNKS_PER_REGION);
+	}
+}
@@ -0,0 +1,62 @@
+package pepse.world.cache;
+
+import pepse.world.GroundLayout;
+import pepse.world.trees.FloraLayout;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The generated content of one chunk, without any game objects: its ground and tree layouts.
+ * Small enough to keep on disk, and enough to rebuild the chunk without running the generators.
+ */
+public final class ChunkDescriptor {
+	private final GroundLayout ground;
+	private final FloraLayout flora;
+	
+	/**
+	 * Creates a descriptor.
+	 *
+	 * @param ground The chunk's ground
+	 * @param flora  The chunk's trees
+	 */
+	public ChunkDescriptor(GroundLayout ground, FloraLayout flora) {
+		this.ground = ground;
+		this.flora = flora;
+	}
+	
+	/**
+	 * @return The chunk's ground.
+	 */
+	public GroundLayout getGround() {
+		return this.ground;
+	}
+	
+	/**
+	 * @return The chunk's trees.
+	 */
+	public FloraLayout getFlora() {
+		return this.flora;
+	}
+	
+	/**
+	 * @return The descriptor encoded as bytes, ready to read.
+	 */
+	ByteBuffer encode() {
+		final ByteBuffer buffer = ByteBuffer.allocate(this.ground.encodedSize() + this.flora.encodedSize());
+		this.ground.writeTo(buffer);
+		this.flora.writeTo(buffer);
+		return buffer.flip();
+	}
+	
+	/**
+	 * Decodes a descriptor written by {@link #encode()}.
+	 *
+	 * @param buffer The encoded descriptor
+	 * @return The descriptor
+	 */
+	static ChunkDescriptor decode(ByteBuffer buffer) {
+		final GroundLayout ground = GroundLayout.readFrom(buffer);
+		final FloraLayout flora = FloraLayout.readFrom(buffer);
+		return new ChunkDescriptor(ground, flora);
+	}
+}
@@ -0,0 +1,176 @@
+package pepse.world.cache;
+
+import danogl.util.Vector2;
+import pepse.world.Terrain;
+import pepse.world.trees.Flora;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Offline tool that fills a {@link ChunkCache} ahead of time, so the game travels on a warm cache
+ * and never runs the generators at runtime.
+ * <p>
+ * Chunks are described in parallel, one task per chunk on a pool of worker threads.
+ * {@link Terrain} keeps a column cache and is not thread-safe, so every worker has its own
+ * {@code Terrain} and {@link Flora}. Their geometry (column heights, where trees grow and how
+ * tall) is deterministic per seed, so the world's shape does not depend on which worker generated
+ * a chunk. Block colours are not: both vary them with the unseeded
+ * {@link pepse.util.ColorSupplier}, so two runs write caches of the same shape with differently
+ * shaded blocks. The cache itself is written from the calling thread only, as finished chunks come
+ * back. Chunks already in the cache are skipped, so an interrupted run can simply be repeated.
+ * <p>
+ * Usage: {@code java pepse.world.cache.ChunkPregenerator [--from CHUNK] [--to CHUNK] [--seed S]
+ * [--threads N] [--cache DIR] [--width PX] [--height PX]}; generates chunks {@code from}
+ * (inclusive) to {@code to} (exclusive). The seed and window size must match the game's, as they
+ * key the cache files.
+ */
+public class ChunkPregenerator {
+	private static final int DEFAULT_FROM_CHUNK = - 256;
+	private static final int DEFAULT_TO_CHUNK = 256;
+	private static final int DEFAULT_SEED = 42;
+	private static final String DEFAULT_CACHE_DIRECTORY = "cache";
+	private static final int DEFAULT_WINDOW_WIDTH = 1024;
+	private static final int DEFAULT_WINDOW_HEIGHT = 768;
+	// Chunks handed out ahead of the writer per worker, enough to keep every worker busy
+	private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 4;
+	private static final double NANOS_PER_SECOND = 1e9;
+	
+	private final int chunkWidth;
+	private final ThreadLocal< Terrain > terrains;
+	private final ThreadLocal< Flora > floras;
+	
+	/**
+	 * Creates a pre-generator for one world.
+	 *
+	 * @param windowDimensions Window size the game runs at; the width is the chunk width
+	 * @param seed             World seed
+	 */
+	public ChunkPregenerator(Vector2 windowDimensions, int seed) {
+		this.chunkWidth = ( int ) windowDimensions.x();
+		this.terrains = ThreadLocal.withInitial(() -> new Terrain(windowDimensions, seed));
+		this.floras = ThreadLocal.withInitial(() -> new Flora(this.terrains.get() :: groundHeightAt, seed));
+	}
+	
+	/**
+	 * Generates every missing chunk of a range and stores it.
+	 *
+	 * @param cache     Destination cache, for the same seed and window size
+	 * @param fromChunk First chunk, inclusive
+	 * @param toChunk   Last chunk, exclusive
+	 * @param threads   Number of worker threads
+	 * @return Number of chunks generated
+	 * @throws IllegalStateException If interrupted or a chunk fails to generate
+	 */
+	public int pregenerate(ChunkCache cache, int fromChunk, int toChunk, int threads) {
+		final ExecutorService workers = Executors.newFixedThreadPool(threads);
+		final CompletionService< GeneratedChunk > completed = new ExecutorCompletionService<>(workers);
+		final int maxInFlight = threads * ChunkPregenerator.CHUNKS_IN_FLIGHT_PER_THREAD;
+		int inFlight = 0;
+		int generated = 0;
+		try {
+			for ( int chunkIndex = fromChunk; chunkIndex < toChunk; chunkIndex++ ) {
+				if (cache.contains(chunkIndex)) {
+					continue;
+				}
+				if (inFlight == maxInFlight) {
+					ChunkPregenerator.store(cache, completed);
+					inFlight--;
+					generated++;
+				}
+				final int index = chunkIndex;
+				completed.submit(() -> this.generate(index));
+				inFlight++;
+			}
+			for ( ; inFlight > 0; inFlight-- ) {
+				ChunkPregenerator.store(cache, completed);
+				generated++;
+			}
+		} finally {
+			workers.shutdownNow();
+		}
+		return generated;
+	}
+	
+	/**
+	 * Entry point; prints how many chunks were generated and the rate.
+	 */
+	public static void main(String[] args) {
+		int fromChunk = ChunkPregenerator.DEFAULT_FROM_CHUNK;
+		int toChunk = ChunkPregenerator.DEFAULT_TO_CHUNK;
+		int seed = ChunkPregenerator.DEFAULT_SEED;
+		int threads = Runtime.getRuntime().availableProcessors();
+		Path directory = Paths.get(ChunkPregenerator.DEFAULT_CACHE_DIRECTORY);
+		int windowWidth = ChunkPregenerator.DEFAULT_WINDOW_WIDTH;
+		int windowHeight = ChunkPregenerator.DEFAULT_WINDOW_HEIGHT;
+		for ( int i = 0; i + 1 < args.length; i += 2 ) {
+			switch ( args[i] ) {
+				case "--from" -> fromChunk = Integer.parseInt(args[i + 1]);
+				case "--to" -> toChunk = Integer.parseInt(args[i + 1]);
+				case "--seed" -> seed = Integer.parseInt(args[i + 1]);
+				case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+				case "--cache" -> directory = Paths.get(args[i + 1]);
+				case "--width" -> windowWidth = Integer.parseInt(args[i + 1]);
+				case "--height" -> windowHeight = Integer.parseInt(args[i + 1]);
+				default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		if (toChunk <= fromChunk || threads < 1) {
+			throw new IllegalArgumentException("Need --from < --to and at least one thread");
+		}
+		
+		final Vector2 windowDimensions = new Vector2(windowWidth, windowHeight);
+		System.out.printf("Pre-generating chunks [%d, %d): seed=%d window=%dx%d threads=%d cache=%s%n",
+				fromChunk, toChunk, seed, windowWidth, windowHeight, threads, directory);
+		final long start = System.nanoTime();
+		final int generated;
+		try ( ChunkCache cache = new ChunkCache(directory, seed, windowDimensions) ) {
+			generated = new ChunkPregenerator(windowDimensions, seed).pregenerate(cache, fromChunk, toChunk,
+					threads);
+		}
+		final double seconds = ( System.nanoTime() - start ) / ChunkPregenerator.NANOS_PER_SECOND;
+		System.out.printf("Generated %d chunks (%d already cached) in %.2f s: %.0f chunks/s%n", generated,
+				toChunk - fromChunk - generated, seconds, generated / seconds);
+	}
+	
+	/**
+	 * Describes one chunk with this thread's generators, exactly as the world manager would.
+	 */
+	private GeneratedChunk generate(int chunkIndex) {
+		final int minX = chunkIndex * this.chunkWidth;
+		final int maxX = minX + this.chunkWidth;
+		return new GeneratedChunk(chunkIndex, new ChunkDescriptor(this.terrains.get().describeRange(minX, maxX),
+				this.floras.get().describeRange(minX, maxX)));
+	}
+	
+	/**
+	 * Waits for the next finished chunk and writes it to the cache.
+	 */
+	private static void store(ChunkCache cache, CompletionService< GeneratedChunk > completed) {
+		final GeneratedChunk chunk;
+		try {
+			chunk = completed.take().get();
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while pre-generating chunks", e);
+		} catch ( ExecutionException e ) {
+			throw new IllegalStateException("Cannot generate a chunk", e.getCause());
+		}
+		cache.write(chunk.chunkIndex, chunk.descriptor);
+	}
+	
+	private static final class GeneratedChunk {
+		final int chunkIndex;
+		final ChunkDescriptor descriptor;
+		
+		GeneratedChunk(int chunkIndex, ChunkDescriptor descriptor) {
+			this.chunkIndex = chunkIndex;
+			this.descriptor = descriptor;
+		}
+	}
+}
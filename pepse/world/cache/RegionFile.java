@@ -0,0 +1,156 @@
+package pepse.world.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * One file holding the descriptors of {@link #CHUNKS_PER_REGION} consecutive chunks.
+ * <p>
+ * Layout: a header (magic, generator version, seed, window width and height), then an offset/length
+ * table with one entry per chunk, then the descriptors, appended as they are written.
+ * Reads go through a read-only memory mapping of the whole file, remapped after it grows, so a cached
+ * chunk is decoded straight from the page cache without a read call. A file whose header does not
+ * match the current generator and world is stale and is emptied on open.
+ */
+class RegionFile implements AutoCloseable {
+	/**
+	 * Chunks per region file.
+	 */
+	static final int CHUNKS_PER_REGION = 32;
+	
+	// "PRGN" in ASCII
+	private static final int MAGIC = 0x5052474E;
+	private static final int KEY_FIELDS = 5;
+	private static final int TABLE_OFFSET = RegionFile.KEY_FIELDS * Integer.BYTES;
+	private static final int ENTRY_SIZE = 2 * Integer.BYTES;
+	private static final int HEADER_SIZE = RegionFile.TABLE_OFFSET + RegionFile.CHUNKS_PER_REGION * RegionFile.ENTRY_SIZE;
+	
+	private final FileChannel channel;
+	private final int[] offsets = new int[RegionFile.CHUNKS_PER_REGION];
+	private final int[] lengths = new int[RegionFile.CHUNKS_PER_REGION];
+	private long size;
+	private MappedByteBuffer mapped = null;
+	
+	/**
+	 * Opens a region file, creating it or emptying it if it is missing, damaged or stale.
+	 *
+	 * @param path             The file
+	 * @param generatorVersion Current generator version
+	 * @param seed             World seed
+	 * @param windowWidth      Window width, which is also the chunk width
+	 * @param windowHeight     Window height, which sets the ground level
+	 * @throws IOException If the file cannot be opened or initialized
+	 */
+	RegionFile(Path path, int generatorVersion, int seed, int windowWidth, int windowHeight) throws IOException {
+		this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE);
+		final int[] key = { RegionFile.MAGIC, generatorVersion, seed, windowWidth, windowHeight };
+		if (! this.readHeader(key)) {
+			this.writeEmptyHeader(key);
+		}
+	}
+	
+	/**
+	 * @param slot Chunk slot in [0, CHUNKS_PER_REGION)
+	 * @return True if the chunk's descriptor was written
+	 */
+	boolean contains(int slot) {
+		return this.lengths[slot] != 0;
+	}
+	
+	/**
+	 * @param slot Chunk slot in [0, CHUNKS_PER_REGION)
+	 * @return A read-only view of the chunk's descriptor bytes, or null if it was never written
+	 * @throws IOException If the file cannot be mapped
+	 */
+	ByteBuffer read(int slot) throws IOException {
+		if (this.lengths[slot] == 0) {
+			return null;
+		}
+		if (this.mapped == null) {
+			this.mapped = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, this.size);
+		}
+		return this.mapped.slice(this.offsets[slot], this.lengths[slot]);
+	}
+	
+	/**
+	 * Appends a chunk's descriptor and points the chunk's table entry at it.
+	 *
+	 * @param slot Chunk slot in [0, CHUNKS_PER_REGION)
+	 * @param data The encoded descriptor
+	 * @throws IOException If the file cannot be written
+	 */
+	void write(int slot, ByteBuffer data) throws IOException {
+		final int offset = ( int ) this.size;
+		final int length = data.remaining();
+		while ( data.hasRemaining() ) {
+			this.channel.write(data, this.size + length - data.remaining());
+		}
+		// Data first, then the entry that makes it visible
+		final ByteBuffer entry = ByteBuffer.allocate(RegionFile.ENTRY_SIZE).putInt(offset).putInt(length).flip();
+		this.channel.write(entry, RegionFile.TABLE_OFFSET + ( long ) slot * RegionFile.ENTRY_SIZE);
+		this.offsets[slot] = offset;
+		this.lengths[slot] = length;
+		this.size += length;
+		this.mapped = null;
+	}
+	
+	@Override
+	public void close() throws IOException {
+		this.mapped = null;
+		this.channel.close();
+	}
+	
+	/**
+	 * Loads the offset table if the header matches the key and every entry lies inside the file.
+	 */
+	private boolean readHeader(int[] key) throws IOException {
+		this.size = this.channel.size();
+		if (this.size < RegionFile.HEADER_SIZE) {
+			return false;
+		}
+		final ByteBuffer header = ByteBuffer.allocate(RegionFile.HEADER_SIZE);
+		while ( header.hasRemaining() ) {
+			if (this.channel.read(header, header.position()) < 0) {
+				return false;
+			}
+		}
+		header.flip();
+		for ( int field: key ) {
+			if (header.getInt() != field) {
+				return false;
+			}
+		}
+		for ( int slot = 0; slot < RegionFile.CHUNKS_PER_REGION; slot++ ) {
+			this.offsets[slot] = header.getInt();
+			this.lengths[slot] = header.getInt();
+			final boolean written = this.lengths[slot] != 0;
+			if (this.lengths[slot] < 0 || written && ( this.offsets[slot] < RegionFile.HEADER_SIZE
+					                                           || ( long ) this.offsets[slot] + this.lengths[slot] > this.size )) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private void writeEmptyHeader(int[] key) throws IOException {
+		this.channel.truncate(0);
+		final ByteBuffer header = ByteBuffer.allocate(RegionFile.HEADER_SIZE);
+		for ( int field: key ) {
+			header.putInt(field);
+		}
+		// The table stays zeroed: every chunk is missing
+		header.position(RegionFile.HEADER_SIZE).flip();
+		while ( header.hasRemaining() ) {
+			this.channel.write(header, header.position());
+		}
+		this.size = RegionFile.HEADER_SIZE;
+		Arrays.fill(this.offsets, 0);
+		Arrays.fill(this.lengths, 0);
+	}
+}
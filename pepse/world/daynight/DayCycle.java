@@ -0,0 +1,50 @@
+package pepse.world.daynight;
+
+/**
+ * The time of day, shared by everything that follows the day/night cycle.
+ * A plain clock advanced once per frame, so the time can be read and set directly
+ * (e.g. when a saved session is restored).
+ */
+public class DayCycle {
+	private final float cycleLength;
+	private float time = 0;
+	
+	/**
+	 * Creates a clock at the start of the cycle (noon, with the sun at its highest).
+	 *
+	 * @param cycleLength Duration of a full day/night cycle in seconds
+	 */
+	public DayCycle(float cycleLength) {
+		this.cycleLength = cycleLength;
+	}
+	
+	/**
+	 * Advances the clock.
+	 *
+	 * @param deltaTime Elapsed time in seconds
+	 */
+	public void update(float deltaTime) {
+		this.time = ( this.time + deltaTime ) % this.cycleLength;
+	}
+	
+	/**
+	 * @return Seconds since the start of the current cycle, in [0, cycle length).
+	 */
+	public float getTime() {
+		return this.time;
+	}
+	
+	/**
+	 * @param time Seconds since the start of a cycle; wrapped into the cycle
+	 */
+	public void setTime(float time) {
+		this.time = ( ( time % this.cycleLength ) + this.cycleLength ) % this.cycleLength;
+	}
+	
+	/**
+	 * @return Fraction of the cycle elapsed, in [0, 1).
+	 */
+	public float getPhase() {
+		return this.time / this.cycleLength;
+	}
+}
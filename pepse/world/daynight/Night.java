@@ -10,7 +10,7 @@ import java.awt.Color;
 
 /**
  * Controls the day/night cycle by managing a black overlay that transitions between
- * transparent and semi-transparent.
+ * transparent and semi-transparent, following a {@link DayCycle}: darkest halfway through it.
  */
 public class Night {
 	private static final float MIDNIGHT_OPACITY = 0.5f;
@@ -25,26 +25,23 @@ public class Night {
 	 * Creates a night overlay GameObject that cycles between day and night.
 	 *
 	 * @param windowDimensions The dimensions of the game window
-	 * @param cycleLength      The duration of a full day/night cycle in seconds
+	 * @param dayCycle         Clock setting the overlay's opacity
 	 * @return GameObject representing the night overlay
 	 */
-	public static GameObject create(Vector2 windowDimensions, float cycleLength) {
+	public static GameObject create(Vector2 windowDimensions, DayCycle dayCycle) {
 		final RectangleRenderable nightRenderable = new RectangleRenderable(Color.BLACK);
 		final GameObject night = new GameObject(Vector2.ZERO, windowDimensions, nightRenderable);
 		night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		night.setTag(Night.NIGHT_TAG);
 		night.renderer().setOpaqueness(Night.NOON_OPACITY);
 		
-		new Transition<>(
-				night,
-				night.renderer() :: setOpaqueness,
-				Night.NOON_OPACITY,
-				Night.MIDNIGHT_OPACITY,
-				Transition.CUBIC_INTERPOLATOR_FLOAT,
-				cycleLength / Night.HALF_CYCLE,
-				Transition.TransitionType.TRANSITION_BACK_AND_FORTH,
-				null
-		);
+		night.addComponent(deltaTime -> {
+			// Noon to midnight over the first half of the cycle, and back over the second
+			final float halfCyclePhase = dayCycle.getPhase() * Night.HALF_CYCLE;
+			final float progress = halfCyclePhase <= 1 ? halfCyclePhase : Night.HALF_CYCLE - halfCyclePhase;
+			night.renderer().setOpaqueness(Transition.CUBIC_INTERPOLATOR_FLOAT.interpolate(
+					Night.NOON_OPACITY, Night.MIDNIGHT_OPACITY, progress));
+		});
 		return night;
 	}
 }
@@ -2,7 +2,6 @@ package pepse.world.daynight;
 
 import danogl.GameObject;
 import danogl.components.CoordinateSpace;
-import danogl.components.Transition;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
@@ -11,7 +10,7 @@ import java.awt.Color;
 
 /**
  * Manages the sun object that rotates in a circular path in the game world.
- * The sun completes one full rotation cycle based on the provided cycle length.
+ * The sun completes one full rotation per cycle of the given {@link DayCycle}.
  */
 public class Sun {
 	private static final Color SUN_COLOR = Color.YELLOW;
@@ -35,10 +34,10 @@ public class Sun {
 	 * Creates and configures a sun GameObject that orbits above the horizon.
 	 *
 	 * @param windowDimensions The game window dimensions for positioning
-	 * @param cycleLength      Duration of one complete sun rotation cycle
+	 * @param dayCycle         Clock setting the sun's angle
 	 * @return A configured sun GameObject ready for the game world
 	 */
-	public static GameObject create(Vector2 windowDimensions, float cycleLength) {
+	public static GameObject create(Vector2 windowDimensions, DayCycle dayCycle) {
 		final Vector2 cycleCenter = new Vector2(
 				windowDimensions.x() * Sun.HORIZON_X_FACTOR,
 				windowDimensions.y() * Sun.HORIZON_Y_FACTOR
@@ -55,18 +54,10 @@ public class Sun {
 		sun.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
 		sun.setTag(Sun.SUN_TAG);
 		
-		new Transition< Float >(
-				sun,
-				(angle) -> {
-					sun.setCenter(Sun.initialSunCenter.subtract(cycleCenter).rotated(angle).add(cycleCenter));
-				},
-				Sun.START_ANGLE,
-				Sun.FULL_CYCLE_DEGREES,
-				Transition.LINEAR_INTERPOLATOR_FLOAT,
-				cycleLength,
-				Transition.TransitionType.TRANSITION_LOOP,
-				null
-		);
+		sun.addComponent(deltaTime -> {
+			final float angle = Sun.START_ANGLE + dayCycle.getPhase() * Sun.FULL_CYCLE_DEGREES;
+			sun.setCenter(Sun.initialSunCenter.subtract(cycleCenter).rotated(angle).add(cycleCenter));
+		});
 		
 		return sun;
 	}
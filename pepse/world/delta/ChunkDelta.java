@@ -0,0 +1,73 @@
+package pepse.world.delta;
+
+import pepse.world.trees.EatenFruit;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The changes a player made to one chunk, relative to what the seed generates: the ground cells
+ * set to another material, and the fruits that were eaten when the chunk was last unloaded.
+ * Later changes to the same cell replace earlier ones.
+ */
+public final class ChunkDelta {
+	private static final int CELL_X_SHIFT = 32;
+	private static final long CELL_Y_MASK = 0xFFFFFFFFL;
+	
+	/**
+	 * Receives the changed cells of a delta.
+	 */
+	public interface BlockVisitor {
+		/**
+		 * @param cellX    Block column of the cell
+		 * @param cellY    Block row of the cell
+		 * @param material The cell's material
+		 */
+		void visit(int cellX, int cellY, byte material);
+	}
+	
+	private final Map< Long, Byte > blocks = new LinkedHashMap<>();
+	private List< EatenFruit > eatenFruits = List.of();
+	
+	/**
+	 * @return True if nothing in the chunk differs from the generated one.
+	 */
+	public boolean isEmpty() {
+		return this.blocks.isEmpty() && this.eatenFruits.isEmpty();
+	}
+	
+	/**
+	 * @return Number of changed cells.
+	 */
+	public int getBlockCount() {
+		return this.blocks.size();
+	}
+	
+	/**
+	 * Visits every changed cell, in the order the cells were first changed.
+	 *
+	 * @param visitor Receives each cell
+	 */
+	public void forEachBlock(BlockVisitor visitor) {
+		for ( Map.Entry< Long, Byte > cell: this.blocks.entrySet() ) {
+			final long key = cell.getKey();
+			visitor.visit(( int ) ( key >> ChunkDelta.CELL_X_SHIFT ), ( int ) key, cell.getValue());
+		}
+	}
+	
+	/**
+	 * @return The fruits eaten when the chunk was last unloaded.
+	 */
+	public List< EatenFruit > getEatenFruits() {
+		return this.eatenFruits;
+	}
+	
+	void setBlock(int cellX, int cellY, byte material) {
+		this.blocks.put(( ( long ) cellX << ChunkDelta.CELL_X_SHIFT ) | ( cellY & ChunkDelta.CELL_Y_MASK ), material);
+	}
+	
+	void setEatenFruits(List< EatenFruit > eatenFruits) {
+		this.eatenFruits = List.copyOf(eatenFruits);
+	}
+}
@@ -0,0 +1,252 @@
+package pepse.world.delta;
+
+import danogl.util.Vector2;
+import pepse.world.trees.EatenFruit;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persists what players change in the world as per-chunk deltas against the seed, so only the
+ * changes are stored and a chunk is rebuilt by generating it and applying its delta.
+ * <p>
+ * Every change is appended as a record to the chunk's log file. Once a log grows past
+ * {@link #COMPACTION_THRESHOLD_BYTES}, it is folded into the chunk's snapshot file (written to a
+ * temporary file that then replaces the old snapshot) and deleted. Appends and compactions run
+ * in order on one background thread, so the game thread never waits on the disk for a change.
+ * Deltas are read on the game thread the first time their chunk loads and are kept in memory
+ * afterwards; a chunk with no files is not read at all.
+ * Files live in a subdirectory named after the seed and window size, in the format of {@link DeltaCodec}.
+ */
+public class ChunkDeltaStore implements AutoCloseable {
+	/**
+	 * Log size above which a chunk's log is folded into its snapshot.
+	 */
+	public static final int COMPACTION_THRESHOLD_BYTES = 4096;
+	
+	private static final Logger LOGGER = Logger.getLogger(ChunkDeltaStore.class.getName());
+	private static final String WORLD_DIRECTORY_FORMAT = "s%d-%dx%d";
+	private static final String LOG_FORMAT = "c%d.log";
+	private static final String SNAPSHOT_FORMAT = "c%d.snap";
+	private static final String TEMPORARY_SUFFIX = ".tmp";
+	private static final Pattern FILE_NAME = Pattern.compile("c(-?\\d+)\\.(log|snap)");
+	private static final long CLOSE_TIMEOUT_SECONDS = 5;
+	
+	private final Path directory;
+	// Chunks that had files when the store was opened
+	private final Set< Integer > chunksOnDisk = new HashSet<>();
+	// Game thread only: deltas of the chunks read or changed so far, and the size of their logs
+	private final Map< Integer, ChunkDelta > deltas = new HashMap<>();
+	private final Map< Integer, Long > logSizes = new HashMap<>();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(task -> {
+		final Thread thread = new Thread(task, "pepse-delta-writer");
+		thread.setDaemon(true);
+		return thread;
+	});
+	
+	/**
+	 * Opens (creating if needed) the deltas of one world.
+	 *
+	 * @param directory        Directory holding the deltas of every world
+	 * @param seed             World seed
+	 * @param windowDimensions Window size, which shapes the generated world the deltas apply to
+	 * @throws UncheckedIOException If the directory cannot be created or listed
+	 */
+	public ChunkDeltaStore(Path directory, int seed, Vector2 windowDimensions) {
+		this.directory = directory.resolve(String.format(ChunkDeltaStore.WORLD_DIRECTORY_FORMAT, seed,
+				( int ) windowDimensions.x(), ( int ) windowDimensions.y()));
+		try {
+			Files.createDirectories(this.directory);
+			try ( DirectoryStream< Path > files = Files.newDirectoryStream(this.directory) ) {
+				for ( Path file: files ) {
+					final Matcher matcher = ChunkDeltaStore.FILE_NAME.matcher(file.getFileName().toString());
+					if (matcher.matches()) {
+						this.chunksOnDisk.add(Integer.parseInt(matcher.group(1)));
+					}
+				}
+			}
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot open chunk deltas in " + this.directory, e);
+		}
+	}
+	
+	/**
+	 * Looks up a chunk's changes.
+	 *
+	 * @param chunkIndex The chunk
+	 * @return Its delta, or null if it was never changed
+	 * @throws UncheckedIOException If the chunk's files cannot be read
+	 */
+	public ChunkDelta get(int chunkIndex) {
+		final ChunkDelta delta = this.deltas.get(chunkIndex);
+		if (delta != null || ! this.chunksOnDisk.contains(chunkIndex)) {
+			return delta;
+		}
+		return this.load(chunkIndex);
+	}
+	
+	/**
+	 * Records a ground cell set to a material.
+	 *
+	 * @param chunkIndex The chunk the cell belongs to
+	 * @param cellX      Block column of the cell
+	 * @param cellY      Block row of the cell
+	 * @param material   The cell's new material
+	 */
+	public void recordBlock(int chunkIndex, int cellX, int cellY, byte material) {
+		this.deltaOf(chunkIndex).setBlock(cellX, cellY, material);
+		this.append(chunkIndex, DeltaCodec.blockRecord(cellX, cellY, material));
+	}
+	
+	/**
+	 * Records the fruits that are eaten as a chunk unloads. Nothing is written if none are eaten
+	 * now or before.
+	 *
+	 * @param chunkIndex  The chunk
+	 * @param eatenFruits Its eaten fruits
+	 */
+	public void recordEatenFruits(int chunkIndex, List< EatenFruit > eatenFruits) {
+		final ChunkDelta known = this.get(chunkIndex);
+		if (eatenFruits.isEmpty() && ( known == null || known.getEatenFruits().isEmpty() )) {
+			return;
+		}
+		this.deltaOf(chunkIndex).setEatenFruits(eatenFruits);
+		this.append(chunkIndex, DeltaCodec.eatenFruitsRecord(eatenFruits));
+	}
+	
+	/**
+	 * Finishes the queued writes and stops the writer thread.
+	 */
+	@Override
+	public void close() {
+		this.writer.shutdown();
+		try {
+			this.writer.awaitTermination(ChunkDeltaStore.CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch ( InterruptedException e ) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	private ChunkDelta deltaOf(int chunkIndex) {
+		final ChunkDelta delta = this.get(chunkIndex);
+		return delta != null ? delta : this.deltas.computeIfAbsent(chunkIndex, index -> new ChunkDelta());
+	}
+	
+	/**
+	 * Queues a record for the chunk's log, and a compaction once the log is big enough.
+	 */
+	private void append(int chunkIndex, byte[] record) {
+		long logSize = this.logSizes.getOrDefault(chunkIndex, 0L);
+		if (logSize == 0) {
+			logSize = DeltaCodec.HEADER_SIZE;
+		}
+		logSize += record.length;
+		this.writer.execute(() -> this.appendToLog(chunkIndex, record));
+		if (logSize > ChunkDeltaStore.COMPACTION_THRESHOLD_BYTES) {
+			this.writer.execute(() -> this.compact(chunkIndex));
+			logSize = 0;
+		}
+		this.logSizes.put(chunkIndex, logSize);
+	}
+	
+	/**
+	 * Reads a chunk's snapshot, then its log, on the game thread. No write can be queued for a
+	 * chunk that is not in memory yet, so the files are stable.
+	 */
+	private ChunkDelta load(int chunkIndex) {
+		final ChunkDelta delta = new ChunkDelta();
+		try {
+			this.readFile(this.snapshotOf(chunkIndex), delta);
+			this.logSizes.put(chunkIndex, this.readFile(this.logOf(chunkIndex), delta));
+		} catch ( IOException e ) {
+			throw new UncheckedIOException("Cannot read the delta of chunk " + chunkIndex + " in " + this.directory, e);
+		}
+		this.deltas.put(chunkIndex, delta);
+		return delta;
+	}
+	
+	/**
+	 * Folds one file into a delta. A record cut short at the end of the file (a crash mid-append)
+	 * is dropped, and the file is truncated before it so later appends stay readable.
+	 *
+	 * @return The file's valid length, 0 if it does not exist
+	 */
+	private long readFile(Path file, ChunkDelta delta) throws IOException {
+		if (! Files.exists(file)) {
+			return 0;
+		}
+		final ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file));
+		if (! DeltaCodec.readInto(data, delta)) {
+			ChunkDeltaStore.LOGGER.warning("Dropping a torn record at the end of " + file);
+			try ( FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE) ) {
+				channel.truncate(data.position());
+			}
+		}
+		return data.position();
+	}
+	
+	private void appendToLog(int chunkIndex, byte[] record) {
+		final Path log = this.logOf(chunkIndex);
+		try ( FileChannel channel = FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.APPEND) ) {
+			if (channel.size() == 0) {
+				channel.write(ByteBuffer.wrap(DeltaCodec.header()));
+			}
+			final ByteBuffer data = ByteBuffer.wrap(record);
+			while ( data.hasRemaining() ) {
+				channel.write(data);
+			}
+		} catch ( IOException e ) {
+			ChunkDeltaStore.LOGGER.log(Level.WARNING, "Cannot append to " + log, e);
+		}
+	}
+	
+	/**
+	 * Folds the snapshot and log into a new snapshot, then deletes the log. Runs on the writer
+	 * thread after every append queued before it, and works from the files alone.
+	 */
+	private void compact(int chunkIndex) {
+		final Path snapshot = this.snapshotOf(chunkIndex);
+		final Path temporary = snapshot.resolveSibling(snapshot.getFileName() + ChunkDeltaStore.TEMPORARY_SUFFIX);
+		try {
+			final ChunkDelta folded = new ChunkDelta();
+			for ( Path file: new Path[]{ snapshot, this.logOf(chunkIndex) } ) {
+				if (Files.exists(file)) {
+					DeltaCodec.readInto(ByteBuffer.wrap(Files.readAllBytes(file)), folded);
+				}
+			}
+			Files.write(temporary, DeltaCodec.snapshot(folded));
+			Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			Files.deleteIfExists(this.logOf(chunkIndex));
+		} catch ( IOException e ) {
+			ChunkDeltaStore.LOGGER.log(Level.WARNING, "Cannot compact the delta of chunk " + chunkIndex, e);
+		}
+	}
+	
+	private Path logOf(int chunkIndex) {
+		return this.directory.resolve(String.format(ChunkDeltaStore.LOG_FORMAT, chunkIndex));
+	}
+	
+	private Path snapshotOf(int chunkIndex) {
+		return this.directory.resolve(String.format(ChunkDeltaStore.SNAPSHOT_FORMAT, chunkIndex));
+	}
+}
@@ -0,0 +1,149 @@
+package pepse.world.delta;
+
+import pepse.util.VarInts;
+import pepse.world.trees.EatenFruit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The chunk delta file format, shared by the append-only logs and the compacted snapshots:
+ * a header (magic {@code int}, format version byte) followed by records. Each record is a type byte
+ * and varints (signed values zigzag-encoded):
+ * <ul>
+ *     <li>{@code BLOCK}: cell x, cell y, then the material byte. Sets one ground cell.</li>
+ *     <li>{@code EATEN_FRUITS}: a count, then cell x, cell y and milliseconds since eaten per fruit.
+ *     Replaces the chunk's eaten fruits.</li>
+ * </ul>
+ * Records are folded in order, the later one winning, so a snapshot is just the folded delta
+ * written back as records.
+ */
+final class DeltaCodec {
+	/**
+	 * Current format version; files of other versions are rejected.
+	 */
+	static final int VERSION = 1;
+	/**
+	 * Size of the header every file starts with.
+	 */
+	static final int HEADER_SIZE = Integer.BYTES + 1;
+	
+	// "PDLT" in ASCII
+	private static final int MAGIC = 0x50444C54;
+	private static final byte BLOCK = 1;
+	private static final byte EATEN_FRUITS = 2;
+	private static final float TIME_SCALE = 1000;
+	
+	private DeltaCodec() {
+	}
+	
+	/**
+	 * @return The header a new file starts with.
+	 */
+	static byte[] header() {
+		return ByteBuffer.allocate(DeltaCodec.HEADER_SIZE).putInt(DeltaCodec.MAGIC).put(( byte ) DeltaCodec.VERSION)
+				       .array();
+	}
+	
+	/**
+	 * @return A record setting one ground cell.
+	 */
+	static byte[] blockRecord(int cellX, int cellY, byte material) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DeltaCodec.writeBlock(out, cellX, cellY, material);
+		return out.toByteArray();
+	}
+	
+	/**
+	 * @return A record replacing the chunk's eaten fruits.
+	 */
+	static byte[] eatenFruitsRecord(List< EatenFruit > eatenFruits) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DeltaCodec.writeEatenFruits(out, eatenFruits);
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Writes a folded delta as a complete file.
+	 *
+	 * @param delta The delta
+	 * @return The file contents
+	 */
+	static byte[] snapshot(ChunkDelta delta) {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes(DeltaCodec.header());
+		delta.forEachBlock((cellX, cellY, material) -> DeltaCodec.writeBlock(out, cellX, cellY, material));
+		if (! delta.getEatenFruits().isEmpty()) {
+			DeltaCodec.writeEatenFruits(out, delta.getEatenFruits());
+		}
+		return out.toByteArray();
+	}
+	
+	/**
+	 * Folds a file's records into a delta.
+	 *
+	 * @param data  The file contents; left positioned after the last complete record
+	 * @param delta Receives the records
+	 * @return False if the file ends inside a record (an append cut short); the records before it are folded
+	 * @throws IOException If the header is not a delta file of this version, or a record is malformed
+	 */
+	static boolean readInto(ByteBuffer data, ChunkDelta delta) throws IOException {
+		if (data.remaining() < DeltaCodec.HEADER_SIZE || data.getInt() != DeltaCodec.MAGIC) {
+			throw new IOException("Not a chunk delta file");
+		}
+		final int version = data.get();
+		if (version != DeltaCodec.VERSION) {
+			throw new IOException("Unsupported chunk delta version " + version);
+		}
+		int recordStart = data.position();
+		try {
+			while ( data.hasRemaining() ) {
+				recordStart = data.position();
+				final byte type = data.get();
+				switch ( type ) {
+					case DeltaCodec.BLOCK -> {
+						final int cellX = ( int ) VarInts.readSigned(data);
+						final int cellY = ( int ) VarInts.readSigned(data);
+						delta.setBlock(cellX, cellY, data.get());
+					}
+					case DeltaCodec.EATEN_FRUITS -> {
+						final int count = ( int ) VarInts.read(data);
+						final List< EatenFruit > eatenFruits = new ArrayList<>(Math.min(count, data.remaining()));
+						for ( int i = 0; i < count; i++ ) {
+							final int cellX = ( int ) VarInts.readSigned(data);
+							final int cellY = ( int ) VarInts.readSigned(data);
+							eatenFruits.add(new EatenFruit(cellX, cellY, VarInts.read(data) / DeltaCodec.TIME_SCALE));
+						}
+						delta.setEatenFruits(eatenFruits);
+					}
+					default -> throw new IOException("Unknown chunk delta record " + type);
+				}
+			}
+			return true;
+		} catch ( BufferUnderflowException e ) {
+			data.position(recordStart);
+			return false;
+		}
+	}
+	
+	private static void writeBlock(ByteArrayOutputStream out, int cellX, int cellY, byte material) {
+		out.write(DeltaCodec.BLOCK);
+		VarInts.writeSigned(out, cellX);
+		VarInts.writeSigned(out, cellY);
+		out.write(material);
+	}
+	
+	private static void writeEatenFruits(ByteArrayOutputStream out, List< EatenFruit > eatenFruits) {
+		out.write(DeltaCodec.EATEN_FRUITS);
+		VarInts.write(out, eatenFruits.size());
+		for ( EatenFruit eatenFruit: eatenFruits ) {
+			VarInts.writeSigned(out, eatenFruit.getCellX());
+			VarInts.writeSigned(out, eatenFruit.getCellY());
+			VarInts.write(out, Math.round(( double ) eatenFruit.getSecondsSinceEaten() * DeltaCodec.TIME_SCALE));
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package pepse.world.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A chunk was generated (or read from the chunk cache) and attached to the game. Covers terrain and
+ * flora generation, which are also recorded as nested events.
+ */
+@Name("pepse.ChunkLoad")
+@Label("Chunk Load")
+@Category({ "Pepse", "World" })
+@Description("A chunk was generated and attached to the game")
+public class ChunkLoadEvent extends Event {
+	@Label("Chunk Index")
+	public int chunkIndex;
+	
+	@Label("Objects")
+	public int objectCount;
+	
+	@Label("Ground Blocks")
+	public int groundCount;
+	
+	@Label("Trunk Blocks")
+	public int trunkCount;
+	
+	@Label("Leaves")
+	public int leafCount;
+	
+	@Label("Fruits")
+	public int fruitCount;
+	
+	@Label("From Cache")
+	@Description("Whether the chunk's layout was read from the on-disk cache instead of generated")
+	public boolean fromCache;
+	
+	@Label("Allocated")
+	@DataAmount
+	public long allocatedBytes;
+}
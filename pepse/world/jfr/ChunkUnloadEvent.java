@@ -0,0 +1,27 @@
+package pepse.world.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A chunk was detached from the game.
+ */
+@Name("pepse.ChunkUnload")
+@Label("Chunk Unload")
+@Category({ "Pepse", "World" })
+@Description("A chunk was detached from the game")
+public class ChunkUnloadEvent extends Event {
+	@Label("Chunk Index")
+	public int chunkIndex;
+	
+	@Label("Objects")
+	public int objectCount;
+	
+	@Label("Allocated")
+	@DataAmount
+	public long allocatedBytes;
+}
@@ -0,0 +1,37 @@
+package pepse.world.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Trees (trunks, leaves and fruits) were generated for an x-range. Not emitted for ranges read from
+ * the chunk cache.
+ */
+@Name("pepse.FloraGeneration")
+@Label("Flora Generation")
+@Category({ "Pepse", "World", "Generation" })
+@Description("Trees were generated for an x-range")
+public class FloraGenerationEvent extends Event {
+	@Label("Chunk Index")
+	public int chunkIndex;
+	
+	@Label("Min X")
+	public int minX;
+	
+	@Label("Max X")
+	public int maxX;
+	
+	@Label("Trees")
+	public int treeCount;
+	
+	@Label("Objects")
+	public int objectCount;
+	
+	@Label("Allocated")
+	@DataAmount
+	public long allocatedBytes;
+}
@@ -0,0 +1,30 @@
+package pepse.world.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A fruit was eaten.
+ */
+@Name("pepse.FruitEaten")
+@Label("Fruit Eaten")
+@Category({ "Pepse", "World", "Fruit" })
+@Description("A fruit was eaten")
+public class FruitEatenEvent extends Event {
+	@Label("Chunk Index")
+	public int chunkIndex;
+	
+	@Label("X")
+	public float x;
+	
+	@Label("Y")
+	public float y;
+	
+	@Label("Allocated")
+	@DataAmount
+	public long allocatedBytes;
+}
@@ -0,0 +1,33 @@
+package pepse.world.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The ground of an x-range was generated from noise. Not emitted for ranges read from the chunk cache.
+ */
+@Name("pepse.TerrainGeneration")
+@Label("Terrain Generation")
+@Category({ "Pepse", "World", "Generation" })
+@Description("The ground of an x-range was generated from noise")
+public class TerrainGenerationEvent extends Event {
+	@Label("Chunk Index")
+	public int chunkIndex;
+	
+	@Label("Min X")
+	public int minX;
+	
+	@Label("Max X")
+	public int maxX;
+	
+	@Label("Blocks")
+	public int blockCount;
+	
+	@Label("Allocated")
+	@DataAmount
+	public long allocatedBytes;
+}
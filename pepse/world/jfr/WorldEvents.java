@@ -0,0 +1,58 @@
+package pepse.world.jfr;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Shared helpers for the world's Flight Recorder events: the current thread's allocation
+ * counter and the chunk index of a world position.
+ */
+public final class WorldEvents {
+	private static final int UNKNOWN_CHUNK = Integer.MIN_VALUE;
+	private static final com.sun.management.ThreadMXBean ALLOCATION_COUNTER = WorldEvents.allocationCounter();
+	
+	private static volatile int chunkWidth = 0;
+	
+	private WorldEvents() {
+	}
+	
+	/**
+	 * Sets the chunk width used by {@link #chunkIndexAt(float)}. Called by the world once it
+	 * knows its chunk layout.
+	 *
+	 * @param width Chunk width in pixels
+	 */
+	public static void setChunkWidth(int width) {
+		WorldEvents.chunkWidth = width;
+	}
+	
+	/**
+	 * @param x A world X coordinate
+	 * @return Index of the chunk containing it, or {@link Integer#MIN_VALUE} if the chunk width
+	 * is not known yet
+	 */
+	public static int chunkIndexAt(float x) {
+		final int width = WorldEvents.chunkWidth;
+		if (width <= 0) {
+			return WorldEvents.UNKNOWN_CHUNK;
+		}
+		return ( int ) Math.floor(x / width);
+	}
+	
+	/**
+	 * @return Bytes allocated so far by the calling thread, or 0 if the JVM cannot tell
+	 */
+	public static long allocatedBytes() {
+		return WorldEvents.ALLOCATION_COUNTER == null ? 0 : WorldEvents.ALLOCATION_COUNTER.getCurrentThreadAllocatedBytes();
+	}
+	
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+		if (threadBean instanceof com.sun.management.ThreadMXBean counter
+				    && counter.isThreadAllocatedMemorySupported()) {
+			counter.setThreadAllocatedMemoryEnabled(true);
+			return counter;
+		}
+		return null;
+	}
+}
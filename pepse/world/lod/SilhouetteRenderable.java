@@ -0,0 +1,61 @@
+package pepse.world.lod;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+
+/**
+ * A filled strip between an upper and a lower edge, each sampled at the same evenly spaced x's.
+ * Edges are given as fractions of the object's height, so the strip stretches with the object it draws.
+ * Rotation and flipping are ignored: silhouettes stand upright.
+ */
+public class SilhouetteRenderable implements Renderable {
+	private final float[] tops;
+	private final float[] bottoms;
+	private final Color color;
+	private final int[] xPoints;
+	private final int[] yPoints;
+	
+	/**
+	 * @param tops    Upper edge at each sample, 0 for the object's top and 1 for its bottom
+	 * @param bottoms Lower edge at each sample, as the tops; same length, at least 2
+	 * @param color   Fill colour
+	 * @throws IllegalArgumentException If the edges differ in length or have fewer than 2 samples
+	 */
+	public SilhouetteRenderable(float[] tops, float[] bottoms, Color color) {
+		if (tops.length != bottoms.length || tops.length < 2) {
+			throw new IllegalArgumentException("Need two edges of equal length with at least 2 samples");
+		}
+		this.tops = tops.clone();
+		this.bottoms = bottoms.clone();
+		this.color = color;
+		this.xPoints = new int[2 * tops.length];
+		this.yPoints = new int[2 * tops.length];
+	}
+	
+	@Override
+	public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double angle,
+	                   boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+		final int samples = this.tops.length;
+		final float step = dimensions.x() / ( samples - 1 );
+		// Along the top left to right, then back along the bottom
+		for ( int i = 0; i < samples; i++ ) {
+			final int x = Math.round(topLeftCorner.x() + i * step);
+			this.xPoints[i] = x;
+			this.yPoints[i] = Math.round(topLeftCorner.y() + this.tops[i] * dimensions.y());
+			this.xPoints[2 * samples - 1 - i] = x;
+			this.yPoints[2 * samples - 1 - i] = Math.round(topLeftCorner.y() + this.bottoms[i] * dimensions.y());
+		}
+		final Composite previousComposite = g.getComposite();
+		if (opaqueness < 1) {
+			g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, ( float ) opaqueness));
+		}
+		g.setColor(this.color);
+		g.fillPolygon(this.xPoints, this.yPoints, this.xPoints.length);
+		g.setComposite(previousComposite);
+	}
+}
@@ -0,0 +1,60 @@
+package pepse.world.lod;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+
+/**
+ * A whole tree drawn as one sprite: a trunk rectangle under a canopy oval.
+ * Both are placed as fractions of the object's size, so one object stands in for every trunk
+ * block, leaf and fruit of the tree. Rotation and flipping are ignored.
+ */
+public class TreeImpostorRenderable implements Renderable {
+	private final float trunkLeft;
+	private final float trunkWidth;
+	private final float trunkTop;
+	private final float canopyBottom;
+	private final Color trunkColor;
+	private final Color canopyColor;
+	
+	/**
+	 * @param trunkLeft    Left of the trunk, as a fraction of the width
+	 * @param trunkWidth   Width of the trunk, as a fraction of the width
+	 * @param trunkTop     Top of the trunk, as a fraction of the height; the trunk reaches the bottom
+	 * @param canopyBottom Bottom of the canopy, as a fraction of the height; the canopy fills the
+	 *                     full width from the top
+	 * @param trunkColor   Colour of the trunk
+	 * @param canopyColor  Colour of the canopy
+	 */
+	public TreeImpostorRenderable(float trunkLeft, float trunkWidth, float trunkTop, float canopyBottom,
+	                              Color trunkColor, Color canopyColor) {
+		this.trunkLeft = trunkLeft;
+		this.trunkWidth = trunkWidth;
+		this.trunkTop = trunkTop;
+		this.canopyBottom = canopyBottom;
+		this.trunkColor = trunkColor;
+		this.canopyColor = canopyColor;
+	}
+	
+	@Override
+	public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double angle,
+	                   boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+		final Composite previousComposite = g.getComposite();
+		if (opaqueness < 1) {
+			g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, ( float ) opaqueness));
+		}
+		final float trunkTopY = topLeftCorner.y() + this.trunkTop * dimensions.y();
+		g.setColor(this.trunkColor);
+		g.fillRect(Math.round(topLeftCorner.x() + this.trunkLeft * dimensions.x()), Math.round(trunkTopY),
+				Math.round(this.trunkWidth * dimensions.x()),
+				Math.round(topLeftCorner.y() + dimensions.y() - trunkTopY));
+		g.setColor(this.canopyColor);
+		g.fillOval(Math.round(topLeftCorner.x()), Math.round(topLeftCorner.y()), Math.round(dimensions.x()),
+				Math.round(this.canopyBottom * dimensions.y()));
+		g.setComposite(previousComposite);
+	}
+}
@@ -0,0 +1,45 @@
+package pepse.world.trees;
+
+/**
+ * An eaten fruit waiting to respawn, identified by the block cell it grows in.
+ * Fruits are generated from the seed, so the cell is enough to find the same fruit again.
+ */
+public final class EatenFruit {
+	private final int cellX;
+	private final int cellY;
+	private final float secondsSinceEaten;
+	
+	/**
+	 * Creates a record of an eaten fruit.
+	 *
+	 * @param cellX             Block column of the fruit's spawn position
+	 * @param cellY             Block row of the fruit's spawn position
+	 * @param secondsSinceEaten How long ago it was eaten
+	 */
+	public EatenFruit(int cellX, int cellY, float secondsSinceEaten) {
+		this.cellX = cellX;
+		this.cellY = cellY;
+		this.secondsSinceEaten = secondsSinceEaten;
+	}
+	
+	/**
+	 * @return Block column of the fruit's spawn position.
+	 */
+	public int getCellX() {
+		return this.cellX;
+	}
+	
+	/**
+	 * @return Block row of the fruit's spawn position.
+	 */
+	public int getCellY() {
+		return this.cellY;
+	}
+	
+	/**
+	 * @return How long ago the fruit was eaten, in seconds.
+	 */
+	public float getSecondsSinceEaten() {
+		return this.secondsSinceEaten;
+	}
+}
@@ -1,13 +1,20 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
+import danogl.util.Vector2;
 import pepse.world.Block;
+import pepse.world.ChunkClock;
+import pepse.world.ObjectKind;
+import pepse.world.jfr.FloraGenerationEvent;
+import pepse.world.jfr.WorldEvents;
+import pepse.world.lod.TreeImpostorRenderable;
 
 import java.awt.Color;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 /**
@@ -15,6 +22,11 @@ import java.util.function.Function;
  * Uses seeded randomness to ensure consistent tree placement across game runs.
  */
 public class Flora {
+	/**
+	 * Blocks of canopy on each side of a trunk, and above and below the block just over the trunk.
+	 */
+	public static final int CANOPY_RADIUS = Tree.CANOPY_RADIUS;
+	
 	private static final Color DEFAULT_TRUNK_COLOR = new Color(100, 50, 20);
 	private static final Color DEFAULT_LEAF_COLOR = new Color(50, 200, 30);
 	private static final Color DEFAULT_FRUIT_COLOR = new Color(220, 100, 60);
@@ -38,10 +50,14 @@ public class Flora {
 	
 	private static final int AVOID_AVATAR_RADIUS = 2 * Block.SIZE;
 	private static final int MIN_TREE_GAP = Block.SIZE * 6; // gap between columns
+	private static final String IMPOSTOR_TAG = "tree";
 	
 	private final Function< Float, Float > groundHeightFunction;
 	private final Tree singleTreeHelper;
 	private final int seed;
+	// Shared by every leaf this flora creates, so sway is switched for all of them at once
+	private final BooleanSupplier leafSwayEnabled = () -> this.leafSway;
+	private boolean leafSway = true;
 	
 	/**
 	 * Creates a new Flora instance for tree generation.
@@ -72,7 +88,22 @@ public class Flora {
 	 * @return List of created tree objects (trunks, leaves, fruits)
 	 */
 	public List< GameObject > createInRange(int minX, int maxX) {
-		final List< GameObject > createdObjects = new ArrayList<>();
+		return this.create(this.describeRange(minX, maxX));
+	}
+	
+	/**
+	 * Decides the trees within specified X range: where every trunk block, leaf and fruit goes
+	 * and its colour, but no game objects yet.
+	 *
+	 * @param minX Leftmost X coordinate
+	 * @param maxX Rightmost X coordinate
+	 * @return Layout of the trees in the range
+	 */
+	public FloraLayout describeRange(int minX, int maxX) {
+		final FloraGenerationEvent event = new FloraGenerationEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
+		final FloraLayout layout = new FloraLayout();
 		
 		// Align to multiples of MIN_TREE_GAP for consistent spacing
 		int startX = ( minX / Flora.MIN_TREE_GAP ) * Flora.MIN_TREE_GAP;
@@ -86,26 +117,151 @@ public class Flora {
 				continue;
 			}
 			final Random columnRand = new Random(Objects.hash(x, this.seed));
+			final int trunkHeight = Flora.plantTrunk(columnRand);
 			
-			if (columnRand.nextInt(Flora.TRUNK_PROBABILITY) == 0) {
+			if (trunkHeight > 0) {
 				float groundHeight = this.groundHeightFunction.apply(( float ) x);
 				// Round down to nearest block size
 				groundHeight = ( float ) ( Math.floor(groundHeight / Block.SIZE)
 						                           * Block.SIZE );
 				
-				// Choose a random trunk height between TREE_MIN_HEIGHT and TREE_MAX_HEIGHT (inclusive).
-				final int trunkHeight = Flora.TREE_MIN_HEIGHT +
-						                        columnRand.nextInt(
-								                        Flora.TREE_MAX_HEIGHT - Flora.TREE_MIN_HEIGHT + 1);
-				
-				createdObjects.addAll(
-						this.singleTreeHelper.createSingleTree(
-								x, groundHeight, trunkHeight, columnRand
-						)
-				);
+				this.singleTreeHelper.describeSingleTree(x, groundHeight, trunkHeight, columnRand, layout);
 			}
 		}
 		
+		if (event.shouldCommit()) {
+			event.chunkIndex = WorldEvents.chunkIndexAt(minX);
+			event.minX = minX;
+			event.maxX = maxX;
+			event.treeCount = layout.getTreeCount();
+			event.objectCount = layout.size();
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
+		return layout;
+	}
+	
+	/**
+	 * Tells whether a tree grows at x without laying it out, for maps and other coarse views.
+	 *
+	 * @param x An x coordinate
+	 * @return Trunk height in blocks of the tree whose trunk starts at exactly x, or 0 if none does
+	 */
+	public int trunkHeightAt(int x) {
+		if (Math.floorMod(x, Flora.MIN_TREE_GAP) != 0 || Math.abs(x) < Flora.AVOID_AVATAR_RADIUS) {
+			return 0;
+		}
+		return Flora.plantTrunk(new Random(Objects.hash(x, this.seed)));
+	}
+	
+	/**
+	 * Builds the trunk blocks, leaves and fruits of a layout.
+	 *
+	 * @param layout Layout from {@link #describeRange}, possibly read back from a cache
+	 * @return The objects, tree by tree
+	 */
+	public List< GameObject > create(FloraLayout layout) {
+		return this.create(layout, null);
+	}
+	
+	/**
+	 * Builds the trunk blocks, leaves and fruits of a layout, updating the leaves and fruits by a chunk's clock.
+	 *
+	 * @param layout Layout from {@link #describeRange}, possibly read back from a cache
+	 * @param clock  Clock of the layout's chunk, or null to update every step
+	 * @return The objects, tree by tree
+	 */
+	public List< GameObject > create(FloraLayout layout, ChunkClock clock) {
+		final List< GameObject > createdObjects = new ArrayList<>(layout.size());
+		for ( int i = 0; i < layout.size(); i++ ) {
+			createdObjects.add(Tree.createPart(layout.getKind(i), new Vector2(layout.getX(i), layout.getY(i)),
+					new Color(layout.getColor(i)), this.leafSwayEnabled, clock));
+		}
 		return createdObjects;
 	}
+	
+	/**
+	 * Builds a low-detail stand-in for the trees of a layout: one object per tree, drawing its
+	 * trunk and its canopy of leaves and fruit in the base colours. Impostors have no colliders
+	 * and no fruit to pick.
+	 *
+	 * @param layout Layout from {@link #describeRange}, possibly read back from a cache
+	 * @return The impostors, one per tree
+	 */
+	public List< GameObject > createImpostors(FloraLayout layout) {
+		final List< GameObject > impostors = new ArrayList<>(layout.getTreeCount());
+		int treeStart = 0;
+		for ( int i = 1; i <= layout.size(); i++ ) {
+			// Every tree is laid out trunk first, so a trunk after canopy starts the next tree
+			if (i == layout.size()
+			    || ( layout.getKind(i) == ObjectKind.TRUNK && layout.getKind(i - 1) != ObjectKind.TRUNK )) {
+				impostors.add(Flora.createImpostor(layout, treeStart, i));
+				treeStart = i;
+			}
+		}
+		return impostors;
+	}
+	
+	/**
+	 * Switches the sway of every leaf created by this flora, including the ones already in the world.
+	 *
+	 * @param leafSway True to let leaves sway, false to hold them still
+	 */
+	public void setLeafSway(boolean leafSway) {
+		this.leafSway = leafSway;
+	}
+	
+	/**
+	 * Decides from a column's random whether a tree grows there (biased coin toss) and, if so,
+	 * draws a trunk height between TREE_MIN_HEIGHT and TREE_MAX_HEIGHT (inclusive). The canopy goes
+	 * on using the same random.
+	 *
+	 * @return The trunk height in blocks, or 0 for no tree
+	 */
+	private static int plantTrunk(Random columnRand) {
+		if (columnRand.nextInt(Flora.TRUNK_PROBABILITY) != 0) {
+			return 0;
+		}
+		return Flora.TREE_MIN_HEIGHT + columnRand.nextInt(Flora.TREE_MAX_HEIGHT - Flora.TREE_MIN_HEIGHT + 1);
+	}
+	
+	/**
+	 * Builds the impostor of the tree made of layout entries [start, end).
+	 */
+	private static GameObject createImpostor(FloraLayout layout, int start, int end) {
+		float trunkX = layout.getX(start);
+		float trunkTop = Float.MAX_VALUE;
+		float trunkBottom = - Float.MAX_VALUE;
+		float left = trunkX;
+		float right = trunkX + Block.SIZE;
+		float canopyTop = Float.MAX_VALUE;
+		float canopyBottom = - Float.MAX_VALUE;
+		for ( int i = start; i < end; i++ ) {
+			final float x = layout.getX(i);
+			final float y = layout.getY(i);
+			if (layout.getKind(i) == ObjectKind.TRUNK) {
+				trunkX = x;
+				trunkTop = Math.min(trunkTop, y);
+				trunkBottom = Math.max(trunkBottom, y + Block.SIZE);
+			} else {
+				left = Math.min(left, x);
+				right = Math.max(right, x + Block.SIZE);
+				canopyTop = Math.min(canopyTop, y);
+				canopyBottom = Math.max(canopyBottom, y + Block.SIZE);
+			}
+		}
+		if (canopyTop == Float.MAX_VALUE) {
+			// A bare trunk: no canopy to draw
+			canopyTop = trunkTop;
+			canopyBottom = trunkTop;
+		}
+		final float top = Math.min(trunkTop, canopyTop);
+		final float width = right - left;
+		final float height = trunkBottom - top;
+		final GameObject impostor = new GameObject(new Vector2(left, top), new Vector2(width, height),
+				new TreeImpostorRenderable(( trunkX - left ) / width, Block.SIZE / width, ( trunkTop - top ) / height,
+						( canopyBottom - top ) / height, Flora.DEFAULT_TRUNK_COLOR, Flora.DEFAULT_LEAF_COLOR));
+		impostor.setTag(Flora.IMPOSTOR_TAG);
+		return impostor;
+	}
 }
@@ -0,0 +1,131 @@
+package pepse.world.trees;
+
+import pepse.world.ObjectKind;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Everything needed to rebuild a range of trees without sampling noise or the column randoms:
+ * the kind, top-left corner and colour of every trunk block, leaf and fruit.
+ * Produced by {@link Flora#describeRange} and turned into objects by {@link Flora#create}.
+ */
+public final class FloraLayout {
+	private static final int INITIAL_CAPACITY = 64;
+	private static final ObjectKind[] KINDS = ObjectKind.values();
+	
+	private int treeCount = 0;
+	private int size = 0;
+	private byte[] kinds;
+	private float[] xs;
+	private float[] ys;
+	private int[] colors;
+	
+	FloraLayout() {
+		this(FloraLayout.INITIAL_CAPACITY);
+	}
+	
+	private FloraLayout(int capacity) {
+		this.kinds = new byte[capacity];
+		this.xs = new float[capacity];
+		this.ys = new float[capacity];
+		this.colors = new int[capacity];
+	}
+	
+	void addTree() {
+		this.treeCount++;
+	}
+	
+	void add(ObjectKind kind, float x, float y, int color) {
+		if (this.size == this.kinds.length) {
+			final int capacity = Math.max(FloraLayout.INITIAL_CAPACITY, this.size * 2);
+			this.kinds = Arrays.copyOf(this.kinds, capacity);
+			this.xs = Arrays.copyOf(this.xs, capacity);
+			this.ys = Arrays.copyOf(this.ys, capacity);
+			this.colors = Arrays.copyOf(this.colors, capacity);
+		}
+		this.kinds[this.size] = ( byte ) kind.ordinal();
+		this.xs[this.size] = x;
+		this.ys[this.size] = y;
+		this.colors[this.size] = color;
+		this.size++;
+	}
+	
+	ObjectKind getKind(int i) {
+		return FloraLayout.KINDS[this.kinds[i]];
+	}
+	
+	float getX(int i) {
+		return this.xs[i];
+	}
+	
+	float getY(int i) {
+		return this.ys[i];
+	}
+	
+	int getColor(int i) {
+		return this.colors[i];
+	}
+	
+	/**
+	 * @return Number of trees.
+	 */
+	public int getTreeCount() {
+		return this.treeCount;
+	}
+	
+	/**
+	 * @return Number of objects (trunk blocks, leaves and fruits).
+	 */
+	public int size() {
+		return this.size;
+	}
+	
+	/**
+	 * @return Size of {@link #writeTo}'s output in bytes.
+	 */
+	public int encodedSize() {
+		return 2 * Integer.BYTES + this.size * ( Byte.BYTES + 2 * Float.BYTES + Integer.BYTES );
+	}
+	
+	/**
+	 * Appends the layout to a buffer.
+	 *
+	 * @param buffer Destination, with at least {@link #encodedSize()} bytes remaining
+	 */
+	public void writeTo(ByteBuffer buffer) {
+		buffer.putInt(this.treeCount);
+		buffer.putInt(this.size);
+		for ( int i = 0; i < this.size; i++ ) {
+			buffer.put(this.kinds[i]);
+			buffer.putFloat(this.xs[i]);
+			buffer.putFloat(this.ys[i]);
+			buffer.putInt(this.colors[i]);
+		}
+	}
+	
+	/**
+	 * Reads a layout written by {@link #writeTo}.
+	 *
+	 * @param buffer Source, positioned at the layout; advanced past it
+	 * @return The layout
+	 */
+	public static FloraLayout readFrom(ByteBuffer buffer) {
+		final int treeCount = buffer.getInt();
+		final int size = buffer.getInt();
+		final FloraLayout layout = new FloraLayout(size);
+		layout.treeCount = treeCount;
+		for ( int i = 0; i < size; i++ ) {
+			final byte kind = buffer.get();
+			if (kind < 0 || kind >= FloraLayout.KINDS.length) {
+				throw new IllegalArgumentException("Unknown object kind " + kind + " in flora layout");
+			}
+			layout.kinds[i] = kind;
+			layout.xs[i] = buffer.getFloat();
+			layout.ys[i] = buffer.getFloat();
+			layout.colors[i] = buffer.getInt();
+		}
+		layout.size = size;
+		return layout;
+	}
+}
@@ -1,17 +1,23 @@
 package pepse.world.trees;
 
 import danogl.collisions.Collision;
-import danogl.components.ScheduledTask;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
 import pepse.world.Block;
+import pepse.world.ChunkClock;
+import pepse.world.ObjectKind;
+import pepse.world.jfr.FruitEatenEvent;
+import pepse.world.jfr.FruitRespawnEvent;
+import pepse.world.jfr.WorldEvents;
 
 import java.awt.Color;
 
 /**
  * A fruit object that appears as a circle and can be collected by the avatar.
  * When collected, it fades out and reappears after a delay.
+ * Updates follow the chunk's {@link ChunkClock} and catch up on all the time skipped, so a fruit
+ * respawns on time even if its chunk was frozen meanwhile.
  */
 class Fruit extends Block {
 	private static final String FRUIT_TAG = "fruit";
@@ -21,21 +27,25 @@ class Fruit extends Block {
 	private static final float FADE_IN_DURATION = 0.5f;
 	private final Vector2 originalPosition;
 	private final Color baseFruitColor;
+	private final ChunkClock clock;
 	private FruitCollisionStrategy collisionStrategy = new BasicFruitCollisionStrategy();
 	private boolean isEaten;
 	private boolean collisionsEnabled = true;
+	private float secondsSinceEaten = 0;
 	
 	/**
 	 * Creates a new fruit at the specified position.
 	 *
 	 * @param topLeftCorner Initial position of the fruit
 	 * @param fruitColor    Color of the fruit
+	 * @param clock         Clock of the fruit's chunk, or null to update every step
 	 */
-	Fruit(Vector2 topLeftCorner, Color fruitColor) {
-		super(topLeftCorner, Fruit.createFruitRenderable(fruitColor));
+	Fruit(Vector2 topLeftCorner, Color fruitColor, ChunkClock clock) {
+		super(topLeftCorner, Fruit.createFruitRenderable(fruitColor), ObjectKind.FRUIT);
 		this.setTag(Fruit.FRUIT_TAG);
 		this.originalPosition = topLeftCorner;
 		this.baseFruitColor = fruitColor;
+		this.clock = clock;
 		this.isEaten = false;
 		this.setDimensions(new Vector2(Fruit.FRUIT_DIAMETER, Fruit.FRUIT_DIAMETER));
 		this.physics().preventIntersectionsFromDirection(null);
@@ -56,6 +66,76 @@ class Fruit extends Block {
 	public void onCollisionEnter(danogl.GameObject other, Collision collision) {
 		if (! this.collisionsEnabled) return;
 		super.onCollisionEnter(other, collision);
+		this.applyCollisionStrategy(other, collision);
+	}
+	
+	/**
+	 * Handles a pickup detected by {@link FruitPickupGrid} rather than by the engine.
+	 * The strategy receives a null collision.
+	 *
+	 * @param other The object that reached the fruit
+	 */
+	void onPickup(danogl.GameObject other) {
+		if (! this.collisionsEnabled) return;
+		this.applyCollisionStrategy(other, null);
+	}
+	
+	/**
+	 * @return The position the fruit was spawned at (and respawns at).
+	 */
+	Vector2 getOriginalPosition() {
+		return this.originalPosition;
+	}
+	
+	/**
+	 * @return True from the moment the fruit is eaten until it respawns.
+	 */
+	boolean isEaten() {
+		return this.isEaten;
+	}
+	
+	/**
+	 * @return Seconds since the fruit was eaten; meaningful only while {@link #isEaten()}.
+	 */
+	float getSecondsSinceEaten() {
+		return this.secondsSinceEaten + this.owedSeconds();
+	}
+	
+	/**
+	 * Puts the fruit straight into the eaten state, already faded out, as if eaten a while ago.
+	 *
+	 * @param secondsSinceEaten How long ago it was eaten
+	 */
+	void restoreEaten(float secondsSinceEaten) {
+		this.isEaten = true;
+		// The chunk's owed time is still to be added by update
+		this.secondsSinceEaten = secondsSinceEaten - this.owedSeconds();
+		this.renderer().setOpaqueness(0);
+		this.disableCollisions();
+	}
+	
+	@Override
+	public void update(float deltaTime) {
+		if (this.clock != null) {
+			if (! this.clock.isDue()) {
+				return;
+			}
+			deltaTime = this.clock.getDueSeconds();
+		}
+		super.update(deltaTime);
+		if (this.isEaten) {
+			this.secondsSinceEaten += deltaTime;
+			if (this.secondsSinceEaten >= Fruit.FADE_OUT_DURATION + Fruit.FRUIT_RESPAWN_TIME) {
+				this.respawnFruit();
+			}
+		}
+	}
+	
+	private float owedSeconds() {
+		return this.clock == null ? 0 : this.clock.getOwedSeconds();
+	}
+	
+	private void applyCollisionStrategy(danogl.GameObject other, Collision collision) {
 		if (! this.isEaten && this.collisionStrategy != null) {
 			this.collisionStrategy.onCollisionEnter(this, other, collision);
 		}
@@ -66,19 +146,38 @@ class Fruit extends Block {
 	 */
 	void eatFruit() {
 		if (this.isEaten) return;
+		final FruitEatenEvent event = new FruitEatenEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
 		this.isEaten = true;
-		this.renderer().fadeOut(Fruit.FADE_OUT_DURATION, () -> {
-			this.disableCollisions();
-			new ScheduledTask(this, Fruit.FRUIT_RESPAWN_TIME, false, this :: respawnFruit);
-		});
+		this.secondsSinceEaten = 0;
+		// Respawn is counted down in update, so the remaining time can be saved and restored
+		this.renderer().fadeOut(Fruit.FADE_OUT_DURATION, this :: disableCollisions);
+		if (event.shouldCommit()) {
+			event.chunkIndex = WorldEvents.chunkIndexAt(this.originalPosition.x());
+			event.x = this.originalPosition.x();
+			event.y = this.originalPosition.y();
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
 	}
 	
 	private void respawnFruit() {
+		final FruitRespawnEvent event = new FruitRespawnEvent();
+		event.begin();
+		final long allocatedBefore = event.isEnabled() ? WorldEvents.allocatedBytes() : 0;
 		this.isEaten = false;
 		this.enableCollisions();
 		this.setTopLeftCorner(this.originalPosition);
 		this.renderer().setRenderable(new OvalRenderable(this.baseFruitColor));
 		this.renderer().fadeIn(Fruit.FADE_IN_DURATION);
+		if (event.shouldCommit()) {
+			event.chunkIndex = WorldEvents.chunkIndexAt(this.originalPosition.x());
+			event.x = this.originalPosition.x();
+			event.y = this.originalPosition.y();
+			event.allocatedBytes = WorldEvents.allocatedBytes() - allocatedBefore;
+			event.commit();
+		}
 	}
 	
 	private void disableCollisions() {
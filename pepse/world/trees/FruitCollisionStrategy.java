@@ -18,7 +18,8 @@ interface FruitCollisionStrategy {
 	 *
 	 * @param fruit     The fruit object in collision
 	 * @param other     The colliding game object
-	 * @param collision Engine-provided collision details
+	 * @param collision Engine-provided collision details, or null when the pickup was
+	 *                  detected by {@link FruitPickupGrid}
 	 */
 	void onCollisionEnter(Fruit fruit, GameObject other, Collision collision);
 }
@@ -0,0 +1,210 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.world.Block;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Detects fruit pickups without the engine's layer-wide collision pass.
+ * Fruits sit on the block grid, so live fruits are kept in a uniform grid keyed by block cell;
+ * each frame only the few cells overlapped by the avatar are checked, and the fruit's
+ * {@link FruitCollisionStrategy} is invoked directly. Per-frame cost does not depend on how
+ * many fruits are loaded.
+ */
+public class FruitPickupGrid {
+	private static final long CELL_Y_MASK = 0xFFFFFFFFL;
+	private static final int CELL_X_SHIFT = 32;
+	
+	private final Map< Long, List< Fruit > > cells = new HashMap<>();
+	private int fruitCount = 0;
+	
+	/**
+	 * Adds an object to the grid if it is a fruit; other objects are ignored.
+	 *
+	 * @param obj A freshly placed world object
+	 */
+	public void register(GameObject obj) {
+		if (obj instanceof Fruit fruit) {
+			this.cells.computeIfAbsent(FruitPickupGrid.cellKeyOf(fruit), key -> new ArrayList<>()).add(fruit);
+			this.fruitCount++;
+		}
+	}
+	
+	/**
+	 * Removes an object from the grid if it is a registered fruit.
+	 *
+	 * @param obj A world object being removed
+	 */
+	public void unregister(GameObject obj) {
+		if (obj instanceof Fruit fruit) {
+			final Long key = FruitPickupGrid.cellKeyOf(fruit);
+			final List< Fruit > bucket = this.cells.get(key);
+			if (bucket != null && bucket.remove(fruit)) {
+				this.fruitCount--;
+				if (bucket.isEmpty()) {
+					this.cells.remove(key);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * @return Number of fruits currently in the grid.
+	 */
+	public int getFruitCount() {
+		return this.fruitCount;
+	}
+	
+	/**
+	 * Counts the registered fruits that are eaten and waiting to respawn.
+	 * Walks every cell, so it is meant for occasional diagnostics rather than every frame.
+	 *
+	 * @return Number of eaten fruits
+	 */
+	public int countEatenFruits() {
+		int eaten = 0;
+		for ( List< Fruit > bucket: this.cells.values() ) {
+			for ( Fruit fruit: bucket ) {
+				if (fruit.isEaten()) {
+					eaten++;
+				}
+			}
+		}
+		return eaten;
+	}
+	
+	/**
+	 * Lists the registered fruits that are eaten and waiting to respawn.
+	 *
+	 * @return One record per eaten fruit
+	 */
+	public List< EatenFruit > eatenFruits() {
+		final List< EatenFruit > eaten = new ArrayList<>();
+		for ( List< Fruit > bucket: this.cells.values() ) {
+			FruitPickupGrid.collectEaten(bucket, eaten);
+		}
+		return eaten;
+	}
+	
+	/**
+	 * Lists the eaten fruits among some world objects, e.g. one chunk's fruits, whether or not
+	 * they are registered.
+	 *
+	 * @param objects World objects; anything but fruit is ignored
+	 * @return One record per eaten fruit
+	 */
+	public static List< EatenFruit > eatenAmong(List< ? extends GameObject > objects) {
+		final List< EatenFruit > eaten = new ArrayList<>();
+		FruitPickupGrid.collectEaten(objects, eaten);
+		return eaten;
+	}
+	
+	/**
+	 * Marks fruits among some world objects as eaten, matching them by cell.
+	 *
+	 * @param objects     World objects, e.g. a freshly loaded chunk's fruits
+	 * @param eatenFruits Fruits to mark
+	 * @return Number of fruits found and marked
+	 */
+	public static int restoreEatenAmong(List< ? extends GameObject > objects, List< EatenFruit > eatenFruits) {
+		final Map< Long, Fruit > byCell = new HashMap<>();
+		for ( GameObject obj: objects ) {
+			if (obj instanceof Fruit fruit) {
+				byCell.putIfAbsent(FruitPickupGrid.cellKeyOf(fruit), fruit);
+			}
+		}
+		int restored = 0;
+		for ( EatenFruit eatenFruit: eatenFruits ) {
+			final Fruit fruit = byCell.get(FruitPickupGrid.cellKey(eatenFruit.getCellX(), eatenFruit.getCellY()));
+			if (fruit != null) {
+				fruit.restoreEaten(eatenFruit.getSecondsSinceEaten());
+				restored++;
+			}
+		}
+		return restored;
+	}
+	
+	/**
+	 * Marks a registered fruit as eaten, e.g. when restoring a saved session.
+	 *
+	 * @param eatenFruit The fruit's cell and how long ago it was eaten
+	 * @return False if no registered fruit grows in that cell
+	 */
+	public boolean restoreEaten(EatenFruit eatenFruit) {
+		final List< Fruit > bucket = this.cells.get(FruitPickupGrid.cellKey(eatenFruit.getCellX(),
+				eatenFruit.getCellY()));
+		if (bucket == null || bucket.isEmpty()) {
+			return false;
+		}
+		bucket.get(0).restoreEaten(eatenFruit.getSecondsSinceEaten());
+		return true;
+	}
+	
+	/**
+	 * Lets the avatar pick up every fruit its bounding box overlaps.
+	 *
+	 * @param picker The object collecting fruit (the avatar)
+	 */
+	public void update(GameObject picker) {
+		final Vector2 topLeft = picker.getTopLeftCorner();
+		final Vector2 dimensions = picker.getDimensions();
+		final float left = topLeft.x();
+		final float top = topLeft.y();
+		final float right = left + dimensions.x();
+		final float bottom = top + dimensions.y();
+		
+		final int minCellX = FruitPickupGrid.cellOf(left);
+		final int maxCellX = FruitPickupGrid.cellOf(right);
+		final int minCellY = FruitPickupGrid.cellOf(top);
+		final int maxCellY = FruitPickupGrid.cellOf(bottom);
+		for ( int cellX = minCellX; cellX <= maxCellX; cellX++ ) {
+			for ( int cellY = minCellY; cellY <= maxCellY; cellY++ ) {
+				final List< Fruit > bucket = this.cells.get(FruitPickupGrid.cellKey(cellX, cellY));
+				if (bucket == null) {
+					continue;
+				}
+				for ( int i = 0; i < bucket.size(); i++ ) {
+					final Fruit fruit = bucket.get(i);
+					if (FruitPickupGrid.overlaps(fruit, left, top, right, bottom)) {
+						fruit.onPickup(picker);
+					}
+				}
+			}
+		}
+	}
+	
+	private static void collectEaten(List< ? extends GameObject > objects, List< EatenFruit > eaten) {
+		for ( GameObject obj: objects ) {
+			if (obj instanceof Fruit fruit && fruit.isEaten()) {
+				final Vector2 position = fruit.getOriginalPosition();
+				eaten.add(new EatenFruit(FruitPickupGrid.cellOf(position.x()), FruitPickupGrid.cellOf(position.y()),
+						fruit.getSecondsSinceEaten()));
+			}
+		}
+	}
+	
+	private static boolean overlaps(Fruit fruit, float left, float top, float right, float bottom) {
+		final Vector2 fruitTopLeft = fruit.getTopLeftCorner();
+		final Vector2 fruitDimensions = fruit.getDimensions();
+		return fruitTopLeft.x() < right && fruitTopLeft.x() + fruitDimensions.x() > left &&
+				       fruitTopLeft.y() < bottom && fruitTopLeft.y() + fruitDimensions.y() > top;
+	}
+	
+	private static long cellKeyOf(Fruit fruit) {
+		final Vector2 position = fruit.getOriginalPosition();
+		return FruitPickupGrid.cellKey(FruitPickupGrid.cellOf(position.x()), FruitPickupGrid.cellOf(position.y()));
+	}
+	
+	private static int cellOf(float coordinate) {
+		return ( int ) Math.floor(coordinate / Block.SIZE);
+	}
+	
+	private static long cellKey(int cellX, int cellY) {
+		return ( ( long ) cellX << FruitPickupGrid.CELL_X_SHIFT ) | ( cellY & FruitPickupGrid.CELL_Y_MASK );
+	}
+}
@@ -7,13 +7,20 @@ import danogl.components.Transition;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.world.Block;
+import pepse.world.ChunkClock;
+import pepse.world.ObjectKind;
 
 import java.awt.Color;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
 
 /**
  * Represents a leaf object that oscillates in angle and size.
  * Extends Block to inherit basic block properties while adding leaf-specific behavior.
+ * The sway can be switched off to save the per-frame transition work; the leaf then rests
+ * upright at full size and skips its update entirely.
+ * Updates follow the chunk's {@link ChunkClock}; a leaf coming back from a frozen chunk resumes
+ * its sway from where it stopped, since the skipped swaying would only be a jump on screen.
  */
 class Leaf extends Block {
 	private static final String LEAF_TAG = "leaf";
@@ -24,15 +31,26 @@ class Leaf extends Block {
 	private static final float SCALE_FACTOR_MIN = 0.95f;
 	private static final float INITIAL_SCALE = 1.0f;
 	private static final float CYCLE_LENGTH_MIN = Leaf.INITIAL_SCALE;
+	// Most sway one update catches up, a little more than a reduced-rate update covers
+	private static final float MAX_CATCH_UP_SECONDS = 0.1f;
+	
+	private final BooleanSupplier swayEnabled;
+	private final ChunkClock clock;
+	// Whether the last update ran the sway, so a leaf is put back at rest once when it stops
+	private boolean swaying = true;
 	
 	/**
 	 * Creates a new leaf with oscillating behavior.
 	 *
 	 * @param topLeftCorner Initial position of the leaf
 	 * @param leafColor     Color of the leaf
+	 * @param swayEnabled   Read every frame; while false the leaf holds still
+	 * @param clock         Clock of the leaf's chunk, or null to update every step
 	 */
-	Leaf(Vector2 topLeftCorner, Color leafColor) {
-		super(topLeftCorner, new RectangleRenderable(leafColor));
+	Leaf(Vector2 topLeftCorner, Color leafColor, BooleanSupplier swayEnabled, ChunkClock clock) {
+		super(topLeftCorner, new RectangleRenderable(leafColor), ObjectKind.LEAF);
+		this.swayEnabled = swayEnabled;
+		this.clock = clock;
 		this.setTag(Leaf.LEAF_TAG);
 		this.physics().preventIntersectionsFromDirection(null);
 		
@@ -40,6 +58,22 @@ class Leaf extends Block {
 		new ScheduledTask(this, initialDelay, false, this :: initLeafSwayTransitions);
 	}
 	
+	@Override
+	public void update(float deltaTime) {
+		if (this.clock != null && ! this.clock.isDue()) {
+			return;
+		}
+		if (this.swayEnabled.getAsBoolean()) {
+			this.swaying = true;
+			super.update(this.clock == null ? deltaTime
+					             : Math.min(this.clock.getDueSeconds(), Leaf.MAX_CATCH_UP_SECONDS));
+		} else if (this.swaying) {
+			this.swaying = false;
+			this.renderer().setRenderableAngle(0);
+			this.setDimensions(Vector2.ONES.mult(Block.SIZE * Leaf.INITIAL_SCALE));
+		}
+	}
+	
 	@Override
 	public void onCollisionEnter(GameObject other, Collision collision) {
 		super.onCollisionEnter(other, collision);
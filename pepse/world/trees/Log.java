@@ -2,8 +2,8 @@ package pepse.world.trees;
 
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
 import pepse.world.Block;
+import pepse.world.ObjectKind;
 
 import java.awt.Color;
 
@@ -18,10 +18,10 @@ class Log extends Block {
 	 * Creates a log block at the specified position with given color.
 	 *
 	 * @param topLeftCorner Starting position of the log block
-	 * @param trunkColor    Base color for the log
+	 * @param logColor      Color of the log
 	 */
-	Log(Vector2 topLeftCorner, Color trunkColor) {
-		super(topLeftCorner, new RectangleRenderable(ColorSupplier.approximateColor(trunkColor)));
+	Log(Vector2 topLeftCorner, Color logColor) {
+		super(topLeftCorner, new RectangleRenderable(logColor), ObjectKind.TRUNK);
 		this.setTag(Log.TRUNK_TAG);
 	}
 }
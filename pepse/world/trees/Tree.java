@@ -4,11 +4,12 @@ import danogl.GameObject;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
 import pepse.world.Block;
+import pepse.world.ChunkClock;
+import pepse.world.ObjectKind;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Random;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 /**
@@ -22,7 +23,7 @@ class Tree {
 	private static final float FRUIT_DIAMETER = 25.0f;
 	private static final float LEAF_SIZE = Block.SIZE;
 	
-	private static final int CANOPY_RADIUS = 2; // columns around trunk used for canopy
+	static final int CANOPY_RADIUS = 2; // columns around trunk used for canopy
 	
 	private final Function< Float, Float > groundHeightFunction;
 	private final Color trunkColor;
@@ -48,55 +49,72 @@ class Tree {
 	}
 	
 	/**
-	 * Builds one tree at xCoord with a specified trunk height.
+	 * Lays out one tree at xCoord with a specified trunk height.
 	 *
 	 * @param xCoord       The x coordinate of the trunk.
 	 * @param groundHeight The ground height at xCoord.
 	 * @param trunkHeight  The number of blocks in the trunk.
 	 * @param rand         A Random instance for reproducible generation.
-	 * @return A list of trunk blocks, leaves, and (optionally) fruits.
+	 * @param layout       Receives the trunk blocks, leaves, and (optionally) fruits.
 	 */
-	List< GameObject > createSingleTree(int xCoord,
-	                                    float groundHeight,
-	                                    int trunkHeight,
-	                                    Random rand) {
-		final List< GameObject > results = new ArrayList<>();
+	void describeSingleTree(int xCoord,
+	                        float groundHeight,
+	                        int trunkHeight,
+	                        Random rand,
+	                        FloraLayout layout) {
+		layout.addTree();
 		
-		// 1) Build the trunk
-		results.addAll(this.buildTrunk(xCoord, groundHeight, trunkHeight));
+		// 1) The trunk
+		this.describeTrunk(xCoord, groundHeight, trunkHeight, layout);
 		
-		// 2) Build canopy (leaves + fruit) above trunk
+		// 2) Canopy (leaves + fruit) above trunk
 		final float trunkTopY = groundHeight - ( trunkHeight * Block.SIZE );
 		final float canopyTopY = trunkTopY - Block.SIZE; // start canopy 1 block above the trunk
-		results.addAll(this.buildCanopy(xCoord, canopyTopY, rand));
-		
-		return results;
+		this.describeCanopy(xCoord, canopyTopY, rand, layout);
 	}
 	
 	/**
-	 * Builds a vertical trunk of the specified height, placing trunk blocks
+	 * Creates one part of a tree.
+	 *
+	 * @param kind          {@link ObjectKind#TRUNK}, {@link ObjectKind#LEAF} or {@link ObjectKind#FRUIT}
+	 * @param topLeftCorner Position of the part
+	 * @param color         Its final colour
+	 * @param leafSway      Whether leaves sway, read every frame
+	 * @param clock         Clock of the part's chunk, or null to update leaves and fruit every step
+	 * @return The game object
+	 */
+	static GameObject createPart(ObjectKind kind, Vector2 topLeftCorner, Color color, BooleanSupplier leafSway,
+	                             ChunkClock clock) {
+		switch ( kind ) {
+			case TRUNK:
+				return new Log(topLeftCorner, color);
+			case LEAF:
+				return new Leaf(topLeftCorner, color, leafSway, clock);
+			case FRUIT:
+				final Fruit fruit = new Fruit(topLeftCorner, color, clock);
+				fruit.setCollisionStrategy(new ColorfulFruitCollisionStrategy());
+				return fruit;
+			default:
+				throw new IllegalArgumentException("Not a tree part: " + kind);
+		}
+	}
+	
+	/**
+	 * Lays out a vertical trunk of the specified height, placing trunk blocks
 	 * from groundHeight downward up to trunkHeight blocks.
 	 */
-	private List< GameObject > buildTrunk(int xCoord, float groundHeight, int trunkHeight) {
-		final List< GameObject > trunkBlocks = new ArrayList<>();
+	private void describeTrunk(int xCoord, float groundHeight, int trunkHeight, FloraLayout layout) {
 		for ( int i = 0; i < trunkHeight; i++ ) {
 			final float y = groundHeight - ( ( i + 1 ) * Block.SIZE );
-			final Log trunkBlock = new Log(
-					new Vector2(xCoord, y),
-					ColorSupplier.approximateColor(this.trunkColor)
-			);
-			trunkBlocks.add(trunkBlock);
+			layout.add(ObjectKind.TRUNK, xCoord, y, ColorSupplier.approximateColor(this.trunkColor).getRGB());
 		}
-		return trunkBlocks;
 	}
 	
 	/**
-	 * Builds the region of leaves + fruit forming the canopy, skipping
+	 * Lays out the region of leaves + fruit forming the canopy, skipping
 	 * any that would appear on/under the ground or in the trunk's column.
 	 */
-	private List< GameObject > buildCanopy(int trunkX, float canopyTopY, Random rand) {
-		final List< GameObject > canopyObjects = new ArrayList<>();
-		
+	private void describeCanopy(int trunkX, float canopyTopY, Random rand, FloraLayout layout) {
 		final int startX = trunkX - ( Block.SIZE * Tree.CANOPY_RADIUS );
 		final int endX = trunkX + Block.SIZE + ( Block.SIZE * Tree.CANOPY_RADIUS );
 		
@@ -119,32 +137,17 @@ class Tree {
 				if (inTrunkColumn) {
 					// trunk column => no fruit, maybe a leaf if above ground
 					if (! wouldLeafOverlapGround && r < Tree.LEAF_DENSITY) {
-						final Leaf leaf = new Leaf(
-								new Vector2(x, y),
-								ColorSupplier.approximateColor(this.leafColor, 20)
-						);
-						canopyObjects.add(leaf);
+						layout.add(ObjectKind.LEAF, x, y, ColorSupplier.approximateColor(this.leafColor, 20).getRGB());
 					}
 				} else {
 					// outside trunk column => maybe fruit or leaf
 					if (! wouldFruitOverlapGround && ( r < Tree.FRUIT_DENSITY )) {
-						final Fruit fruit = new Fruit(
-								new Vector2(x, y),
-								ColorSupplier.approximateColor(this.fruitColor, 60)
-						);
-						fruit.setCollisionStrategy(new ColorfulFruitCollisionStrategy());
-						canopyObjects.add(fruit);
+						layout.add(ObjectKind.FRUIT, x, y, ColorSupplier.approximateColor(this.fruitColor, 60).getRGB());
 					} else if (! wouldLeafOverlapGround && ( r < Tree.FRUIT_DENSITY + Tree.LEAF_DENSITY )) {
-						final Leaf leaf = new Leaf(
-								new Vector2(x, y),
-								ColorSupplier.approximateColor(this.leafColor, 20)
-						);
-						canopyObjects.add(leaf);
+						layout.add(ObjectKind.LEAF, x, y, ColorSupplier.approximateColor(this.leafColor, 20).getRGB());
 					}
 				}
 			}
 		}
-		
-		return canopyObjects;
 	}
 }
@@ -0,0 +1,167 @@
+package pepse.world.ui;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.world.Block;
+import pepse.world.trees.Flora;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A UI map of the terrain profile and trees around the avatar, one pixel per block.
+ * It is drawn from the ground's column tops and the trees' trunk positions, never from block objects,
+ * into an image used as a ring buffer: each block column has a fixed pixel column, so when the
+ * avatar moves only the columns scrolling into view are rasterized, and drawing the image in two
+ * slices does the shift. A column shows the ground as it was when it came into view.
+ */
+public class Minimap extends GameObject {
+	private static final int BACKGROUND_ARGB = new Color(20, 30, 60, 140).getRGB();
+	private static final int GROUND_ARGB = new Color(212, 123, 74).getRGB();
+	private static final int TRUNK_ARGB = new Color(100, 50, 20).getRGB();
+	private static final int CANOPY_ARGB = new Color(50, 200, 30).getRGB();
+	private static final Color AVATAR_COLOR = Color.RED;
+	// Share of the rows above the reference height; the rest shows ground below it
+	private static final float ROWS_ABOVE_REFERENCE = 0.6f;
+	
+	private final GameObject followed;
+	private final Function< Float, Float > groundTopFunction;
+	private final IntUnaryOperator trunkHeightAt;
+	private final int columns;
+	private final int rows;
+	private final float topY;
+	private final BufferedImage image;
+	private final int[] pixels;
+	// Leftmost block column shown
+	private int firstColumn = 0;
+	private boolean rasterized = false;
+	
+	/**
+	 * Creates a minimap centered on an object.
+	 *
+	 * @param topLeftCorner     Position of the map on screen
+	 * @param dimensions        Size of the map on screen; the image is stretched to it
+	 * @param columns           Block columns shown, centered on the followed object
+	 * @param rows              Block rows shown
+	 * @param referenceY        A world height, usually the ground's at the start, placed somewhat
+	 *                          below the middle of the map
+	 * @param followed          The object the map is centered on and marks, usually the avatar
+	 * @param groundTopFunction Top y of the ground at a world x
+	 * @param trunkHeightAt     Trunk height in blocks of the tree starting at a world x, or 0 for none
+	 */
+	public Minimap(Vector2 topLeftCorner, Vector2 dimensions, int columns, int rows, float referenceY,
+	               GameObject followed, Function< Float, Float > groundTopFunction,
+	               IntUnaryOperator trunkHeightAt) {
+		super(topLeftCorner, dimensions, null);
+		this.followed = followed;
+		this.groundTopFunction = groundTopFunction;
+		this.trunkHeightAt = trunkHeightAt;
+		this.columns = columns;
+		this.rows = rows;
+		this.topY = referenceY - rows * Minimap.ROWS_ABOVE_REFERENCE * Block.SIZE;
+		this.image = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB);
+		this.pixels = ( ( DataBufferInt ) this.image.getRaster().getDataBuffer() ).getData();
+		this.renderer().setRenderable(new MinimapRenderable());
+		this.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	}
+	
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		final int newFirstColumn = Minimap.columnAt(this.followed.getCenter().x()) - this.columns / 2;
+		if (! this.rasterized || Math.abs(newFirstColumn - this.firstColumn) >= this.columns) {
+			this.rasterize(newFirstColumn, newFirstColumn + this.columns);
+			this.rasterized = true;
+		} else if (newFirstColumn > this.firstColumn) {
+			this.rasterize(this.firstColumn + this.columns, newFirstColumn + this.columns);
+		} else if (newFirstColumn < this.firstColumn) {
+			this.rasterize(newFirstColumn, this.firstColumn);
+		}
+		this.firstColumn = newFirstColumn;
+	}
+	
+	/**
+	 * Draws block columns [fromColumn, toColumn) into their pixel columns.
+	 */
+	private void rasterize(int fromColumn, int toColumn) {
+		for ( int column = fromColumn; column < toColumn; column++ ) {
+			final int x = Math.floorMod(column, this.columns);
+			final int groundRow = this.groundRowAt(column);
+			for ( int row = 0; row < this.rows; row++ ) {
+				this.pixels[row * this.columns + x] = row < groundRow ? Minimap.BACKGROUND_ARGB : Minimap.GROUND_ARGB;
+			}
+			// Trunks and canopies of the trees close enough to reach this column
+			for ( int treeColumn = column - Flora.CANOPY_RADIUS; treeColumn <= column + Flora.CANOPY_RADIUS;
+			      treeColumn++ ) {
+				final int trunkHeight = this.trunkHeightAt.applyAsInt(treeColumn * Block.SIZE);
+				if (trunkHeight == 0) {
+					continue;
+				}
+				final int treeGroundRow = treeColumn == column ? groundRow : this.groundRowAt(treeColumn);
+				final int canopyRow = treeGroundRow - trunkHeight - 1;
+				if (treeColumn == column) {
+					this.fill(x, canopyRow + 1, treeGroundRow, Minimap.TRUNK_ARGB);
+				}
+				this.fill(x, canopyRow - Flora.CANOPY_RADIUS, canopyRow + Flora.CANOPY_RADIUS + 1, Minimap.CANOPY_ARGB);
+			}
+		}
+	}
+	
+	/**
+	 * Colours rows [fromRow, toRow) of a pixel column, clipped to the image.
+	 */
+	private void fill(int x, int fromRow, int toRow, int argb) {
+		for ( int row = Math.max(0, fromRow); row < Math.min(this.rows, toRow); row++ ) {
+			this.pixels[row * this.columns + x] = argb;
+		}
+	}
+	
+	private int groundRowAt(int column) {
+		return this.rowAt(this.groundTopFunction.apply(( float ) column * Block.SIZE));
+	}
+	
+	private int rowAt(float y) {
+		return ( int ) Math.floor(( y - this.topY ) / Block.SIZE);
+	}
+	
+	private static int columnAt(float x) {
+		return ( int ) Math.floor(x / Block.SIZE);
+	}
+	
+	/**
+	 * Draws the ring buffer as its two slices, oldest column first, then marks the followed object.
+	 */
+	private class MinimapRenderable implements Renderable {
+		@Override
+		public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double angle,
+		                   boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+			final Minimap map = Minimap.this;
+			final float pixelWidth = dimensions.x() / map.columns;
+			final float pixelHeight = dimensions.y() / map.rows;
+			final int left = Math.round(topLeftCorner.x());
+			final int top = Math.round(topLeftCorner.y());
+			final int bottom = Math.round(topLeftCorner.y() + dimensions.y());
+			// Pixel column of the leftmost block column; columns from there to the image's end come first
+			final int split = Math.floorMod(map.firstColumn, map.columns);
+			final int splitX = Math.round(topLeftCorner.x() + ( map.columns - split ) * pixelWidth);
+			final int right = Math.round(topLeftCorner.x() + dimensions.x());
+			g.drawImage(map.image, left, top, splitX, bottom, split, 0, map.columns, map.rows, null);
+			g.drawImage(map.image, splitX, top, right, bottom, 0, 0, split, map.rows, null);
+			
+			final Vector2 center = map.followed.getCenter();
+			final float markerX = topLeftCorner.x() + ( center.x() / Block.SIZE - map.firstColumn ) * pixelWidth;
+			// Kept on the map when the followed object is above or below it
+			final float markerY = Math.max(topLeftCorner.y(), Math.min(topLeftCorner.y() + dimensions.y(),
+					topLeftCorner.y() + ( center.y() - map.topY ) / Block.SIZE * pixelHeight));
+			g.setColor(Minimap.AVATAR_COLOR);
+			g.fillRect(Math.round(markerX - pixelWidth), Math.round(markerY - pixelHeight),
+					Math.max(1, Math.round(2 * pixelWidth)), Math.max(1, Math.round(2 * pixelHeight)));
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package pepse.world.ui;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.UserInputListener;
+import danogl.gui.rendering.TextRenderable;
+import danogl.util.Vector2;
+import pepse.util.FrameProfiler;
+
+import java.awt.Color;
+
+/**
+ * A UI overlay showing the rolling frame-time profile: p50/p99/max frame time and the
+ * mean/max time per frame of every {@link FrameProfiler.Section}.
+ * Hidden by default and toggled with a key. While visible, the text is rebuilt only a few
+ * times per second, so reading the profile does not skew it.
+ */
+public class ProfilerOverlay extends GameObject {
+	private static final float REFRESH_INTERVAL = 0.25f;
+	private static final String FRAME_LINE_FORMAT = "Frame          p50 %5.2f  p99 %5.2f  max %5.2f ms\n";
+	private static final String SECTION_LINE_FORMAT = "%-14s avg %5.2f  max %5.2f ms\n";
+	
+	private final FrameProfiler profiler;
+	private final UserInputListener inputListener;
+	private final int toggleKey;
+	private final TextRenderable textRenderable;
+	private final StringBuilder text = new StringBuilder();
+	private boolean visible = false;
+	private float sinceRefresh = 0;
+	
+	/**
+	 * Creates a hidden profiler overlay.
+	 *
+	 * @param topLeftCorner Position of the overlay
+	 * @param dimensions    Size of the text block (all lines)
+	 * @param profiler      Profile to show
+	 * @param inputListener Keyboard input handler
+	 * @param toggleKey     Key code that shows/hides the overlay
+	 * @param textColor     Color of the text
+	 */
+	public ProfilerOverlay(Vector2 topLeftCorner, Vector2 dimensions, FrameProfiler profiler,
+	                       UserInputListener inputListener, int toggleKey, Color textColor) {
+		super(topLeftCorner, dimensions, null);
+		this.profiler = profiler;
+		this.inputListener = inputListener;
+		this.toggleKey = toggleKey;
+		this.textRenderable = new TextRenderable("");
+		this.textRenderable.setColor(textColor);
+		this.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+	}
+	
+	@Override
+	public void update(float deltaTime) {
+		super.update(deltaTime);
+		if (this.inputListener.wasKeyPressedThisFrame(this.toggleKey)) {
+			this.visible = ! this.visible;
+			this.renderer().setRenderable(this.visible ? this.textRenderable : null);
+			this.sinceRefresh = ProfilerOverlay.REFRESH_INTERVAL;
+		}
+		if (! this.visible) {
+			return;
+		}
+		this.sinceRefresh += deltaTime;
+		if (this.sinceRefresh >= ProfilerOverlay.REFRESH_INTERVAL) {
+			this.sinceRefresh = 0;
+			this.textRenderable.setString(this.formatProfile());
+		}
+	}
+	
+	private String formatProfile() {
+		this.text.setLength(0);
+		this.text.append(String.format(ProfilerOverlay.FRAME_LINE_FORMAT, this.profiler.frameMillisAt(50),
+				this.profiler.frameMillisAt(99), this.profiler.frameMillisAt(100)));
+		for ( FrameProfiler.Section section: FrameProfiler.Section.values() ) {
+			this.text.append(String.format(ProfilerOverlay.SECTION_LINE_FORMAT,
+					section.getLabel(),
+					this.profiler.sectionMeanMillis(section), this.profiler.sectionMaxMillis(section)));
+		}
+		return this.text.toString();
+	}
+}
@@ -21,6 +21,15 @@ import java.util.function.Function;
  */
 public class Cloud implements JumpListener {
 	
+	/**
+	 * Most raindrops one jump makes, unless capped lower with {@link #setMaxRaindrops}.
+	 */
+	public static final int MAX_RAINDROPS = 30;
+	/**
+	 * Height of a cloud's top as a fraction of the window height, unless created elsewhere.
+	 */
+	public static final float DEFAULT_START_Y_RATIO = 0.15f;
+	
 	private static final Color BASE_CLOUD_COLOR = new Color(255, 255, 255);
 	
 	// Shape definition for the cloud: 1 = block, 0 = empty.
@@ -34,9 +43,7 @@ public class Cloud implements JumpListener {
 	// Constants for movement and raindrop generation.
 	private static final float START_X_OFFSET = - 150.0f;
 	private static final float FINAL_X_OFFSET = 150.0f;
-	private static final float START_Y_RATIO = 0.15f;
 	private static final int MIN_RAINDROPS = 3;
-	private static final int MAX_RAINDROPS = 30;
 	private static final String CLOUD_BLOCK_TAG = "cloudBlock";
 	
 	// Instance fields.
@@ -44,6 +51,8 @@ public class Cloud implements JumpListener {
 	private final Random rand = new Random();
 	private Vector2 windowDimensions;
 	private float movementTimeSeconds;
+	private float startYRatio;
+	private int maxRaindrops = Cloud.MAX_RAINDROPS;
 	
 	private Function< Vector2, GameObject > createRaindropCallback;
 	
@@ -62,15 +71,41 @@ public class Cloud implements JumpListener {
 	public static Cloud create(Vector2 windowDimensions,
 	                           float movementTimeSeconds,
 	                           Function< Vector2, GameObject > createRaindropCallback) {
+		return Cloud.create(windowDimensions, movementTimeSeconds, Cloud.DEFAULT_START_Y_RATIO, createRaindropCallback);
+	}
+	
+	/**
+	 * Factory method to create a Cloud instance at a given height.
+	 *
+	 * @param windowDimensions       the dimensions of the game window.
+	 * @param movementTimeSeconds    the time it takes for the cloud to traverse the screen.
+	 * @param startYRatio            the cloud's top as a fraction of the window height.
+	 * @param createRaindropCallback a callback (factory) to create a raindrop effect at a given position.
+	 * @return a fully initialized Cloud instance.
+	 */
+	public static Cloud create(Vector2 windowDimensions,
+	                           float movementTimeSeconds,
+	                           float startYRatio,
+	                           Function< Vector2, GameObject > createRaindropCallback) {
 		final Cloud cloud = new Cloud();
 		cloud.windowDimensions = windowDimensions;
 		cloud.movementTimeSeconds = movementTimeSeconds;
+		cloud.startYRatio = startYRatio;
 		cloud.createRaindropCallback = createRaindropCallback;
 		cloud.initializeCloud();
 		return cloud;
 	}
 	
 	
+	/**
+	 * Caps the number of raindrops a single jump makes.
+	 *
+	 * @param maxRaindrops the cap; a jump still makes at least a few drops.
+	 */
+	public void setMaxRaindrops(int maxRaindrops) {
+		this.maxRaindrops = Math.max(Cloud.MIN_RAINDROPS, Math.min(Cloud.MAX_RAINDROPS, maxRaindrops));
+	}
+	
 	/**
 	 * Returns the list of Block objects that form this cloud.
 	 *
@@ -86,7 +121,7 @@ public class Cloud implements JumpListener {
 	 */
 	private void initializeCloud() {
 		final float startX = Cloud.START_X_OFFSET;
-		final float startY = this.windowDimensions.y() * Cloud.START_Y_RATIO;
+		final float startY = this.windowDimensions.y() * this.startYRatio;
 		final float blockSize = Block.SIZE;
 		
 		// Build cloud blocks based on the defined shape.
@@ -158,7 +193,7 @@ public class Cloud implements JumpListener {
 			if (pos.y() > maxY) maxY = pos.y();
 		}
 		final int dropsCount =
-				Cloud.MIN_RAINDROPS + this.rand.nextInt(Cloud.MAX_RAINDROPS - Cloud.MIN_RAINDROPS + 1);
+				Cloud.MIN_RAINDROPS + this.rand.nextInt(this.maxRaindrops - Cloud.MIN_RAINDROPS + 1);
 		for ( int i = 0; i < dropsCount; i++ ) {
 			final float dropX = minX + this.rand.nextFloat() * ( maxX - minX );
 			final float dropY = maxY + Block.SIZE; // start a bit below the cloud
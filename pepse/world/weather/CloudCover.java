@@ -0,0 +1,78 @@
+package pepse.world.weather;
+
+import pepse.world.JumpListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * A variable number of clouds that all rain when the avatar jumps.
+ * Clouds are added and removed through callbacks, so the cover does not know where their blocks live;
+ * the raindrop cap applies to every cloud, including ones added later.
+ */
+public class CloudCover implements JumpListener {
+	private final IntFunction< Cloud > addCloud;
+	private final Consumer< Cloud > removeCloud;
+	private final List< Cloud > clouds = new ArrayList<>();
+	private int maxRaindrops = Cloud.MAX_RAINDROPS;
+	
+	/**
+	 * Creates the cover with its first clouds.
+	 *
+	 * @param addCloud    Creates the cloud with the given index (0 for the first) and adds its blocks to the game
+	 * @param removeCloud Removes a cloud's blocks from the game
+	 * @param cloudCount  Number of clouds to start with
+	 */
+	public CloudCover(IntFunction< Cloud > addCloud, Consumer< Cloud > removeCloud, int cloudCount) {
+		this.addCloud = addCloud;
+		this.removeCloud = removeCloud;
+		this.setCloudCount(cloudCount);
+	}
+	
+	/**
+	 * Adds or removes clouds, newest first, until there are the given number.
+	 *
+	 * @param cloudCount Number of clouds, 0 for a clear sky
+	 */
+	public void setCloudCount(int cloudCount) {
+		while ( this.clouds.size() < cloudCount ) {
+			final Cloud cloud = this.addCloud.apply(this.clouds.size());
+			cloud.setMaxRaindrops(this.maxRaindrops);
+			this.clouds.add(cloud);
+		}
+		while ( this.clouds.size() > Math.max(0, cloudCount) ) {
+			this.removeCloud.accept(this.clouds.remove(this.clouds.size() - 1));
+		}
+	}
+	
+	/**
+	 * @return Number of clouds.
+	 */
+	public int getCloudCount() {
+		return this.clouds.size();
+	}
+	
+	/**
+	 * Caps the raindrops each cloud makes per jump; see {@link Cloud#setMaxRaindrops}.
+	 *
+	 * @param maxRaindrops The cap
+	 */
+	public void setMaxRaindrops(int maxRaindrops) {
+		this.maxRaindrops = maxRaindrops;
+		for ( Cloud cloud: this.clouds ) {
+			cloud.setMaxRaindrops(maxRaindrops);
+		}
+	}
+	
+	/**
+	 * Makes every cloud rain.
+	 */
+	@Override
+	public void onJump() {
+		for ( Cloud cloud: this.clouds ) {
+			cloud.onJump();
+		}
+	}
+}